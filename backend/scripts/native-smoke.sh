@@ -0,0 +1,83 @@
+#!/usr/bin/env bash
+#
+# Smoke test for the native executable: boots it against a local MongoDB,
+# reports time-to-first-request and resident memory, and exercises the main
+# endpoints so missing reflection/resource hints show up as failures.
+#
+#   ./mvnw -Pnative -DskipTests native:compile
+#   MONGODB_URI=mongodb://localhost:27017/splitwith_smoke scripts/native-smoke.sh
+#
+# BINARY overrides what is started, e.g. to compare with the JVM:
+#   BINARY="java -jar target/backend-0.0.1-SNAPSHOT.jar" scripts/native-smoke.sh
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+PORT="${SMOKE_PORT:-19191}"
+BINARY="${BINARY:-target/splitwith-backend}"
+BASE="http://localhost:$PORT"
+LOG="target/native-smoke.log"
+
+: "${MONGODB_URI:?set MONGODB_URI to a local MongoDB}"
+export BREVO_API_KEY="${BREVO_API_KEY:-smoke}"
+export BREVO_SENDER_EMAIL="${BREVO_SENDER_EMAIL:-smoke@localhost}"
+export BREVO_SENDER_NAME="${BREVO_SENDER_NAME:-smoke}"
+
+rss_mb() {
+    echo $(( $(ps -o rss= -p "$1") / 1024 ))
+}
+
+# Calls an endpoint and fails the smoke test on a non-2xx answer; prints the body
+call() {
+    local method="$1" path="$2" body="${3:-}" out status
+    out=$(mktemp)
+    status=$(curl -s -o "$out" -w '%{http_code}' -X "$method" -H 'Content-Type: application/json' \
+        ${body:+--data "$body"} "$BASE$path")
+    if [[ "$status" != 2* ]]; then
+        echo "FAIL $method $path -> $status: $(cat "$out")" >&2
+        exit 1
+    fi
+    echo "ok   $method $path" >&2
+    cat "$out"
+    rm -f "$out"
+}
+
+json_field() {
+    grep -o "\"$1\":\"[^\"]*\"" | head -1 | cut -d'"' -f4
+}
+
+start=$(date +%s%3N)
+# shellcheck disable=SC2086
+$BINARY --server.port="$PORT" --management.server.port=0 > "$LOG" 2>&1 &
+pid=$!
+trap 'kill "$pid" 2> /dev/null || true' EXIT
+
+until curl -sf "$BASE/health" > /dev/null; do
+    if ! kill -0 "$pid" 2> /dev/null; then
+        echo "startup failed, see $LOG" >&2
+        exit 1
+    fi
+    sleep 0.01
+done
+startup_ms=$(( $(date +%s%3N) - start ))
+idle_rss=$(rss_mb "$pid")
+
+user_a="smoke-$RANDOM-a"
+user_b="smoke-$RANDOM-b"
+trip_id=$(call POST /trips "{\"name\":\"Smoke trip\",\"createdBy\":\"$user_a\",\"createdByName\":\"Asha\",\"baseCurrency\":\"INR\"}" \
+    | json_field id)
+call POST /users/identity "{\"userId\":\"$user_b\",\"userName\":\"Bala\"}" > /dev/null
+call POST "/trips/$trip_id/join" "{\"userId\":\"$user_b\"}" > /dev/null
+call POST /expenses "{\"tripId\":\"$trip_id\",\"paidBy\":\"$user_a\",\"amount\":12000,\"description\":\"Dinner\",\"splitBetween\":[\"$user_a\",\"$user_b\"]}" > /dev/null
+call POST /expenses "{\"tripId\":\"$trip_id\",\"paidBy\":\"$user_b\",\"amount\":5000,\"currency\":\"USD\",\"description\":\"Taxi\",\"splitType\":\"SHARES\",\"splitBetween\":[\"$user_a\",\"$user_b\"],\"splitValues\":[1,3]}" > /dev/null
+call GET "/expenses/trip/$trip_id" > /dev/null
+call GET "/trips/$trip_id/balances" > /dev/null
+call GET "/trips/$trip_id/balance-summary" > /dev/null
+call GET "/trips/$trip_id/summary" > /dev/null
+call GET "/trips/$trip_id/events" > /dev/null
+call GET "/trips/user/$user_a/list" > /dev/null
+
+echo
+echo "time to first request: ${startup_ms} ms"
+echo "RSS after startup:     ${idle_rss} MB"
+echo "RSS after requests:    $(rss_mb "$pid") MB"
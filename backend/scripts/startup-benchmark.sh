@@ -0,0 +1,65 @@
+#!/usr/bin/env bash
+#
+# Measures time-to-first-request: from JVM launch until GET /health answers 200.
+# Compares the plain jar with the AOT + CDS build from the "cds" Maven profile.
+#
+#   MONGODB_URI=mongodb://localhost:27017/splitwith_bench scripts/startup-benchmark.sh [runs]
+#
+# Build first (from backend/):  ./mvnw -Pcds -DskipTests clean verify
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RUNS="${1:-5}"
+PORT="${BENCH_PORT:-19090}"
+JAR="target/backend-0.0.1-SNAPSHOT.jar"
+CDS_DIR="target/cds"
+
+: "${MONGODB_URI:?set MONGODB_URI}"
+export BREVO_API_KEY="${BREVO_API_KEY:-bench}"
+export BREVO_SENDER_EMAIL="${BREVO_SENDER_EMAIL:-bench@localhost}"
+export BREVO_SENDER_NAME="${BREVO_SENDER_NAME:-bench}"
+
+now_ms() {
+    date +%s%3N
+}
+
+# Prints milliseconds until the first successful request
+time_to_first_request() {
+    local start pid
+    start=$(now_ms)
+    "$@" --server.port="$PORT" --management.server.port=0 > /dev/null 2>&1 &
+    pid=$!
+    until curl -sf "http://localhost:$PORT/health" > /dev/null; do
+        if ! kill -0 "$pid" 2> /dev/null; then
+            echo "startup failed: $*" >&2
+            return 1
+        fi
+        sleep 0.02
+    done
+    echo $(( $(now_ms) - start ))
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+}
+
+bench() {
+    local label="$1"
+    shift
+    local total=0 best=999999 ms
+    for _ in $(seq "$RUNS"); do
+        ms=$(time_to_first_request "$@")
+        total=$(( total + ms ))
+        (( ms < best )) && best=$ms
+    done
+    printf '%-12s avg %6d ms   best %6d ms   (%d runs)\n' "$label" $(( total / RUNS )) "$best" "$RUNS"
+}
+
+[[ -f "$JAR" ]] || { echo "missing $JAR, build first" >&2; exit 1; }
+bench "jar" java -jar "$JAR"
+
+if [[ -f "$CDS_DIR/application.jsa" ]]; then
+    bench "aot+cds" java -XX:SharedArchiveFile="$CDS_DIR/application.jsa" -Dspring.aot.enabled=true \
+        -jar "$CDS_DIR/backend-0.0.1-SNAPSHOT.jar"
+else
+    echo "no CDS archive in $CDS_DIR, build with -Pcds to compare" >&2
+fi
@@ -2,8 +2,16 @@ package com.splittrip.backend;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import com.splittrip.backend.config.NativeHints;
 
 @SpringBootApplication
+@EnableScheduling
+@EnableAsync
+@ImportRuntimeHints(NativeHints.class)
 public class BackendApplication {
 
 	public static void main(String[] args) {
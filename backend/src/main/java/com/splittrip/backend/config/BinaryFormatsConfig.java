@@ -0,0 +1,73 @@
+package com.splittrip.backend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverters;
+import org.springframework.http.converter.cbor.JacksonCborHttpMessageConverter;
+import org.springframework.http.converter.smile.JacksonSmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import lombok.RequiredArgsConstructor;
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.MapperFeature;
+import tools.jackson.databind.SerializationConfig;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.cfg.DateTimeFeature;
+import tools.jackson.databind.cfg.EnumFeature;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+/**
+ * Lets clients ask for application/cbor or application/x-jackson-smile
+ * instead of JSON via the Accept header. JSON stays the default.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class BinaryFormatsConfig implements WebMvcConfigurer {
+
+    private final CBORMapper cborMapper;
+    private final JsonMapper jsonMapper;
+
+    @Override
+    public void configureMessageConverters(HttpMessageConverters.ServerBuilder builder) {
+        builder.withCborConverter(new JacksonCborHttpMessageConverter(cborMapper))
+                .withSmileConverter(new JacksonSmileHttpMessageConverter(smileMapper(jsonMapper)));
+    }
+
+    /**
+     * A Smile mapper configured like Boot's JSON mapper: the same modules
+     * (including @JacksonComponent and mixin modules), features, inclusion,
+     * naming and date settings. Boot configures a CBOR mapper but not a Smile
+     * one, and a mapper cannot be rebuilt into another format, so the
+     * settings are copied over.
+     */
+    static SmileMapper smileMapper(JsonMapper json) {
+        SerializationConfig config = json.serializationConfig();
+        SmileMapper.Builder builder = SmileMapper.builder()
+                .addModules(json.registeredModules())
+                .changeDefaultPropertyInclusion(inclusion -> config.getDefaultPropertyInclusion())
+                .defaultDateFormat(config.getDateFormat())
+                .defaultTimeZone(config.getTimeZone())
+                .defaultLocale(config.getLocale());
+        if (config.getPropertyNamingStrategy() != null) {
+            builder.propertyNamingStrategy(config.getPropertyNamingStrategy());
+        }
+
+        for (MapperFeature feature : MapperFeature.values()) {
+            builder.configure(feature, json.isEnabled(feature));
+        }
+        for (SerializationFeature feature : SerializationFeature.values()) {
+            builder.configure(feature, json.isEnabled(feature));
+        }
+        for (DeserializationFeature feature : DeserializationFeature.values()) {
+            builder.configure(feature, json.isEnabled(feature));
+        }
+        for (DateTimeFeature feature : DateTimeFeature.values()) {
+            builder.configure(feature, json.isEnabled(feature));
+        }
+        for (EnumFeature feature : EnumFeature.values()) {
+            builder.configure(feature, json.isEnabled(feature));
+        }
+        return builder.build();
+    }
+}
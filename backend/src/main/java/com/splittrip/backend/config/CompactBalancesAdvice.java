@@ -0,0 +1,58 @@
+package com.splittrip.backend.config;
+
+import java.util.List;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.JacksonCborHttpMessageConverter;
+import org.springframework.http.converter.smile.JacksonSmileHttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import com.splittrip.backend.dto.ApiResponse;
+import com.splittrip.backend.dto.BalanceSummary;
+import com.splittrip.backend.dto.CompactBalances;
+import com.splittrip.backend.dto.UserBalance;
+
+/**
+ * Swaps balance payloads for {@link CompactBalances} when the response is
+ * written as CBOR or Smile. JSON responses are left as they are.
+ */
+@ControllerAdvice
+@Order(0)
+public class CompactBalancesAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return JacksonCborHttpMessageConverter.class.isAssignableFrom(converterType)
+                || JacksonSmileHttpMessageConverter.class.isAssignableFrom(converterType);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType,
+            ServerHttpRequest request, ServerHttpResponse response) {
+        if (body instanceof ApiResponse<?> apiResponse && apiResponse.isSuccess()) {
+            CompactBalances compact = compact(apiResponse.getData());
+            if (compact != null) {
+                return ApiResponse.success(compact);
+            }
+        }
+        return body;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static CompactBalances compact(Object data) {
+        if (data instanceof BalanceSummary summary) {
+            return CompactBalances.of(summary);
+        }
+        if (data instanceof List<?> list && !list.isEmpty() && list.stream().allMatch(UserBalance.class::isInstance)) {
+            return CompactBalances.of((List<UserBalance>) list);
+        }
+        return null;
+    }
+}
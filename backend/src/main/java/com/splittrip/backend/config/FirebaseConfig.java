@@ -7,17 +7,23 @@ import com.google.firebase.auth.FirebaseAuth;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.core.io.ClassPathResource;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 
+/**
+ * Firebase beans are lazy: credentials are read and the SDK initialized on
+ * the first token verification rather than at startup.
+ */
 @Configuration
 @Slf4j
 public class FirebaseConfig {
 
     @Bean
+    @Lazy
     public FirebaseApp firebaseApp() throws Exception {
 
         InputStream serviceAccount;
@@ -51,6 +57,7 @@ public class FirebaseConfig {
     }
 
     @Bean
+    @Lazy
     public FirebaseAuth firebaseAuth(FirebaseApp firebaseApp) {
         return FirebaseAuth.getInstance(firebaseApp);
     }
@@ -1,31 +1,145 @@
 package com.splittrip.backend.config;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
 import org.springframework.data.mongodb.config.AbstractMongoClientConfiguration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
 
 import com.mongodb.ConnectionString;
 import com.mongodb.MongoClientSettings;
+import com.mongodb.ReadPreference;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
+import com.splittrip.backend.model.Trip;
+
+import lombok.RequiredArgsConstructor;
 
 @Configuration
+@EnableConfigurationProperties(MongoPoolProperties.class)
+@RequiredArgsConstructor
 public class MongoConfig extends AbstractMongoClientConfiguration {
 
+    public static final String READ_REPLICA_TEMPLATE = "readReplicaMongoTemplate";
+
+    // MongoDB rejects a maxStalenessSeconds below 90
+    private static final long MIN_MAX_STALENESS_SECONDS = 90;
+
     @Value("${spring.data.mongodb.uri}")
     private String mongoUri;
 
+    @Value("${app.mongo.replica-reads.enabled:false}")
+    private boolean replicaReadsEnabled;
+
+    @Value("${app.mongo.replica-reads.max-staleness-seconds:90}")
+    private long maxStalenessSeconds;
+
+    private final MongoPoolProperties poolProperties;
+    private final MongoPoolMetrics poolMetrics;
+
     @Override
     protected String getDatabaseName() {
         return "splitwith";
     }
 
+    /**
+     * Indexes are created by MongoIndexInitializer (unique ones before the
+     * application serves, the rest after), not while the mapping context initializes.
+     */
+    @Override
+    protected boolean autoIndexCreation() {
+        return false;
+    }
+
+    /**
+     * Register the @Document models up front so MongoIndexInitializer
+     * (and AOT processing) see all of them, not just those used so far.
+     */
+    @Override
+    protected Collection<String> getMappingBasePackages() {
+        return List.of(Trip.class.getPackageName());
+    }
+
     @Override
     public MongoClient mongoClient() {
         ConnectionString connectionString = new ConnectionString(mongoUri);
         MongoClientSettings mongoClientSettings = MongoClientSettings.builder()
                 .applyConnectionString(connectionString)
+                .applyToConnectionPoolSettings(pool -> {
+                    applyIfSet(poolProperties.getMaxSize(), pool::maxSize);
+                    applyIfSet(poolProperties.getMinSize(), pool::minSize);
+                    applyIfSet(poolProperties.getMaxConnecting(), pool::maxConnecting);
+                    applyIfSet(poolProperties.getMaxWaitTime(),
+                            d -> pool.maxWaitTime(d.toMillis(), TimeUnit.MILLISECONDS));
+                    applyIfSet(poolProperties.getMaxConnectionIdleTime(),
+                            d -> pool.maxConnectionIdleTime(d.toMillis(), TimeUnit.MILLISECONDS));
+                    applyIfSet(poolProperties.getMaxConnectionLifeTime(),
+                            d -> pool.maxConnectionLifeTime(d.toMillis(), TimeUnit.MILLISECONDS));
+                    pool.addConnectionPoolListener(poolMetrics);
+                })
+                .applyToSocketSettings(socket -> {
+                    applyIfSet(poolProperties.getConnectTimeout(),
+                            d -> socket.connectTimeout(d.toMillis(), TimeUnit.MILLISECONDS));
+                    applyIfSet(poolProperties.getReadTimeout(),
+                            d -> socket.readTimeout(d.toMillis(), TimeUnit.MILLISECONDS));
+                })
+                .applyToClusterSettings(cluster -> applyIfSet(poolProperties.getServerSelectionTimeout(),
+                        d -> cluster.serverSelectionTimeout(d.toMillis(), TimeUnit.MILLISECONDS)))
                 .build();
         return MongoClients.create(mongoClientSettings);
     }
+
+    private static <T> void applyIfSet(T value, Consumer<T> setter) {
+        if (value != null) {
+            setter.accept(value);
+        }
+    }
+
+    /**
+     * The template for writes and read-your-write paths: always the primary.
+     */
+    @Bean
+    @Primary
+    @Override
+    public MongoTemplate mongoTemplate(MongoDatabaseFactory databaseFactory, MappingMongoConverter converter) {
+        return super.mongoTemplate(databaseFactory, converter);
+    }
+
+    /**
+     * Transactions for MongoTransactions. Only primary reads may run inside
+     * one, so ReplicaReadRepository is never used there.
+     */
+    @Bean
+    public MongoTransactionManager transactionManager(MongoDatabaseFactory databaseFactory) {
+        return new MongoTransactionManager(databaseFactory);
+    }
+
+    /**
+     * The template behind ReplicaReadRepository. With replica reads enabled it
+     * prefers secondaries no further than maxStalenessSeconds behind, and falls
+     * back to the primary when none qualify; otherwise it reads the primary.
+     */
+    @Bean(READ_REPLICA_TEMPLATE)
+    public MongoTemplate readReplicaMongoTemplate(MongoDatabaseFactory databaseFactory,
+            MappingMongoConverter converter) {
+        MongoTemplate template = new MongoTemplate(databaseFactory, converter);
+        if (replicaReadsEnabled) {
+            if (maxStalenessSeconds < MIN_MAX_STALENESS_SECONDS) {
+                throw new IllegalStateException("app.mongo.replica-reads.max-staleness-seconds must be at least "
+                        + MIN_MAX_STALENESS_SECONDS);
+            }
+            template.setReadPreference(ReadPreference.secondaryPreferred(maxStalenessSeconds, TimeUnit.SECONDS));
+        }
+        return template;
+    }
 }
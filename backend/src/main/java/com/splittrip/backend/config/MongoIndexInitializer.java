@@ -0,0 +1,146 @@
+package com.splittrip.backend.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import org.bson.Document;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import com.splittrip.backend.model.JoinRequest;
+import com.splittrip.backend.model.JoinRequest.RequestStatus;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Creates the indexes declared on @Document models. Creating an index that
+ * already exists is a no-op, so after the first deployment this only
+ * confirms them.
+ *
+ * Unique indexes (e.g. Trip.tripCode, TripEvent tripId+seq, the pending
+ * JoinRequest index) are what keep duplicates out, so they are created
+ * before the application starts serving, and startup fails if one cannot be
+ * created. The others only speed up queries and are created on a background
+ * thread once the application is ready; a failure there is logged.
+ *
+ * Data written before an index existed may already hold duplicates.
+ * Duplicate pending join requests (the same user asking to join the same
+ * trip twice) are redundant, so all but the oldest are deleted first. Other
+ * duplicates, such as two trips sharing a tripCode, need a person to decide,
+ * so the conflicting documents are logged and startup fails.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MongoIndexInitializer implements SmartInitializingSingleton {
+
+    // Duplicate groups reported when a unique index cannot be created
+    private static final int MAX_REPORTED_DUPLICATES = 20;
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoMappingContext mappingContext;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long start = System.nanoTime();
+        removeDuplicatePendingJoinRequests();
+        int created = createIndexes(MongoIndexInitializer::isUnique, true);
+        log.info("Ensured {} unique Mongo indexes in {} ms", created, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void createIndexes() {
+        long start = System.nanoTime();
+        int created = createIndexes(index -> !isUnique(index), false);
+        log.info("Ensured {} Mongo indexes in {} ms", created, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private int createIndexes(Predicate<IndexDefinition> filter, boolean required) {
+        IndexResolver resolver = IndexResolver.create(mappingContext);
+        int created = 0;
+
+        for (MongoPersistentEntity<?> entity : mappingContext.getPersistentEntities()) {
+            if (!entity.isAnnotationPresent(org.springframework.data.mongodb.core.mapping.Document.class)) {
+                continue;
+            }
+            IndexOperations indexOps = mongoTemplate.indexOps(entity.getType());
+            for (IndexDefinition index : resolver.resolveIndexFor(entity.getTypeInformation())) {
+                if (!filter.test(index)) {
+                    continue;
+                }
+                try {
+                    indexOps.createIndex(index);
+                    created++;
+                } catch (RuntimeException e) {
+                    if (required) {
+                        logDuplicates(entity.getCollection(), index);
+                        throw new IllegalStateException("Failed to create unique index " + index.getIndexKeys()
+                                + " on " + entity.getCollection(), e);
+                    }
+                    log.error("Failed to create index {} on {}: {}",
+                            index.getIndexKeys(), entity.getCollection(), e.getMessage());
+                }
+            }
+        }
+        return created;
+    }
+
+    private void removeDuplicatePendingJoinRequests() {
+        String collection = mongoTemplate.getCollectionName(JoinRequest.class);
+        List<Document> pipeline = List.of(
+                new Document("$match", new Document("status", RequestStatus.PENDING.name())),
+                new Document("$sort", new Document("requestedAt", 1)),
+                new Document("$group", new Document("_id", new Document("tripId", "$tripId").append("userId", "$userId"))
+                        .append("ids", new Document("$push", "$_id"))),
+                new Document("$match", new Document("ids.1", new Document("$exists", true))));
+
+        List<Object> redundant = new ArrayList<>();
+        for (Document group : mongoTemplate.getCollection(collection).aggregate(pipeline).allowDiskUse(true)) {
+            List<?> ids = group.getList("ids", Object.class);
+            redundant.addAll(ids.subList(1, ids.size()));
+        }
+        if (!redundant.isEmpty()) {
+            mongoTemplate.getCollection(collection).deleteMany(new Document("_id", new Document("$in", redundant)));
+            log.warn("Deleted {} duplicate pending join requests: {}", redundant.size(), redundant);
+        }
+    }
+
+    // Log the groups of documents that share a key of the index
+    private void logDuplicates(String collection, IndexDefinition index) {
+        try {
+            Document key = new Document();
+            index.getIndexKeys().keySet().forEach(field -> key.append(field.replace('.', '_'), "$" + field));
+            Object filter = index.getIndexOptions().get("partialFilterExpression");
+            List<Document> pipeline = List.of(
+                    new Document("$match", filter instanceof Document partial ? partial : new Document()),
+                    new Document("$group", new Document("_id", key)
+                            .append("ids", new Document("$push", "$_id"))
+                            .append("count", new Document("$sum", 1))),
+                    new Document("$match", new Document("count", new Document("$gt", 1))),
+                    new Document("$limit", MAX_REPORTED_DUPLICATES));
+
+            for (Document group : mongoTemplate.getCollection(collection).aggregate(pipeline).allowDiskUse(true)) {
+                log.error("Duplicate {} in {}: {}", group.get("_id"), collection, group.get("ids"));
+            }
+        } catch (RuntimeException e) {
+            log.error("Could not look up the duplicates in {}: {}", collection, e.getMessage());
+        }
+    }
+
+    private static boolean isUnique(IndexDefinition index) {
+        return index.getIndexOptions().getBoolean("unique", false);
+    }
+}
@@ -0,0 +1,123 @@
+package com.splittrip.backend.config;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.stereotype.Component;
+
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckOutStartedEvent;
+import com.mongodb.event.ConnectionCheckedInEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionClosedEvent;
+import com.mongodb.event.ConnectionCreatedEvent;
+import com.mongodb.event.ConnectionPoolClosedEvent;
+import com.mongodb.event.ConnectionPoolCreatedEvent;
+import com.mongodb.event.ConnectionPoolListener;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Exports the Mongo driver's connection pool state per server:
+ * - mongodb.pool.size / checkedout / waiting (gauges)
+ * - mongodb.pool.connections.created and mongodb.pool.checkout.failed (counters)
+ * - mongodb.pool.checkout.wait (timer: time spent waiting for a connection)
+ * A waiting count above zero, or checkout failures with reason TIMEOUT,
+ * mean the pool is saturated.
+ */
+@Component
+@RequiredArgsConstructor
+public class MongoPoolMetrics implements ConnectionPoolListener {
+
+    private final MeterRegistry registry;
+    private final Map<ServerId, Pool> pools = new ConcurrentHashMap<>();
+
+    @Override
+    public void connectionPoolCreated(ConnectionPoolCreatedEvent event) {
+        pool(event.getServerId());
+    }
+
+    @Override
+    public void connectionPoolClosed(ConnectionPoolClosedEvent event) {
+        Pool pool = pools.remove(event.getServerId());
+        if (pool != null) {
+            pool.meters.forEach(registry::remove);
+        }
+    }
+
+    @Override
+    public void connectionCreated(ConnectionCreatedEvent event) {
+        Pool pool = pool(event.getConnectionId().getServerId());
+        pool.size.incrementAndGet();
+        pool.created.increment();
+    }
+
+    @Override
+    public void connectionClosed(ConnectionClosedEvent event) {
+        pool(event.getConnectionId().getServerId()).size.decrementAndGet();
+    }
+
+    @Override
+    public void connectionCheckOutStarted(ConnectionCheckOutStartedEvent event) {
+        pool(event.getServerId()).waiting.incrementAndGet();
+    }
+
+    @Override
+    public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+        Pool pool = pool(event.getConnectionId().getServerId());
+        pool.waiting.decrementAndGet();
+        pool.checkedOut.incrementAndGet();
+        pool.checkoutWait.record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void connectionCheckOutFailed(ConnectionCheckOutFailedEvent event) {
+        Pool pool = pool(event.getServerId());
+        pool.waiting.decrementAndGet();
+        Counter.builder("mongodb.pool.checkout.failed")
+                .tags(pool.tags.and("reason", event.getReason().name()))
+                .register(registry)
+                .increment();
+    }
+
+    @Override
+    public void connectionCheckedIn(ConnectionCheckedInEvent event) {
+        pool(event.getConnectionId().getServerId()).checkedOut.decrementAndGet();
+    }
+
+    private Pool pool(ServerId serverId) {
+        return pools.computeIfAbsent(serverId, id -> new Pool(registry, id));
+    }
+
+    private static final class Pool {
+        final AtomicInteger size = new AtomicInteger();
+        final AtomicInteger checkedOut = new AtomicInteger();
+        final AtomicInteger waiting = new AtomicInteger();
+        final Tags tags;
+        final Counter created;
+        final Timer checkoutWait;
+        final List<Meter> meters;
+
+        Pool(MeterRegistry registry, ServerId serverId) {
+            tags = Tags.of("server", serverId.getAddress().toString());
+            created = Counter.builder("mongodb.pool.connections.created").tags(tags).register(registry);
+            checkoutWait = Timer.builder("mongodb.pool.checkout.wait").tags(tags).register(registry);
+            meters = List.of(
+                    Gauge.builder("mongodb.pool.size", size, AtomicInteger::get).tags(tags).register(registry),
+                    Gauge.builder("mongodb.pool.checkedout", checkedOut, AtomicInteger::get).tags(tags).register(registry),
+                    Gauge.builder("mongodb.pool.waiting", waiting, AtomicInteger::get).tags(tags).register(registry),
+                    created,
+                    checkoutWait);
+        }
+    }
+}
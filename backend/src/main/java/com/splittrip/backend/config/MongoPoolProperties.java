@@ -0,0 +1,44 @@
+package com.splittrip.backend.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Mongo connection pool and timeout settings (app.mongo.pool.*).
+ * Anything left unset keeps the value from the connection string,
+ * or the driver default if the connection string does not set it either.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.mongo.pool")
+public class MongoPoolProperties {
+
+    // Connections per server (driver default 100)
+    private Integer maxSize;
+
+    // Connections kept open even when idle (driver default 0)
+    private Integer minSize;
+
+    // Connections being established at once (driver default 2)
+    private Integer maxConnecting;
+
+    // How long a request waits for a free connection before failing (driver default 2m)
+    private Duration maxWaitTime;
+
+    // Close connections idle for longer than this (driver default: never)
+    private Duration maxConnectionIdleTime;
+
+    // Close connections older than this (driver default: never)
+    private Duration maxConnectionLifeTime;
+
+    // TCP connect timeout (driver default 10s)
+    private Duration connectTimeout;
+
+    // Socket read timeout (driver default: none)
+    private Duration readTimeout;
+
+    // How long to wait for a suitable server, e.g. during a failover (driver default 30s)
+    private Duration serverSelectionTimeout;
+}
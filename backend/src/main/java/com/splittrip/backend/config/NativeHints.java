@@ -0,0 +1,95 @@
+package com.splittrip.backend.config;
+
+import java.util.List;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+import com.splittrip.backend.dto.ApiResponse;
+import com.splittrip.backend.dto.AuthResponse;
+import com.splittrip.backend.dto.BalanceSummary;
+import com.splittrip.backend.dto.CompactBalances;
+import com.splittrip.backend.dto.JoinRequestInbox;
+import com.splittrip.backend.dto.SettlementPlanDTO;
+import com.splittrip.backend.dto.TripListItemDTO;
+import com.splittrip.backend.dto.TripSummaryDTO;
+import com.splittrip.backend.dto.UserBalance;
+import com.splittrip.backend.model.Expense;
+import com.splittrip.backend.model.JoinRequest;
+import com.splittrip.backend.model.Otp;
+import com.splittrip.backend.model.Sequence;
+import com.splittrip.backend.model.Settlement;
+import com.splittrip.backend.model.Trip;
+import com.splittrip.backend.model.TripArchive;
+import com.splittrip.backend.model.TripBalance;
+import com.splittrip.backend.model.TripEvent;
+import com.splittrip.backend.model.User;
+import com.splittrip.backend.model.UserNetPosition;
+
+/**
+ * Reflection and resource hints for the native image (see the "native" Maven profile).
+ * Spring's AOT pass covers beans, repositories and controller signatures; this adds
+ * what it cannot see: documents only used through MongoTemplate, response types
+ * hidden behind ApiResponse<T>, and the JSON models and properties files that
+ * Firebase Admin and the Google API client load reflectively.
+ */
+public class NativeHints implements RuntimeHintsRegistrar {
+
+    // Lombok-generated models: Mongo mapping reads and writes fields and
+    // calls the no-args / all-args constructors reflectively
+    static final List<Class<?>> DOCUMENTS = List.of(
+            Trip.class, Expense.class, User.class, Otp.class, JoinRequest.class,
+            Settlement.class, TripBalance.class, TripEvent.class, Sequence.class, UserNetPosition.class, TripArchive.class);
+
+    // Serialized by Jackson inside ApiResponse<T>
+    static final List<Class<?>> RESPONSES = List.of(
+            ApiResponse.class, AuthResponse.class, BalanceSummary.class, BalanceSummary.BalanceInstruction.class,
+            CompactBalances.class, CompactBalances.Transfer.class, JoinRequestInbox.class, SettlementPlanDTO.class, TripListItemDTO.class, TripSummaryDTO.class, UserBalance.class);
+
+    // google-http-client maps JSON onto @Key fields of these reflectively
+    static final List<String> GOOGLE_JSON_TYPES = List.of(
+            "com.google.api.client.json.GenericJson",
+            "com.google.api.client.util.GenericData",
+            "com.google.api.client.json.webtoken.JsonWebSignature$Header",
+            "com.google.api.client.json.webtoken.JsonWebToken$Header",
+            "com.google.api.client.json.webtoken.JsonWebToken$Payload",
+            "com.google.api.client.auth.openidconnect.IdToken$Payload",
+            "com.google.api.client.auth.openidconnect.IdTokenResponse",
+            "com.google.api.client.auth.oauth2.TokenResponse",
+            "com.google.api.client.auth.oauth2.TokenErrorResponse",
+            "com.google.api.client.googleapis.auth.oauth2.GoogleIdToken$Payload",
+            "com.google.api.client.googleapis.auth.oauth2.GoogleTokenResponse",
+            "com.google.api.client.googleapis.json.GoogleJsonError",
+            "com.google.api.client.googleapis.json.GoogleJsonError$ErrorInfo");
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (Class<?> document : DOCUMENTS) {
+            hints.reflection().registerType(document,
+                    MemberCategory.ACCESS_DECLARED_FIELDS,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_DECLARED_METHODS);
+        }
+
+        BindingReflectionHintsRegistrar binding = new BindingReflectionHintsRegistrar();
+        binding.registerReflectionHints(hints.reflection(), DOCUMENTS.toArray(Class<?>[]::new));
+        binding.registerReflectionHints(hints.reflection(), RESPONSES.toArray(Class<?>[]::new));
+
+        for (String type : GOOGLE_JSON_TYPES) {
+            hints.reflection().registerTypeIfPresent(classLoader, type,
+                    MemberCategory.ACCESS_DECLARED_FIELDS,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+
+        // Bundled FX rates, local Firebase credentials, and the SDK version files
+        hints.resources()
+                .registerPattern("fx-rates.csv")
+                .registerPattern("firebase-service-account.json")
+                .registerPattern("admin_sdk.properties")
+                .registerPattern("com/google/api/client/googleapis/google-api-client.properties")
+                .registerPattern("com/google/api/client/http/google-http-client.properties");
+    }
+}
@@ -0,0 +1,15 @@
+package com.splittrip.backend.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an endpoint whose response data can be trimmed with a
+ * {@code fields=a,b,c} query parameter. See {@link SparseFieldsAdvice}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SparseFields {
+}
@@ -0,0 +1,86 @@
+package com.splittrip.backend.config;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import com.splittrip.backend.dto.ApiResponse;
+
+import lombok.RequiredArgsConstructor;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.node.ObjectNode;
+
+/**
+ * Keeps only the top-level properties named in {@code fields=} on
+ * {@link SparseFields} endpoints, e.g. {@code GET /trips/{id}?fields=name,tripCode}
+ * leaves out the members list. For list data each element is trimmed.
+ * Unknown names are ignored. Runs after {@link CompactBalancesAdvice}, so
+ * binary clients select from the compact property names.
+ */
+@ControllerAdvice
+@Order(1)
+@RequiredArgsConstructor
+public class SparseFieldsAdvice implements ResponseBodyAdvice<Object> {
+
+    static final String PARAM = "fields";
+
+    private final JsonMapper jsonMapper;
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return returnType.hasMethodAnnotation(SparseFields.class);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType,
+            ServerHttpRequest request, ServerHttpResponse response) {
+        if (!(body instanceof ApiResponse<?> apiResponse) || !apiResponse.isSuccess()
+                || !(request instanceof ServletServerHttpRequest servletRequest)) {
+            return body;
+        }
+        Set<String> fields = parse(servletRequest.getServletRequest().getParameter(PARAM));
+        if (fields.isEmpty()) {
+            return body;
+        }
+        return ApiResponse.success(select(jsonMapper, apiResponse.getData(), fields));
+    }
+
+    static Set<String> parse(String param) {
+        if (!StringUtils.hasText(param)) {
+            return Set.of();
+        }
+        return Arrays.stream(param.split(","))
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .collect(Collectors.toSet());
+    }
+
+    static JsonNode select(JsonMapper mapper, Object data, Set<String> fields) {
+        JsonNode node = mapper.valueToTree(data);
+        if (node.isArray()) {
+            node.forEach(element -> retain(element, fields));
+        } else {
+            retain(node, fields);
+        }
+        return node;
+    }
+
+    private static void retain(JsonNode node, Set<String> fields) {
+        if (node instanceof ObjectNode object) {
+            object.retain(fields);
+        }
+    }
+}
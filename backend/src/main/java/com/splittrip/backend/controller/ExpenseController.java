@@ -1,17 +1,25 @@
 package com.splittrip.backend.controller;
 
+import java.time.LocalDateTime;
+
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.splittrip.backend.dto.ApiResponse;
 import com.splittrip.backend.dto.CreateExpenseRequest;
+import com.splittrip.backend.dto.ExpenseFilter;
+import com.splittrip.backend.dto.UpdateExpenseRequest;
 import com.splittrip.backend.model.Expense;
 import com.splittrip.backend.service.ExpenseService;
 
@@ -38,14 +46,53 @@ public class ExpenseController {
         }
     }
 
+    /**
+     * Expenses of a trip, optionally filtered: paidBy, involving (payer or split member),
+     * from/to (ISO date-time, createdAt in [from, to)), minAmount/maxAmount (base currency paise).
+     */
     @GetMapping("/trip/{tripId}")
-    public ResponseEntity<ApiResponse<java.util.List<Expense>>> getExpensesByTrip(@PathVariable String tripId) {
+    public ResponseEntity<ApiResponse<java.util.List<Expense>>> getExpensesByTrip(
+            @PathVariable String tripId,
+            @RequestParam(required = false) String paidBy,
+            @RequestParam(required = false) String involving,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Long minAmount,
+            @RequestParam(required = false) Long maxAmount) {
         try {
-            java.util.List<Expense> expenses = expenseService.getExpensesForTrip(tripId);
+            ExpenseFilter filter = new ExpenseFilter(paidBy, involving, from, to, minAmount, maxAmount);
+            java.util.List<Expense> expenses = expenseService.getExpensesForTrip(tripId, filter);
             return ResponseEntity.ok(ApiResponse.success(expenses));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(ApiResponse.error(e.getMessage()));
         }
     }
+
+    @PutMapping("/{expenseId}")
+    public ResponseEntity<ApiResponse<Expense>> updateExpense(
+            @PathVariable String expenseId,
+            @Valid @RequestBody UpdateExpenseRequest request) {
+        try {
+            Expense expense = expenseService.updateExpense(expenseId, request);
+            return ResponseEntity.ok(ApiResponse.success(expense));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/{expenseId}")
+    public ResponseEntity<ApiResponse<Void>> deleteExpense(
+            @PathVariable String expenseId,
+            @RequestParam String userId,
+            @RequestParam(required = false) Long version) {
+        try {
+            expenseService.deleteExpense(expenseId, userId, version);
+            return ResponseEntity.ok(ApiResponse.success(null));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
 }
@@ -13,6 +13,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.splittrip.backend.dto.ApiResponse;
+import com.splittrip.backend.dto.JoinRequestInbox;
 import com.splittrip.backend.dto.JoinRequestResponseRequest;
 import com.splittrip.backend.dto.JoinRequestSubmitRequest;
 import com.splittrip.backend.model.JoinRequest;
@@ -50,6 +51,16 @@ public class JoinRequestController {
         return ResponseEntity.ok(ApiResponse.success(requests));
     }
 
+    /**
+     * Creator inbox: pending requests across all of the user's trips, with
+     * their count, instead of polling each trip's pending list.
+     */
+    @GetMapping("/creator/{userId}/inbox")
+    public ResponseEntity<ApiResponse<JoinRequestInbox>> getCreatorInbox(@PathVariable String userId) {
+        JoinRequestInbox inbox = joinRequestService.getInbox(userId);
+        return ResponseEntity.ok(ApiResponse.success(inbox));
+    }
+
     @GetMapping("/user/{userId}/pending")
     public ResponseEntity<ApiResponse<List<JoinRequest>>> getUserPendingRequests(
             @PathVariable String userId) {
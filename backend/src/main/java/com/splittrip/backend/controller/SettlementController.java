@@ -0,0 +1,96 @@
+package com.splittrip.backend.controller;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.splittrip.backend.dto.ApiResponse;
+import com.splittrip.backend.dto.RecordSettlementRequest;
+import com.splittrip.backend.dto.SettlementPlanDTO;
+import com.splittrip.backend.model.Settlement;
+import com.splittrip.backend.service.SettlementService;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/settlements")
+@RequiredArgsConstructor
+@Validated
+public class SettlementController {
+
+    private final SettlementService settlementService;
+
+    @PostMapping
+    public ResponseEntity<ApiResponse<Settlement>> recordSettlement(
+            @Valid @RequestBody RecordSettlementRequest request) {
+        try {
+            Settlement settlement = settlementService.recordSettlement(request);
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(ApiResponse.success(settlement));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    /**
+     * Receiver confirms the money arrived.
+     * Request: { userId: "<receiver id>" }
+     */
+    @PostMapping("/{settlementId}/confirm")
+    public ResponseEntity<ApiResponse<Settlement>> confirmSettlement(
+            @PathVariable String settlementId,
+            @RequestBody Map<String, String> request) {
+        try {
+            String userId = request.get("userId");
+            if (userId == null || userId.isBlank()) {
+                return ResponseEntity.badRequest()
+                        .body(ApiResponse.error("userId is required"));
+            }
+
+            Settlement settlement = settlementService.confirmSettlement(settlementId, userId);
+            return ResponseEntity.ok(ApiResponse.success(settlement));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/trip/{tripId}")
+    public ResponseEntity<ApiResponse<List<Settlement>>> getSettlementsByTrip(@PathVariable String tripId) {
+        try {
+            List<Settlement> settlements = settlementService.getSettlementsForTrip(tripId);
+            return ResponseEntity.ok(ApiResponse.success(settlements));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    /**
+     * Settle several trips at once: GET /settlements/plan?userId=...&tripIds=a,b
+     * (all of the user's trips when tripIds is omitted). One plan per currency.
+     */
+    @GetMapping("/plan")
+    public ResponseEntity<ApiResponse<List<SettlementPlanDTO>>> getCrossTripPlan(
+            @RequestParam String userId,
+            @RequestParam(required = false) List<String> tripIds) {
+        try {
+            return ResponseEntity.ok(ApiResponse.success(settlementService.planAcrossTrips(userId, tripIds)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+}
@@ -13,15 +13,20 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.splittrip.backend.config.SparseFields;
 import com.splittrip.backend.dto.ApiResponse;
 import com.splittrip.backend.dto.BalanceSummary;
 import com.splittrip.backend.dto.CreateTripRequest;
+import com.splittrip.backend.dto.TripListItemDTO;
 import com.splittrip.backend.dto.TripSummaryDTO;
 import com.splittrip.backend.dto.UserBalance;
 import com.splittrip.backend.model.Trip;
+import com.splittrip.backend.model.TripEvent;
 import com.splittrip.backend.service.BalanceService;
+import com.splittrip.backend.service.TripEventService;
 import com.splittrip.backend.service.TripService;
 import com.splittrip.backend.service.UserService;
 
@@ -37,6 +42,7 @@ public class TripController {
     private final TripService tripService;
     private final BalanceService balanceService;
     private final UserService userService;
+    private final TripEventService tripEventService;
 
     @PostMapping
     public ResponseEntity<ApiResponse<Trip>> createTrip(@Valid @RequestBody CreateTripRequest request) {
@@ -77,7 +83,28 @@ public class TripController {
         }
     }
 
+    /**
+     * Lightweight paged trip list: name, code, status, creator and member count.
+     * Prefer this over /trips/user/{userId} for landing/dashboard lists.
+     * Pass status=ACTIVE or status=COMPLETED to list only those trips.
+     */
+    @GetMapping("/user/{userId}/list")
+    public ResponseEntity<ApiResponse<List<TripListItemDTO>>> getTripListByUser(
+            @PathVariable String userId,
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            List<TripListItemDTO> trips = tripService.getTripListForUser(userId, status, page, size);
+            return ResponseEntity.ok(ApiResponse.success(trips));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
     @GetMapping("/code/{tripCode}")
+    @SparseFields
     public ResponseEntity<ApiResponse<Trip>> getTripByCode(@PathVariable String tripCode) {
         try {
             Trip trip = tripService.getTripByCode(tripCode);
@@ -89,6 +116,7 @@ public class TripController {
     }
 
     @GetMapping("/{tripId}")
+    @SparseFields
     public ResponseEntity<ApiResponse<Trip>> getTripById(@PathVariable String tripId) {
         try {
             Trip trip = tripService.getTripById(tripId);
@@ -119,6 +147,7 @@ public class TripController {
     }
 
     @GetMapping("/{tripId}/balances")
+    @SparseFields
     public ResponseEntity<ApiResponse<List<UserBalance>>> getBalances(@PathVariable String tripId) {
         try {
             List<UserBalance> balances = balanceService.calculateBalances(tripId);
@@ -130,6 +159,7 @@ public class TripController {
     }
 
     @GetMapping("/{tripId}/balance-summary")
+    @SparseFields
     public ResponseEntity<ApiResponse<BalanceSummary>> getBalanceSummary(@PathVariable String tripId) {
         try {
             BalanceSummary summary = balanceService.calculateBalanceSummary(tripId);
@@ -140,7 +170,22 @@ public class TripController {
         }
     }
 
+    @GetMapping("/{tripId}/events")
+    public ResponseEntity<ApiResponse<List<TripEvent>>> getTripEvents(
+            @PathVariable String tripId,
+            @RequestParam(defaultValue = "0") long afterSeq,
+            @RequestParam(defaultValue = "100") int limit) {
+        try {
+            List<TripEvent> events = tripEventService.history(tripId, afterSeq, limit);
+            return ResponseEntity.ok(ApiResponse.success(events));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
     @GetMapping("/{tripId}/summary")
+    @SparseFields
     public ResponseEntity<ApiResponse<TripSummaryDTO>> getTripSummary(@PathVariable String tripId) {
         try {
             TripSummaryDTO summary = tripService.getTripSummary(tripId);
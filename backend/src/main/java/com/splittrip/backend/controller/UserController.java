@@ -9,6 +9,8 @@ import com.splittrip.backend.dto.CreateGuestUserRequest;
 import com.splittrip.backend.dto.CreateUserRequest;
 import com.splittrip.backend.dto.ProfileUpdateRequest;
 import com.splittrip.backend.model.User;
+import com.splittrip.backend.model.UserNetPosition;
+import com.splittrip.backend.service.NetPositionService;
 import com.splittrip.backend.service.UserService;
 import com.splittrip.backend.utils.FirebaseTokenVerifier;
 
@@ -25,6 +27,7 @@ import java.util.Map;
 public class UserController {
 
     private final UserService userService;
+    private final NetPositionService netPositionService;
     private final FirebaseTokenVerifier firebaseTokenVerifier;
 
     /**
@@ -57,6 +60,34 @@ public class UserController {
         }
     }
 
+    /**
+     * Net position with every counterparty across all the user's trips,
+     * in paise per trip currency, plus a total per currency.
+     */
+    @GetMapping("/{id}/net")
+    public ResponseEntity<ApiResponse<UserNetPosition>> getNetPosition(@PathVariable String id) {
+        try {
+            return ResponseEntity.ok(ApiResponse.success(netPositionService.getNetPosition(id)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    /**
+     * Recompute the user's net position from their trips' history and
+     * replace the stored one.
+     */
+    @PostMapping("/{id}/net/rebuild")
+    public ResponseEntity<ApiResponse<UserNetPosition>> rebuildNetPosition(@PathVariable String id) {
+        try {
+            return ResponseEntity.ok(ApiResponse.success(netPositionService.rebuild(id)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
     /**
      * Legacy endpoint - no longer used (auth is handled via /auth/guest).
      * Kept for backward compatibility if needed.
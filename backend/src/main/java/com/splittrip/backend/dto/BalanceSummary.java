@@ -15,8 +15,9 @@ public class BalanceSummary {
     
     private String tripId;
     private String tripName;
+    private String currency;  // Trip base currency; all amounts are in it
     private List<UserBalance> rawBalances;  // For debugging/calculations
-    private List<BalanceInstruction> instructions;  // Human-readable
+    private List<BalanceInstruction> instructions;  // Clients word these, e.g. "Asha has to pay ₹135 to Rahul"
     
     @Data
     @Builder
@@ -28,6 +29,5 @@ public class BalanceSummary {
         private String toUserId;
         private String toUserName;
         private Double amount;
-        private String message;  // "You have to pay ₹135 to Rahul"
     }
 }
@@ -0,0 +1,87 @@
+package com.splittrip.backend.dto;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Balances as sent to CBOR/Smile clients. Each member id and name is written
+ * once in memberIds/memberNames; balances are parallel to memberIds and
+ * transfers refer to members by index.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompactBalances {
+
+    private String tripId;
+    private String tripName;
+    private String currency;
+    private List<String> memberIds;
+    private List<String> memberNames;
+    private List<Double> balances;
+    private List<Transfer> transfers;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Transfer {
+        private int from;
+        private int to;
+        private Double amount;
+    }
+
+    public static CompactBalances of(List<UserBalance> balances) {
+        CompactBalances compact = empty();
+        for (UserBalance balance : balances) {
+            compact.add(balance.getUserId(), balance.getUserName(), balance.getBalance());
+        }
+        return compact;
+    }
+
+    public static CompactBalances of(BalanceSummary summary) {
+        CompactBalances compact = of(summary.getRawBalances() != null ? summary.getRawBalances() : List.of());
+        compact.setTripId(summary.getTripId());
+        compact.setTripName(summary.getTripName());
+        compact.setCurrency(summary.getCurrency());
+
+        Map<String, Integer> index = new HashMap<>();
+        for (int i = 0; i < compact.memberIds.size(); i++) {
+            index.put(compact.memberIds.get(i), i);
+        }
+        if (summary.getInstructions() != null) {
+            for (BalanceSummary.BalanceInstruction instruction : summary.getInstructions()) {
+                int from = index.computeIfAbsent(instruction.getFromUserId(),
+                        id -> compact.add(id, instruction.getFromUserName(), 0.0));
+                int to = index.computeIfAbsent(instruction.getToUserId(),
+                        id -> compact.add(id, instruction.getToUserName(), 0.0));
+                compact.transfers.add(new Transfer(from, to, instruction.getAmount()));
+            }
+        }
+        return compact;
+    }
+
+    private static CompactBalances empty() {
+        return CompactBalances.builder()
+                .memberIds(new ArrayList<>())
+                .memberNames(new ArrayList<>())
+                .balances(new ArrayList<>())
+                .transfers(new ArrayList<>())
+                .build();
+    }
+
+    private int add(String userId, String userName, Double balance) {
+        memberIds.add(userId);
+        memberNames.add(userName);
+        balances.add(balance);
+        return memberIds.size() - 1;
+    }
+}
@@ -2,8 +2,9 @@ package com.splittrip.backend.dto;
 
 import java.util.List;
 
+import com.splittrip.backend.model.Expense.SplitType;
+
 import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import lombok.AllArgsConstructor;
@@ -25,9 +26,21 @@ public class CreateExpenseRequest {
     @Positive(message = "Amount must be greater than 0")
     private Double amount;
     
+    // ISO 4217 code, e.g. "USD"; defaults to the trip's base currency
+    private String currency;
+
     @NotBlank(message = "Description is required")
     private String description;
     
-    @NotEmpty(message = "SplitBetween cannot be empty")
+    // Required for every split type except EXCEPT
     private List<String> splitBetween;
+
+    // Defaults to EQUAL
+    private SplitType splitType;
+
+    // Parallel to splitBetween for EXACT (paise), PERCENTAGE (percent) and SHARES
+    private List<Double> splitValues;
+
+    // For EXCEPT: trip members who are left out of the split
+    private List<String> excludedMembers;
 }
@@ -20,4 +20,7 @@ public class CreateTripRequest {
     // Will auto-create user if not exists
     @NotBlank(message = "Creator userName is required")
     private String createdByName;
+
+    // ISO 4217 code; defaults to INR
+    private String baseCurrency;
 }
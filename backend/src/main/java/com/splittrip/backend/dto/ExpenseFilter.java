@@ -0,0 +1,24 @@
+package com.splittrip.backend.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Optional filters for a trip's expense list; null means "any".
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseFilter {
+    private String paidBy;       // userId who paid
+    private String involving;    // userId who paid or shares the expense
+    private LocalDateTime from;  // createdAt >= from
+    private LocalDateTime to;    // createdAt < to
+    private Long minAmount;      // base currency paise, inclusive
+    private Long maxAmount;      // base currency paise, inclusive
+}
@@ -0,0 +1,24 @@
+package com.splittrip.backend.dto;
+
+import java.util.List;
+
+import com.splittrip.backend.model.JoinRequest;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Pending join requests across all trips a user created, oldest first.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JoinRequestInbox {
+
+    private String creatorId;
+    private int pendingCount;
+    private List<JoinRequest> requests;
+}
@@ -0,0 +1,33 @@
+package com.splittrip.backend.dto;
+
+import com.splittrip.backend.model.Settlement.SettlementMethod;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecordSettlementRequest {
+
+    @NotBlank(message = "Trip ID is required")
+    private String tripId;
+
+    @NotBlank(message = "fromUserId is required")
+    private String fromUserId;  // Who paid
+
+    @NotBlank(message = "toUserId is required")
+    private String toUserId;    // Who received
+
+    @NotNull(message = "Amount is required")
+    @Positive(message = "Amount must be greater than 0")
+    private Double amount;      // in paise
+
+    private SettlementMethod method;
+
+    private String transactionId; // UPI transaction ID (optional)
+}
@@ -0,0 +1,22 @@
+package com.splittrip.backend.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Transfers that settle a set of trips at once, for one currency.
+ * Debts running in opposite directions across trips cancel out first.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SettlementPlanDTO {
+    private String currency;
+    private List<String> tripIds;
+    private List<BalanceSummary.BalanceInstruction> instructions;  // amounts in rupees, like BalanceSummary
+}
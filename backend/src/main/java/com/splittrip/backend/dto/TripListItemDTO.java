@@ -0,0 +1,28 @@
+package com.splittrip.backend.dto;
+
+import java.time.LocalDateTime;
+
+import com.splittrip.backend.model.Trip.TripStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Compact trip row for the "my trips" landing list.
+ * Built by a projection, so the members array never leaves the database.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TripListItemDTO {
+    private String tripId;
+    private String name;
+    private String tripCode;
+    private TripStatus status;
+    private String createdBy;
+    private int memberCount;
+    private LocalDateTime createdAt;
+}
@@ -21,5 +21,6 @@ public class TripSummaryDTO {
     private String name;
     private int memberCount;
     private long totalExpensesAmount; // in paise/cents
+    private String currency; // trip base currency
     private List<String> memberNames;
 }
@@ -0,0 +1,48 @@
+package com.splittrip.backend.dto;
+
+import java.util.List;
+
+import com.splittrip.backend.model.Expense.SplitType;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Replaces an expense's details. Same fields as CreateExpenseRequest
+ * (the trip cannot change), plus who is editing and the version they saw.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UpdateExpenseRequest {
+
+    @NotBlank(message = "userId is required")
+    private String userId;
+
+    // Version of the expense the edit is based on; null only for expenses created before versioning
+    private Long version;
+
+    @NotBlank(message = "PaidBy userId is required")
+    private String paidBy;
+
+    @NotNull(message = "Amount is required")
+    @Positive(message = "Amount must be greater than 0")
+    private Double amount;
+
+    private String currency;
+
+    @NotBlank(message = "Description is required")
+    private String description;
+
+    private List<String> splitBetween;
+
+    private SplitType splitType;
+
+    private List<Double> splitValues;
+
+    private List<String> excludedMembers;
+}
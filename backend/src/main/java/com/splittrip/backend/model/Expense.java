@@ -5,8 +5,12 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -22,17 +26,52 @@ public class Expense {
     @Id
     private String id;
 
+    @Indexed
     private String tripId;
 
+    @Version
+    private Long version;
+
     private String paidBy; // userId
 
-    private Double amount;
+    private Double amount; // in 1/100 units of currency (paise, cents)
+
+    private String currency; // ISO 4217 code; null = trip base currency
+
+    // Multiplier to the trip's base currency, fixed when the expense is created
+    private Double fxRate;
 
     private String description;
 
     @Builder.Default
     private List<String> splitBetween = new ArrayList<>(); // list of userIds
 
+    @Builder.Default
+    private SplitType splitType = SplitType.EQUAL;
+
+    // Parallel to splitBetween; null for equal splits.
+    // EXACT: paise, PERCENTAGE: basis points (10000 = 100%), SHARES: share count
+    private long[] splitWeights;
+
     @Builder.Default
     private LocalDateTime createdAt = LocalDateTime.now();
+
+    /**
+     * Amount in the trip's base currency (1/100 units).
+     * Uses the rate captured at creation, so balances never shift when FX rates refresh.
+     * Derived, so not part of the JSON form.
+     */
+    @JsonIgnore
+    public long getBaseAmount() {
+        long minorUnits = amount == null ? 0L : Math.round(amount);
+        return fxRate == null ? minorUnits : Math.round(minorUnits * fxRate);
+    }
+
+    public enum SplitType {
+        EQUAL,       // Everyone in splitBetween pays the same
+        EXACT,       // Each member pays an exact amount
+        PERCENTAGE,  // Each member pays a percentage
+        SHARES,      // Each member pays in proportion to their shares
+        EXCEPT       // Equal split among all trip members except some
+    }
 }
@@ -3,6 +3,8 @@ package com.splittrip.backend.model;
 import java.time.LocalDateTime;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import lombok.AllArgsConstructor;
@@ -15,6 +17,13 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "join_requests")
+@CompoundIndexes({
+    // A creator's inbox: all pending requests across their trips in one index range
+    @CompoundIndex(name = "creatorId_status_requestedAt", def = "{'creatorId': 1, 'status': 1, 'requestedAt': 1}"),
+    // At most one pending request per user and trip, enforced by Mongo instead of a read before insert
+    @CompoundIndex(name = "tripId_userId_pending", def = "{'tripId': 1, 'userId': 1}", unique = true,
+            partialFilter = "{'status': 'PENDING'}")
+})
 public class JoinRequest {
 
     @Id
@@ -22,6 +31,8 @@ public class JoinRequest {
 
     private String tripId;
 
+    private String creatorId; // Trip creator, who answers the request
+
     private String userId; // User requesting to join
 
     private String userName; // For display purposes
@@ -0,0 +1,26 @@
+package com.splittrip.backend.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Named monotonic counter. Advanced only through atomic $inc,
+ * so values are never read before they are handed out.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "sequences")
+public class Sequence {
+
+    @Id
+    private String id; // sequence name, e.g. "trip-code"
+
+    private long value; // last value handed out
+}
@@ -3,6 +3,7 @@ package com.splittrip.backend.model;
 import java.time.LocalDateTime;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import lombok.AllArgsConstructor;
@@ -20,13 +21,14 @@ public class Settlement {
     @Id
     private String id;
 
+    @Indexed
     private String tripId;
 
     private String fromUserId;  // Who paid
 
     private String toUserId;    // Who received
 
-    private Double amount;
+    private Double amount;      // in paise, same as Expense.amount
 
     @Builder.Default
     private SettlementMethod method = SettlementMethod.MANUAL;
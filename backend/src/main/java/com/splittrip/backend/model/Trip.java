@@ -5,6 +5,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -18,6 +19,7 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "trips")
+@CompoundIndex(name = "members_createdAt_id", def = "{'members': 1, 'createdAt': -1, '_id': -1}")
 public class Trip {
 
     @Id
@@ -34,6 +36,10 @@ public class Trip {
     @Builder.Default
     private List<String> members = new ArrayList<>(); // list of userIds
 
+    // Currency balances are kept in (ISO 4217 code)
+    @Builder.Default
+    private String baseCurrency = DEFAULT_CURRENCY;
+
     // Trip status
     @Builder.Default
     private TripStatus status = TripStatus.ACTIVE;
@@ -41,6 +47,13 @@ public class Trip {
     @Builder.Default
     private LocalDateTime createdAt = LocalDateTime.now();
 
+    public static final String DEFAULT_CURRENCY = "INR";
+
+    // Trips created before multi-currency support are in rupees
+    public String getBaseCurrency() {
+        return baseCurrency != null ? baseCurrency : DEFAULT_CURRENCY;
+    }
+
     public enum TripStatus {
         ACTIVE,      // Has pending balances
         COMPLETED    // Fully settled, read-only
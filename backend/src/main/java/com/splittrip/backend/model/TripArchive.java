@@ -0,0 +1,53 @@
+package com.splittrip.backend.model;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import com.splittrip.backend.dto.BalanceSummary;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Immutable archive of a completed trip: its final balances and payment
+ * instructions, plus its expenses as gzip-compressed JSON split into
+ * TripArchiveChunks. Completing a trip moves its expenses here out of the
+ * expenses collection; reopening it moves them back. Valid while the trip's
+ * event seq is still {@code lastSeq}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "trip_archives")
+public class TripArchive {
+
+    @Id
+    private String tripId;
+
+    // Trip event seq the summary was computed at
+    private long lastSeq;
+
+    private BalanceSummary summary;
+
+    private int expenseCount;
+
+    // Sum of the expenses in paise of the trip's base currency
+    private long totalAmount;
+
+    // Chunks holding the gzip of the expenses as a JSON array
+    private String generation;
+
+    private int chunkCount;
+
+    private long compressedBytes;
+
+    private long uncompressedBytes;
+
+    @Builder.Default
+    private LocalDateTime archivedAt = LocalDateTime.now();
+}
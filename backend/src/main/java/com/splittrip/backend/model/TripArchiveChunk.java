@@ -0,0 +1,35 @@
+package com.splittrip.backend.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One slice of a TripArchive's compressed expenses, so an archive of any
+ * size stays under MongoDB's 16 MB document limit. The chunks of one
+ * archive share its generation and are concatenated in index order.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "trip_archive_chunks")
+@CompoundIndex(name = "tripId_generation_index", def = "{'tripId': 1, 'generation': 1, 'index': 1}", unique = true)
+public class TripArchiveChunk {
+
+    @Id
+    private String id;
+
+    private String tripId;
+
+    private String generation; // TripArchive.generation
+
+    private int index; // 0, 1, 2...
+
+    private byte[] data;
+}
@@ -0,0 +1,40 @@
+package com.splittrip.backend.model;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Balance snapshot of a trip: net paise per member after every trip event
+ * up to and including {@code lastSeq}. Reads add the deltas of later events
+ * (see TripEvent), and the snapshot is periodically advanced over them,
+ * so a read replays at most a bounded tail of the trip's history.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "trip_balances")
+public class TripBalance {
+
+    @Id
+    private String tripId;
+
+    // userId -> net paise (positive = receives, negative = owes)
+    @Builder.Default
+    private Map<String, Long> balances = new HashMap<>();
+
+    // Highest trip event seq folded into balances (0 = none)
+    private long lastSeq;
+
+    @Builder.Default
+    private LocalDateTime updatedAt = LocalDateTime.now();
+}
@@ -0,0 +1,79 @@
+package com.splittrip.backend.model;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Append-only trip history. Every change that can move balances is an event
+ * carrying its per-member balance deltas, numbered by a per-trip sequence.
+ * Balances = latest TripBalance snapshot + deltas of events after it.
+ *
+ * An event is stored unnumbered in its change's transaction and gets its
+ * seq once that commits (see TripEventService); readers only see numbered
+ * events.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "trip_events")
+@CompoundIndex(name = "tripId_seq", def = "{'tripId': 1, 'seq': 1}", unique = true,
+        partialFilter = "{'seq': {'$exists': true}}")
+@CompoundIndex(name = "unnumbered_createdAt", def = "{'createdAt': 1}",
+        partialFilter = "{'seq': {'$exists': false}}")
+public class TripEvent {
+
+    @Id
+    private String id;
+
+    private String tripId;
+
+    private Long seq; // 1, 2, 3... per trip; null until the change has committed
+
+    private LocalDateTime numberedAt; // when seq was set
+
+    private EventType type;
+
+    private String subjectId; // expenseId, settlementId or userId, depending on type
+
+    private String actorId; // who made the change, when known
+
+    // userId -> paise in the trip's base currency; empty for MEMBER_JOINED
+    @Builder.Default
+    private Map<String, Long> deltas = new HashMap<>();
+
+    // State of the expense after the change (before it, for deletions), for audit
+    private Expense expense;
+
+    // State of the expense before an edit, so readers can tell who owes whom
+    private Expense previousExpense;
+
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    /**
+     * When the event got its seq, for the gap rule readers fold by. Events
+     * from before numberedAt was recorded were numbered when created.
+     */
+    public LocalDateTime seqTime() {
+        return numberedAt != null ? numberedAt : createdAt;
+    }
+
+    public enum EventType {
+        EXPENSE_ADDED,
+        EXPENSE_EDITED,
+        EXPENSE_DELETED,
+        MEMBER_JOINED,
+        SETTLEMENT_CONFIRMED
+    }
+}
@@ -0,0 +1,58 @@
+package com.splittrip.backend.model;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A user's net position with everyone they share a trip with, summed over
+ * all their trips. Each split member owes the payer their share of an
+ * expense; a confirmed settlement moves the amount back.
+ *
+ * Stored as a snapshot: positions include each trip's events up to its
+ * tripSeqs entry, and reads add the events after it (see
+ * NetPositionService), the way TripBalance works for one trip.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "user_net_snapshots")
+public class UserNetPosition {
+
+    @Id
+    private String userId;
+
+    // currency -> counterparty userId -> paise (positive = they owe this user, negative = this user owes them)
+    @Builder.Default
+    private Map<String, Map<String, Long>> positions = new HashMap<>();
+
+    // tripId -> highest event seq of the trip folded into positions
+    @Builder.Default
+    private Map<String, Long> tripSeqs = new HashMap<>();
+
+    // tripId -> ids of events already in positions that had no seq yet when
+    // the trip was added; skipped if they later show up after tripSeqs
+    @Builder.Default
+    private Map<String, List<String>> includedEvents = new HashMap<>();
+
+    @Builder.Default
+    private LocalDateTime updatedAt = LocalDateTime.now();
+
+    // currency -> net paise over all counterparties
+    public Map<String, Long> getTotals() {
+        Map<String, Long> totals = new HashMap<>();
+        positions.forEach((currency, counterparties) -> totals.put(currency,
+                counterparties.values().stream().mapToLong(Long::longValue).sum()));
+        return totals;
+    }
+}
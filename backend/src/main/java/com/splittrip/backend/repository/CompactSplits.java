@@ -0,0 +1,79 @@
+package com.splittrip.backend.repository;
+
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.mapping.event.AfterConvertCallback;
+import org.springframework.data.mongodb.core.mapping.event.BeforeSaveCallback;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import com.splittrip.backend.model.Expense;
+import com.splittrip.backend.utils.VarintOrdinals;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Optional compact storage of Expense.splitBetween. With
+ * {@code app.expenses.compact-splits=true} an expense is stored with
+ * {@code splitOrdinals}, its split members' trip ordinals (TripMemberTable)
+ * as varints, instead of the list of user ids: one byte per member for the
+ * first 128 members instead of a ~43-byte BSON string. Order is kept, since
+ * leftover paise and split weights follow it.
+ *
+ * Reads always decode splitOrdinals back into splitBetween, so the model
+ * and the API never see the difference and the setting can be switched
+ * either way. Expenses embedded in trip events keep their ids.
+ */
+@Component
+@RequiredArgsConstructor
+public class CompactSplits implements BeforeSaveCallback<Expense>, AfterConvertCallback<Expense> {
+
+    static final String SPLIT_BETWEEN = "splitBetween";
+    static final String SPLIT_ORDINALS = "splitOrdinals";
+
+    private final TripMemberTable memberTable;
+
+    @Value("${app.expenses.compact-splits:false}")
+    private boolean enabled;
+
+    @Override
+    public Expense onBeforeSave(Expense expense, Document document, String collection) {
+        byte[] packed = pack(expense);
+        if (packed != null) {
+            document.remove(SPLIT_BETWEEN);
+            document.put(SPLIT_ORDINALS, new Binary(packed));
+        }
+        return expense;
+    }
+
+    @Override
+    public Expense onAfterConvert(Expense expense, Document document, String collection) {
+        Object packed = document.get(SPLIT_ORDINALS);
+        if (packed instanceof Binary binary) {
+            expense.setSplitBetween(memberTable.members(expense.getTripId(), VarintOrdinals.decode(binary.getData())));
+        }
+        return expense;
+    }
+
+    /**
+     * Set the expense's split on a partial update, in whichever form is in use.
+     */
+    void setSplit(Update update, Expense expense) {
+        byte[] packed = pack(expense);
+        if (packed != null) {
+            update.set(SPLIT_ORDINALS, new Binary(packed)).unset(SPLIT_BETWEEN);
+        } else {
+            update.set(SPLIT_BETWEEN, expense.getSplitBetween()).unset(SPLIT_ORDINALS);
+        }
+    }
+
+    // Null when disabled or when a split member is not in the trip
+    private byte[] pack(Expense expense) {
+        if (!enabled || expense.getTripId() == null || expense.getSplitBetween() == null) {
+            return null;
+        }
+        int[] ordinals = memberTable.ordinals(expense.getTripId(), expense.getSplitBetween());
+        return ordinals == null ? null : VarintOrdinals.encode(ordinals);
+    }
+}
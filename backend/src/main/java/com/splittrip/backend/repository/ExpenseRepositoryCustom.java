@@ -0,0 +1,17 @@
+package com.splittrip.backend.repository;
+
+import com.splittrip.backend.model.Expense;
+
+public interface ExpenseRepositoryCustom {
+
+    /**
+     * Overwrite an expense's editable fields if it is still at {@code expectedVersion},
+     * bumping the version. Returns false if it changed or was deleted meanwhile.
+     */
+    boolean updateIfVersion(Expense expense, Long expectedVersion);
+
+    /**
+     * Delete an expense if it is still at {@code expectedVersion}.
+     */
+    boolean deleteIfVersion(String expenseId, Long expectedVersion);
+}
@@ -0,0 +1,46 @@
+package com.splittrip.backend.repository;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.splittrip.backend.model.Expense;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class ExpenseRepositoryImpl implements ExpenseRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+    private final CompactSplits compactSplits;
+
+    @Override
+    public boolean updateIfVersion(Expense expense, Long expectedVersion) {
+        Update update = new Update()
+                .set("paidBy", expense.getPaidBy())
+                .set("amount", expense.getAmount())
+                .set("currency", expense.getCurrency())
+                .set("fxRate", expense.getFxRate())
+                .set("description", expense.getDescription())
+                .set("splitType", expense.getSplitType())
+                .set("splitWeights", expense.getSplitWeights())
+                .inc("version", 1);
+        compactSplits.setSplit(update, expense);
+
+        return mongoTemplate.updateFirst(versionQuery(expense.getId(), expectedVersion), update, Expense.class)
+                .getMatchedCount() == 1;
+    }
+
+    @Override
+    public boolean deleteIfVersion(String expenseId, Long expectedVersion) {
+        return mongoTemplate.remove(versionQuery(expenseId, expectedVersion), Expense.class)
+                .getDeletedCount() == 1;
+    }
+
+    private static Query versionQuery(String expenseId, Long expectedVersion) {
+        // A null version also matches expenses saved before versioning existed
+        return Query.query(where("_id").is(expenseId).and("version").is(expectedVersion));
+    }
+}
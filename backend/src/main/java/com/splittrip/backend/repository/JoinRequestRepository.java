@@ -7,11 +7,13 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 import com.splittrip.backend.model.JoinRequest;
 import com.splittrip.backend.model.JoinRequest.RequestStatus;
 
-public interface JoinRequestRepository extends MongoRepository<JoinRequest, String> {
+public interface JoinRequestRepository extends MongoRepository<JoinRequest, String>, JoinRequestRepositoryCustom {
 
     List<JoinRequest> findByTripIdAndStatus(String tripId, RequestStatus status);
 
     List<JoinRequest> findByUserIdAndStatus(String userId, RequestStatus status);
 
-    boolean existsByTripIdAndUserIdAndStatus(String tripId, String userId, RequestStatus status);
+    List<JoinRequest> findByCreatorIdAndStatusOrderByRequestedAtAsc(String creatorId, RequestStatus status);
+
+    List<JoinRequest> findByStatusAndCreatorIdIsNull(RequestStatus status);
 }
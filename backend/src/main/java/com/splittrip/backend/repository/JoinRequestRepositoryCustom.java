@@ -0,0 +1,23 @@
+package com.splittrip.backend.repository;
+
+import java.util.Optional;
+
+import com.splittrip.backend.model.JoinRequest;
+import com.splittrip.backend.model.JoinRequest.RequestStatus;
+
+public interface JoinRequestRepositoryCustom {
+
+    /**
+     * Answer a pending request: set {@code status} and who responded when,
+     * in one findAndModify conditional on the request still being pending.
+     * Returns the updated request, or empty if it does not exist or was
+     * already answered.
+     */
+    Optional<JoinRequest> respond(String requestId, RequestStatus status, String responderId);
+
+    /**
+     * Set the creator of a pending request that has none, conditional on it
+     * still being pending without one. Returns whether it was set.
+     */
+    boolean setCreatorIfMissing(String requestId, String creatorId);
+}
@@ -0,0 +1,50 @@
+package com.splittrip.backend.repository;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.splittrip.backend.model.JoinRequest;
+import com.splittrip.backend.model.JoinRequest.RequestStatus;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class JoinRequestRepositoryImpl implements JoinRequestRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public Optional<JoinRequest> respond(String requestId, RequestStatus status, String responderId) {
+        // Of two concurrent answers only the first still matches
+        Query query = Query.query(where("_id").is(requestId).and("status").is(RequestStatus.PENDING));
+        Update update = new Update()
+                .set("status", status)
+                .set("respondedBy", responderId)
+                .set("respondedAt", LocalDateTime.now());
+
+        JoinRequest updated = mongoTemplate.findAndModify(
+                query,
+                update,
+                FindAndModifyOptions.options().returnNew(true),
+                JoinRequest.class);
+
+        return Optional.ofNullable(updated);
+    }
+
+    @Override
+    public boolean setCreatorIfMissing(String requestId, String creatorId) {
+        // An answer or another backfill that got there first is left alone
+        Query query = Query.query(where("_id").is(requestId)
+                .and("creatorId").is(null)
+                .and("status").is(RequestStatus.PENDING));
+        return mongoTemplate.updateFirst(query, Update.update("creatorId", creatorId), JoinRequest.class)
+                .getModifiedCount() == 1;
+    }
+}
@@ -0,0 +1,96 @@
+package com.splittrip.backend.repository;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ArrayOperators;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Repository;
+
+import com.splittrip.backend.config.MongoConfig;
+import com.splittrip.backend.dto.TripListItemDTO;
+import com.splittrip.backend.model.Trip;
+import com.splittrip.backend.model.Trip.TripStatus;
+import com.splittrip.backend.model.TripBalance;
+import com.splittrip.backend.model.TripEvent;
+import com.splittrip.backend.model.User;
+
+/**
+ * Read-only queries for the heavy read endpoints (balances, summaries, listings).
+ * They go through the read-replica template, so with replica reads enabled the
+ * results may lag the primary by up to the configured max staleness. Callers
+ * that must see their own writes, or that write back what they read, use the
+ * regular repositories instead.
+ */
+@Repository
+public class ReplicaReadRepository {
+
+    private final MongoOperations replica;
+
+    public ReplicaReadRepository(@Qualifier(MongoConfig.READ_REPLICA_TEMPLATE) MongoOperations replica) {
+        this.replica = replica;
+    }
+
+    public Optional<Trip> findTrip(String tripId) {
+        return Optional.ofNullable(replica.findById(tripId, Trip.class));
+    }
+
+    public Optional<TripBalance> findBalanceSnapshot(String tripId) {
+        return Optional.ofNullable(replica.findById(tripId, TripBalance.class));
+    }
+
+    public List<TripEvent> findEventsAfter(String tripId, long seq) {
+        Query query = Query.query(where("tripId").is(tripId).and("seq").gt(seq))
+                .with(Sort.by("seq"));
+        return replica.find(query, TripEvent.class);
+    }
+
+    /**
+     * userId -> name for the given users. Users not found are left out.
+     */
+    public Map<String, String> findUserNames(Collection<String> userIds) {
+        Query query = Query.query(where("_id").in(userIds));
+        query.fields().include("name");
+
+        Map<String, String> names = new HashMap<>();
+        for (User user : replica.find(query, User.class)) {
+            names.put(user.getId(), user.getName());
+        }
+        return names;
+    }
+
+    /**
+     * One page of the trips a user belongs to, newest first, with the member
+     * count computed by $size instead of returning the members array.
+     * A null status returns trips in any status.
+     */
+    public List<TripListItemDTO> findTripListItems(String userId, TripStatus status, int page, int size) {
+        // Filtered and sorted by the {members, createdAt, _id} index declared on
+        // Trip; _id breaks ties between trips created in the same millisecond
+        Criteria criteria = where("members").is(userId);
+        if (status != null) {
+            criteria = criteria.and("status").is(status);
+        }
+        TypedAggregation<Trip> aggregation = Aggregation.newAggregation(Trip.class,
+                Aggregation.match(criteria),
+                Aggregation.sort(Sort.by(Sort.Direction.DESC, "createdAt", "id")),
+                Aggregation.skip((long) page * size),
+                Aggregation.limit(size),
+                Aggregation.project("name", "tripCode", "status", "createdBy", "createdAt")
+                        .and("id").as("tripId")
+                        .and(ArrayOperators.Size.lengthOfArray("members")).as("memberCount"));
+
+        return replica.aggregate(aggregation, TripListItemDTO.class).getMappedResults();
+    }
+}
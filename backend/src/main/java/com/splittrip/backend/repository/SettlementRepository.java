@@ -5,11 +5,14 @@ import java.util.List;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
 import com.splittrip.backend.model.Settlement;
+import com.splittrip.backend.model.Settlement.SettlementStatus;
 
-public interface SettlementRepository extends MongoRepository<Settlement, String> {
+public interface SettlementRepository extends MongoRepository<Settlement, String>, SettlementRepositoryCustom {
 
     List<Settlement> findByTripId(String tripId);
 
+    List<Settlement> findByTripIdAndStatus(String tripId, SettlementStatus status);
+
     List<Settlement> findByFromUserId(String fromUserId);
 
     List<Settlement> findByToUserId(String toUserId);
@@ -0,0 +1,15 @@
+package com.splittrip.backend.repository;
+
+import java.util.Optional;
+
+import com.splittrip.backend.model.Settlement;
+
+public interface SettlementRepositoryCustom {
+
+    /**
+     * Atomically move a settlement from PENDING to CONFIRMED.
+     * Returns the confirmed settlement, or empty if it was not pending,
+     * so a settlement can only ever be folded into balances once.
+     */
+    Optional<Settlement> markConfirmed(String settlementId);
+}
@@ -0,0 +1,33 @@
+package com.splittrip.backend.repository;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.splittrip.backend.model.Settlement;
+import com.splittrip.backend.model.Settlement.SettlementStatus;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class SettlementRepositoryImpl implements SettlementRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public Optional<Settlement> markConfirmed(String settlementId) {
+        Query query = Query.query(where("_id").is(settlementId).and("status").is(SettlementStatus.PENDING));
+        Update update = new Update()
+                .set("status", SettlementStatus.CONFIRMED)
+                .set("settledAt", LocalDateTime.now());
+
+        return Optional.ofNullable(mongoTemplate.findAndModify(
+                query, update, FindAndModifyOptions.options().returnNew(true), Settlement.class));
+    }
+}
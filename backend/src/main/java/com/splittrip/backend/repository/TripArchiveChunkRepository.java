@@ -0,0 +1,16 @@
+package com.splittrip.backend.repository;
+
+import java.util.List;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import com.splittrip.backend.model.TripArchiveChunk;
+
+public interface TripArchiveChunkRepository extends MongoRepository<TripArchiveChunk, String> {
+
+    List<TripArchiveChunk> findByTripIdAndGenerationOrderByIndexAsc(String tripId, String generation);
+
+    void deleteByTripIdAndGenerationNot(String tripId, String generation);
+
+    void deleteByTripId(String tripId);
+}
@@ -0,0 +1,8 @@
+package com.splittrip.backend.repository;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import com.splittrip.backend.model.TripArchive;
+
+public interface TripArchiveRepository extends MongoRepository<TripArchive, String> {
+}
@@ -0,0 +1,8 @@
+package com.splittrip.backend.repository;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import com.splittrip.backend.model.TripBalance;
+
+public interface TripBalanceRepository extends MongoRepository<TripBalance, String>, TripBalanceRepositoryCustom {
+}
@@ -0,0 +1,13 @@
+package com.splittrip.backend.repository;
+
+import java.util.Map;
+
+public interface TripBalanceRepositoryCustom {
+
+    /**
+     * Replace a trip's snapshot with balances folded up to {@code newSeq},
+     * only if it is still at {@code expectedSeq}. Returns false if another
+     * request advanced it first (or it does not exist).
+     */
+    boolean advanceSnapshot(String tripId, long expectedSeq, long newSeq, Map<String, Long> balances);
+}
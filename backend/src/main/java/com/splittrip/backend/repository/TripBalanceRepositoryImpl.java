@@ -0,0 +1,31 @@
+package com.splittrip.backend.repository;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.splittrip.backend.model.TripBalance;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class TripBalanceRepositoryImpl implements TripBalanceRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public boolean advanceSnapshot(String tripId, long expectedSeq, long newSeq, Map<String, Long> balances) {
+        Query query = Query.query(where("_id").is(tripId).and("lastSeq").is(expectedSeq));
+        Update update = new Update()
+                .set("balances", balances)
+                .set("lastSeq", newSeq)
+                .set("updatedAt", LocalDateTime.now());
+
+        return mongoTemplate.updateFirst(query, update, TripBalance.class).getMatchedCount() == 1;
+    }
+}
@@ -0,0 +1,22 @@
+package com.splittrip.backend.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import com.splittrip.backend.model.TripEvent;
+
+public interface TripEventRepository extends MongoRepository<TripEvent, String>, TripEventRepositoryCustom {
+
+    List<TripEvent> findByTripId(String tripId);
+
+    Optional<TripEvent> findTopByTripIdOrderBySeqDesc(String tripId);
+
+    List<TripEvent> findByTripIdAndSeqIsNull(String tripId);
+
+    List<TripEvent> findByTripIdAndSeqGreaterThanOrderBySeqAsc(String tripId, long seq);
+
+    List<TripEvent> findByTripIdAndSeqGreaterThanOrderBySeqAsc(String tripId, long seq, Pageable pageable);
+}
@@ -0,0 +1,27 @@
+package com.splittrip.backend.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import com.splittrip.backend.model.TripEvent;
+
+public interface TripEventRepositoryCustom {
+
+    /**
+     * Give an event its seq, only if it has none yet. Returns false if
+     * another instance numbered it first (or it does not exist).
+     */
+    boolean assignSeq(String eventId, long seq);
+
+    /**
+     * Up to {@code limit} events still without a seq, created before {@code before}.
+     */
+    List<TripEvent> findUnnumbered(LocalDateTime before, int limit);
+
+    /**
+     * Events of several trips in one query: for each tripId -> seq, the
+     * trip's events after that seq. Ordered by trip, then seq.
+     */
+    List<TripEvent> findAfter(Map<String, Long> seqs);
+}
@@ -0,0 +1,55 @@
+package com.splittrip.backend.repository;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.splittrip.backend.model.TripEvent;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class TripEventRepositoryImpl implements TripEventRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public boolean assignSeq(String eventId, long seq) {
+        Query query = Query.query(where("_id").is(eventId).and("seq").exists(false));
+        Update update = new Update()
+                .set("seq", seq)
+                .set("numberedAt", LocalDateTime.now());
+
+        return mongoTemplate.updateFirst(query, update, TripEvent.class).getMatchedCount() == 1;
+    }
+
+    @Override
+    public List<TripEvent> findUnnumbered(LocalDateTime before, int limit) {
+        // Served by the partial unnumbered_createdAt index
+        Query query = Query.query(where("seq").exists(false).and("createdAt").lt(before))
+                .with(Sort.by("createdAt"))
+                .limit(limit);
+        return mongoTemplate.find(query, TripEvent.class);
+    }
+
+    @Override
+    public List<TripEvent> findAfter(Map<String, Long> seqs) {
+        if (seqs.isEmpty()) {
+            return List.of();
+        }
+        Criteria[] perTrip = seqs.entrySet().stream()
+                .map(entry -> where("tripId").is(entry.getKey()).and("seq").gt(entry.getValue()))
+                .toArray(Criteria[]::new);
+        Query query = Query.query(new Criteria().orOperator(perTrip))
+                .with(Sort.by("tripId", "seq"));
+        return mongoTemplate.find(query, TripEvent.class);
+    }
+}
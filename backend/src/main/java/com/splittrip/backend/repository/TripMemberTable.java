@@ -0,0 +1,119 @@
+package com.splittrip.backend.repository;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import com.splittrip.backend.model.Trip;
+
+/**
+ * Member ordinal table per trip: a member's ordinal is their index in
+ * Trip.members. Members are only ever appended ($addToSet), so an ordinal
+ * never changes and a cached table stays valid; it is reloaded only when
+ * asked about a member or ordinal it has not seen yet.
+ *
+ * The decoded lists share this table's String instances, so a trip's
+ * expenses hold one copy of each member id between them.
+ */
+@Component
+public class TripMemberTable {
+
+    private final Function<String, List<String>> loader;
+    private final Map<String, Table> tables;
+
+    @Autowired
+    public TripMemberTable(ObjectProvider<MongoTemplate> mongoTemplate,
+            @Value("${app.expenses.compact-splits.cached-trips:10000}") int cachedTrips) {
+        this(tripId -> loadMembers(mongoTemplate.getObject(), tripId), cachedTrips);
+    }
+
+    TripMemberTable(Function<String, List<String>> loader, int cachedTrips) {
+        this.loader = loader;
+        this.tables = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Table> eldest) {
+                return size() > cachedTrips;
+            }
+        });
+    }
+
+    /**
+     * Ordinals of the users, or null if one of them is not a member of the trip.
+     */
+    public int[] ordinals(String tripId, List<String> userIds) {
+        Table table = tables.get(tripId);
+        if (table == null || !table.index.keySet().containsAll(userIds)) {
+            table = reload(tripId);
+        }
+
+        int[] ordinals = new int[userIds.size()];
+        for (int i = 0; i < ordinals.length; i++) {
+            Integer ordinal = table.index.get(userIds.get(i));
+            if (ordinal == null) {
+                return null;
+            }
+            ordinals[i] = ordinal;
+        }
+        return ordinals;
+    }
+
+    public List<String> members(String tripId, int[] ordinals) {
+        Table table = tables.get(tripId);
+        int max = Arrays.stream(ordinals).max().orElse(-1);
+        if (table == null || max >= table.members.size()) {
+            table = reload(tripId);
+        }
+        if (max >= table.members.size()) {
+            throw new IllegalStateException("Unknown member ordinal " + max + " in trip " + tripId);
+        }
+
+        List<String> members = new ArrayList<>(ordinals.length);
+        for (int ordinal : ordinals) {
+            members.add(table.members.get(ordinal));
+        }
+        return members;
+    }
+
+    void put(String tripId, List<String> members) {
+        tables.put(tripId, new Table(members));
+    }
+
+    private Table reload(String tripId) {
+        Table table = new Table(loader.apply(tripId));
+        tables.put(tripId, table);
+        return table;
+    }
+
+    private static List<String> loadMembers(MongoTemplate mongoTemplate, String tripId) {
+        Query query = Query.query(where("_id").is(tripId));
+        query.fields().include("members");
+        Trip trip = mongoTemplate.findOne(query, Trip.class);
+        return trip == null ? List.of() : trip.getMembers();
+    }
+
+    private static final class Table {
+        final List<String> members;
+        final Map<String, Integer> index = new HashMap<>();
+
+        Table(List<String> members) {
+            this.members = List.copyOf(members);
+            for (int i = 0; i < this.members.size(); i++) {
+                index.put(this.members.get(i), i);
+            }
+        }
+    }
+}
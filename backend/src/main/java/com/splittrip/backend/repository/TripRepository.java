@@ -7,7 +7,7 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 
 import com.splittrip.backend.model.Trip;
 
-public interface TripRepository extends MongoRepository<Trip, String> {
+public interface TripRepository extends MongoRepository<Trip, String>, TripRepositoryCustom {
     List<Trip> findByMembersContaining(String userId);
     
     Optional<Trip> findByTripCode(String tripCode);
@@ -0,0 +1,32 @@
+package com.splittrip.backend.repository;
+
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import com.splittrip.backend.model.Trip;
+import com.splittrip.backend.model.Trip.TripStatus;
+
+/**
+ * Targeted trip updates that do not rewrite the whole document.
+ */
+public interface TripRepositoryCustom {
+
+    /**
+     * Atomically add a member with $addToSet.
+     * Returns the updated trip, or empty if the trip does not exist
+     * or the user is already a member.
+     */
+    Optional<Trip> addMember(String tripId, String userId);
+
+    /**
+     * Set the status with a single conditional $set, so it never conflicts
+     * with member adds. Returns the updated trip, or empty if the trip does
+     * not exist or already has this status.
+     */
+    Optional<Trip> updateStatus(String tripId, TripStatus status);
+
+    /**
+     * Pass every trip code to {@code action}, streamed with only the code projected.
+     */
+    void forEachTripCode(Consumer<String> action);
+}
@@ -0,0 +1,61 @@
+package com.splittrip.backend.repository;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.splittrip.backend.model.Trip;
+import com.splittrip.backend.model.Trip.TripStatus;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class TripRepositoryImpl implements TripRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public Optional<Trip> addMember(String tripId, String userId) {
+        Query query = Query.query(where("_id").is(tripId).and("members").ne(userId));
+
+        Trip updated = mongoTemplate.findAndModify(
+                query,
+                new Update().addToSet("members", userId),
+                FindAndModifyOptions.options().returnNew(true),
+                Trip.class);
+
+        return Optional.ofNullable(updated);
+    }
+
+    @Override
+    public Optional<Trip> updateStatus(String tripId, TripStatus status) {
+        // Only one of several concurrent identical transitions matches
+        Query query = Query.query(where("_id").is(tripId).and("status").ne(status));
+        Update update = new Update().set("status", status);
+
+        Trip updated = mongoTemplate.findAndModify(
+                query,
+                update,
+                FindAndModifyOptions.options().returnNew(true),
+                Trip.class);
+
+        return Optional.ofNullable(updated);
+    }
+
+    @Override
+    public void forEachTripCode(Consumer<String> action) {
+        Query query = new Query();
+        query.fields().include("tripCode").exclude("_id");
+        try (Stream<Trip> trips = mongoTemplate.stream(query, Trip.class)) {
+            trips.map(Trip::getTripCode).filter(Objects::nonNull).forEach(action);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.splittrip.backend.repository;
+
+import java.util.List;
+import java.util.Map;
+
+import com.splittrip.backend.model.UserNetPosition;
+
+public interface UserNetPositionRepositoryCustom {
+
+    /**
+     * Add trips to a user's snapshot: {@code positions} (currency ->
+     * counterparty -> paise) is added to theirs, and each trip is recorded at
+     * its seq with its included events. Only applied if none of the trips is
+     * in the snapshot yet; returns false otherwise.
+     */
+    boolean addTrips(String userId, Map<String, Map<String, Long>> positions,
+            Map<String, Long> tripSeqs, Map<String, List<String>> includedEvents);
+
+    /**
+     * Fold one trip's events up to {@code newSeq} into a user's snapshot by
+     * adding {@code deltas} (counterparty -> paise, in {@code currency}),
+     * only if the trip is still at {@code expectedSeq}. Returns false if
+     * another request folded it first.
+     */
+    boolean foldTrip(String userId, String tripId, long expectedSeq, long newSeq, String currency,
+            Map<String, Long> deltas, List<String> includedEvents);
+
+    /**
+     * Store {@code position} unless the user already has one, and return the
+     * stored document either way.
+     */
+    UserNetPosition insertIfAbsent(UserNetPosition position);
+}
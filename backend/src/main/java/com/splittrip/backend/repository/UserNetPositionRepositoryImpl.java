@@ -0,0 +1,70 @@
+package com.splittrip.backend.repository;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.splittrip.backend.model.UserNetPosition;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class UserNetPositionRepositoryImpl implements UserNetPositionRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public boolean addTrips(String userId, Map<String, Map<String, Long>> positions,
+            Map<String, Long> tripSeqs, Map<String, List<String>> includedEvents) {
+        Criteria criteria = where("_id").is(userId);
+        Update update = new Update().set("updatedAt", LocalDateTime.now());
+        tripSeqs.forEach((tripId, seq) -> {
+            criteria.and("tripSeqs." + tripId).exists(false);
+            update.set("tripSeqs." + tripId, seq);
+        });
+        includedEvents.forEach((tripId, eventIds) -> update.set("includedEvents." + tripId, eventIds));
+        positions.forEach((currency, counterparties) -> counterparties.forEach((counterpartyId, paise) ->
+                update.inc("positions." + currency + "." + counterpartyId, paise)));
+
+        return mongoTemplate.updateFirst(Query.query(criteria), update, UserNetPosition.class).getMatchedCount() == 1;
+    }
+
+    @Override
+    public boolean foldTrip(String userId, String tripId, long expectedSeq, long newSeq, String currency,
+            Map<String, Long> deltas, List<String> includedEvents) {
+        Query query = Query.query(where("_id").is(userId).and("tripSeqs." + tripId).is(expectedSeq));
+        Update update = new Update()
+                .set("tripSeqs." + tripId, newSeq)
+                .set("updatedAt", LocalDateTime.now());
+        if (includedEvents.isEmpty()) {
+            update.unset("includedEvents." + tripId);
+        } else {
+            update.set("includedEvents." + tripId, includedEvents);
+        }
+        deltas.forEach((counterpartyId, paise) -> update.inc("positions." + currency + "." + counterpartyId, paise));
+
+        return mongoTemplate.updateFirst(query, update, UserNetPosition.class).getMatchedCount() == 1;
+    }
+
+    @Override
+    public UserNetPosition insertIfAbsent(UserNetPosition position) {
+        Update update = new Update()
+                .setOnInsert("positions", position.getPositions())
+                .setOnInsert("tripSeqs", position.getTripSeqs())
+                .setOnInsert("includedEvents", position.getIncludedEvents())
+                .setOnInsert("updatedAt", position.getUpdatedAt());
+        return mongoTemplate.findAndModify(
+                Query.query(where("_id").is(position.getUserId())),
+                update,
+                FindAndModifyOptions.options().upsert(true).returnNew(true),
+                UserNetPosition.class);
+    }
+}
@@ -0,0 +1,161 @@
+package com.splittrip.backend.service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import com.splittrip.backend.model.Expense;
+import com.splittrip.backend.model.Settlement;
+import com.splittrip.backend.utils.SplitCalculator;
+
+/**
+ * Sums expense and settlement effects into a primitive balance vector
+ * indexed by member ordinal. Share buffers are reused across expenses,
+ * so replaying a trip allocates nothing per expense or per split member.
+ *
+ * Very large expense lists can be summed on a fork-join pool: each leaf
+ * fills its own accumulator over a slice of the list, and the vectors are
+ * added together as the tasks join.
+ */
+class BalanceAccumulator {
+
+    // Expenses per fork-join leaf
+    private static final int LEAF_SIZE = 1 << 12;
+
+    private final Map<String, Integer> ordinals = new HashMap<>();
+    private String[] memberIds = new String[16];
+    private long[] balances = new long[16];
+    private long[] shares = new long[16];
+    private long[] scratch = new long[16];
+
+    BalanceAccumulator() {
+    }
+
+    // Members get their ordinals up front, so leaves index them the same way
+    BalanceAccumulator(List<String> members) {
+        for (String memberId : members) {
+            ordinal(memberId);
+        }
+    }
+
+    /**
+     * Sum the expenses, on the common fork-join pool when there are at
+     * least {@code parallelThreshold} of them.
+     */
+    static BalanceAccumulator sum(List<Expense> expenses, List<String> members, int parallelThreshold) {
+        if (expenses.size() < parallelThreshold) {
+            BalanceAccumulator accumulator = new BalanceAccumulator(members);
+            expenses.forEach(accumulator::addExpense);
+            return accumulator;
+        }
+        return sum(expenses, members, ForkJoinPool.commonPool());
+    }
+
+    static BalanceAccumulator sum(List<Expense> expenses, List<String> members, ForkJoinPool pool) {
+        return pool.invoke(new SumTask(expenses, members, 0, expenses.size()));
+    }
+
+    void addExpense(Expense expense) {
+        List<String> split = expense.getSplitBetween();
+        if (split == null || split.isEmpty()) {
+            return;
+        }
+
+        long amount = expense.getBaseAmount();
+        int n = split.size();
+        ensureShareCapacity(n);
+        SplitCalculator.allocate(amount, expense.getSplitWeights(), n, shares, scratch);
+
+        add(expense.getPaidBy(), amount);
+        for (int i = 0; i < n; i++) {
+            add(split.get(i), -shares[i]);
+        }
+    }
+
+    void addSettlement(Settlement settlement) {
+        long amount = BalanceService.toPaise(settlement.getAmount());
+        add(settlement.getFromUserId(), amount);
+        add(settlement.getToUserId(), -amount);
+    }
+
+    /**
+     * Add another accumulator's balances into this one.
+     */
+    void merge(BalanceAccumulator other) {
+        for (int i = 0; i < other.ordinals.size(); i++) {
+            add(other.memberIds[i], other.balances[i]);
+        }
+    }
+
+    Map<String, Long> toMap() {
+        Map<String, Long> result = new HashMap<>();
+        for (int i = 0; i < ordinals.size(); i++) {
+            result.put(memberIds[i], balances[i]);
+        }
+        return result;
+    }
+
+    // Resolve the ordinal first: it may grow (replace) the balances array
+    private void add(String userId, long delta) {
+        int ordinal = ordinal(userId);
+        balances[ordinal] += delta;
+    }
+
+    private int ordinal(String userId) {
+        Integer ordinal = ordinals.get(userId);
+        if (ordinal != null) {
+            return ordinal;
+        }
+
+        int next = ordinals.size();
+        if (next == memberIds.length) {
+            memberIds = Arrays.copyOf(memberIds, next * 2);
+            balances = Arrays.copyOf(balances, next * 2);
+        }
+        memberIds[next] = userId;
+        ordinals.put(userId, next);
+        return next;
+    }
+
+    private void ensureShareCapacity(int n) {
+        if (shares.length < n) {
+            shares = new long[n];
+            scratch = new long[n];
+        }
+    }
+
+    private static final class SumTask extends RecursiveTask<BalanceAccumulator> {
+        private final List<Expense> expenses;
+        private final List<String> members;
+        private final int from;
+        private final int to;
+
+        SumTask(List<Expense> expenses, List<String> members, int from, int to) {
+            this.expenses = expenses;
+            this.members = members;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected BalanceAccumulator compute() {
+            if (to - from <= LEAF_SIZE) {
+                BalanceAccumulator accumulator = new BalanceAccumulator(members);
+                for (int i = from; i < to; i++) {
+                    accumulator.addExpense(expenses.get(i));
+                }
+                return accumulator;
+            }
+
+            int mid = (from + to) >>> 1;
+            SumTask right = new SumTask(expenses, members, mid, to);
+            right.fork();
+            BalanceAccumulator left = new SumTask(expenses, members, from, mid).compute();
+            left.merge(right.join());
+            return left;
+        }
+    }
+}
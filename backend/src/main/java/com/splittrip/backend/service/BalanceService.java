@@ -1,88 +1,92 @@
 package com.splittrip.backend.service;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 
 import com.splittrip.backend.dto.BalanceSummary;
 import com.splittrip.backend.dto.UserBalance;
 import com.splittrip.backend.model.Expense;
+import com.splittrip.backend.model.Settlement;
+import com.splittrip.backend.model.Settlement.SettlementStatus;
 import com.splittrip.backend.model.Trip;
+import com.splittrip.backend.model.TripBalance;
+import com.splittrip.backend.model.TripEvent;
+import com.splittrip.backend.model.TripEvent.EventType;
 import com.splittrip.backend.model.User;
-import com.splittrip.backend.repository.ExpenseRepository;
+import com.splittrip.backend.repository.ReplicaReadRepository;
+import com.splittrip.backend.repository.SettlementRepository;
+import com.splittrip.backend.repository.TripBalanceRepository;
 import com.splittrip.backend.repository.TripRepository;
 import com.splittrip.backend.repository.UserRepository;
+import com.splittrip.backend.utils.SplitCalculator;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class BalanceService {
 
+    // Archive seq no event count ever matches
+    private static final long UNTRUSTED_SEQ = -1;
+
     private final TripRepository tripRepository;
-    private final ExpenseRepository expenseRepository;
     private final UserRepository userRepository;
+    private final SettlementRepository settlementRepository;
+    private final TripBalanceRepository tripBalanceRepository;
+    private final TripEventService tripEventService;
+    private final ReplicaReadRepository replicaReads;
+    private final TripArchiveService tripArchiveService;
+    private final MongoTransactions mongoTransactions;
+
+    // Advance the snapshot once a read has to replay this many events
+    @Value("${app.balances.snapshot-every:100}")
+    private int snapshotEvery;
+
+    // How long a gap in event seqs may be an in-flight append
+    @Value("${app.balances.snapshot-gap-grace-ms:60000}")
+    private long snapshotGapGraceMs;
+
+    // Sum a trip's expenses on the fork-join pool from this many on
+    @Value("${app.balances.parallel-threshold:50000}")
+    private int parallelThreshold;
 
     /**
      * Calculate balances for all members in a trip.
      * Logic:
      * - For each expense, the person who paid gets credited the full amount
-     * - Each person in splitBetween gets debited their equal share
+     * - Each person in splitBetween gets debited their share (equal or weighted)
+     * - A confirmed settlement credits the payer and debits the receiver
      * - Positive balance = user should receive money
      * - Negative balance = user owes money
      * - Total of all balances must equal zero
+     * 
+     * Balances come from the trip's snapshot in trip_balances plus the
+     * events logged after it, so the cost is bounded by events since the
+     * snapshot rather than the trip's whole history. They are read through
+     * ReplicaReadRepository, so may lag writes when replica reads are enabled.
      */
     public List<UserBalance> calculateBalances(String tripId) {
         // Validate trip exists
-        Trip trip = tripRepository.findById(tripId)
-                .orElseThrow(() -> new IllegalArgumentException("Trip not found"));
-
-        // Get all expenses for this trip
-        List<Expense> expenses = expenseRepository.findByTripId(tripId);
-
-        // Initialize balance map for all trip members
-        Map<String, Double> balances = new HashMap<>();
-        for (String memberId : trip.getMembers()) {
-            balances.put(memberId, 0.0);
-        }
-
-        // Calculate balances from expenses
-        for (Expense expense : expenses) {
-            // Amount is stored in paise; convert to rupees for calculations
-            double amountRupees = (expense.getAmount() == null ? 0.0 : expense.getAmount() / 100.0);
-
-            // Person who paid gets credited the full amount (in rupees)
-            balances.put(expense.getPaidBy(),
-                balances.getOrDefault(expense.getPaidBy(), 0.0) + amountRupees);
-
-            // Calculate equal share (in rupees)
-            int splitCount = expense.getSplitBetween().size();
-            double sharePerPerson = splitCount > 0 ? amountRupees / splitCount : 0.0;
+        Trip trip = findTrip(tripId);
 
-            // Each person in split gets debited their share
-            for (String userId : expense.getSplitBetween()) {
-            balances.put(userId,
-                balances.getOrDefault(userId, 0.0) - sharePerPerson);
-            }
+        Optional<BalanceSummary> archived = archivedSummary(trip);
+        if (archived.isPresent()) {
+            return archived.get().getRawBalances();
         }
-
-        // Convert to UserBalance DTOs with user names
-        return balances.entrySet().stream()
-                .map(entry -> {
-                    User user = userRepository.findById(entry.getKey())
-                            .orElseThrow(() -> new IllegalArgumentException("User not found: " + entry.getKey()));
-                    
-                    return UserBalance.builder()
-                            .userId(entry.getKey())
-                            .userName(user.getName())
-                            .balance(Math.round(entry.getValue() * 100.0) / 100.0) // Round to 2 decimals
-                            .build();
-                })
-                .collect(Collectors.toList());
+        return toUserBalances(trip, loadBalancesFromReplica(tripId));
     }
 
     /**
@@ -90,59 +94,329 @@ public class BalanceService {
      * Example: "You have to pay ₹135 to Rahul" or "Rahul has to pay you ₹200"
      */
     public BalanceSummary calculateBalanceSummary(String tripId) {
-        Trip trip = tripRepository.findById(tripId)
-                .orElseThrow(() -> new IllegalArgumentException("Trip not found"));
+        Trip trip = findTrip(tripId);
+
+        return archivedSummary(trip)
+                .orElseGet(() -> summarize(trip, toUserBalances(trip, loadBalancesFromReplica(tripId))));
+    }
 
-        List<UserBalance> rawBalances = calculateBalances(tripId);
+    /**
+     * Archive a just-completed trip with its final balances, computed on the
+     * primary so the archive cannot miss a recent write.
+     */
+    public void archiveTrip(Trip trip) {
+        // Read the seq first, so the archive is only trusted if nothing came after
+        long seq = tripEventService.currentSeq(trip.getId());
+        Replay replay = load(trip.getId());
+        BalanceSummary summary = summarize(trip, toUserBalances(trip, replay.balances));
+
+        // A seq handed out but not yet set on its event is missing from the
+        // summary, so it is only trusted at seq if everything up to it was folded
+        tripArchiveService.archive(trip, replay.foldedSeq >= seq ? seq : UNTRUSTED_SEQ, summary);
+    }
+
+    // Completed trips are served from their archive while it is current
+    private Optional<BalanceSummary> archivedSummary(Trip trip) {
+        return trip.getStatus() == Trip.TripStatus.COMPLETED ? tripArchiveService.summary(trip) : Optional.empty();
+    }
+
+    private static BalanceSummary summarize(Trip trip, List<UserBalance> rawBalances) {
         List<BalanceSummary.BalanceInstruction> instructions = new ArrayList<>();
 
-        // Separate debtors and creditors
-        Map<String, UserBalance> creditors = new HashMap<>();  // Positive balance - should receive
-        Map<String, UserBalance> debtors = new HashMap<>();     // Negative balance - should pay
+        // Separate debtors and creditors; what each creditor is still owed is
+        // tracked here so rawBalances are returned unchanged
+        Map<String, Double> creditors = new LinkedHashMap<>();  // Positive balance - should receive
+        List<UserBalance> debtors = new ArrayList<>();           // Negative balance - should pay
+        Map<String, String> names = new HashMap<>();
 
         for (UserBalance balance : rawBalances) {
+            names.put(balance.getUserId(), balance.getUserName());
             if (balance.getBalance() > 0.01) {  // Small threshold to handle floating point
-                creditors.put(balance.getUserId(), balance);
+                creditors.put(balance.getUserId(), balance.getBalance());
             } else if (balance.getBalance() < -0.01) {
-                debtors.put(balance.getUserId(), balance);
+                debtors.add(balance);
             }
         }
 
         // Generate payment instructions using greedy algorithm
-        for (UserBalance debtor : debtors.values()) {
+        for (UserBalance debtor : debtors) {
             double amountOwed = Math.abs(debtor.getBalance());
             
-            for (UserBalance creditor : creditors.values()) {
+            for (Map.Entry<String, Double> creditor : creditors.entrySet()) {
                 if (amountOwed < 0.01) break;  // Debt settled
-                if (creditor.getBalance() < 0.01) continue;  // Creditor already paid
+                if (creditor.getValue() < 0.01) continue;  // Creditor already paid
 
-                double amountToSettle = Math.min(amountOwed, creditor.getBalance());
+                double amountToSettle = Math.min(amountOwed, creditor.getValue());
                 amountToSettle = Math.round(amountToSettle * 100.0) / 100.0;
 
                 // Create instruction
                 BalanceSummary.BalanceInstruction instruction = BalanceSummary.BalanceInstruction.builder()
                         .fromUserId(debtor.getUserId())
                         .fromUserName(debtor.getUserName())
-                        .toUserId(creditor.getUserId())
-                        .toUserName(creditor.getUserName())
+                        .toUserId(creditor.getKey())
+                        .toUserName(names.get(creditor.getKey()))
                         .amount(amountToSettle)
-                        .message(String.format("%s has to pay ₹%.2f to %s", 
-                                debtor.getUserName(), amountToSettle, creditor.getUserName()))
                         .build();
 
                 instructions.add(instruction);
 
                 // Update balances
                 amountOwed -= amountToSettle;
-                creditor.setBalance(creditor.getBalance() - amountToSettle);
+                creditor.setValue(creditor.getValue() - amountToSettle);
             }
         }
 
         return BalanceSummary.builder()
-                .tripId(tripId)
+                .tripId(trip.getId())
                 .tripName(trip.getName())
+                .currency(trip.getBaseCurrency())
                 .rawBalances(rawBalances)
                 .instructions(instructions)
                 .build();
     }
+
+    /**
+     * Net paise per member of a trip that has any balance, in the trip's
+     * base currency. Read like calculateBalances, so may lag writes.
+     */
+    public Map<String, Long> tripBalancePaise(String tripId) {
+        return loadBalancesFromReplica(tripId);
+    }
+
+    /**
+     * The trip from the replica, or from the primary if it was created
+     * too recently to have replicated yet.
+     */
+    private Trip findTrip(String tripId) {
+        return replicaReads.findTrip(tripId)
+                .or(() -> tripRepository.findById(tripId))
+                .orElseThrow(() -> new IllegalArgumentException("Trip not found"));
+    }
+
+    /**
+     * Create the empty balance snapshot for a new trip.
+     */
+    public void initializeTrip(String tripId) {
+        tripBalanceRepository.insert(TripBalance.builder().tripId(tripId).build());
+    }
+
+    /**
+     * Record a newly created expense in the trip's event log.
+     */
+    public void applyExpense(Expense expense) {
+        tripEventService.append(expense.getTripId(), EventType.EXPENSE_ADDED, expense.getId(),
+                expense.getPaidBy(), expenseDeltas(expense), expense);
+    }
+
+    /**
+     * Record an expense edit: the old expense's reverse deltas plus the new
+     * one's, in a single event, so readers see either both or neither.
+     */
+    public void applyExpenseEdit(Expense before, Expense after, String editorId) {
+        Map<String, Long> deltas = expenseDeltas(after);
+        expenseDeltas(before).forEach((userId, delta) -> deltas.merge(userId, -delta, Long::sum));
+        deltas.values().removeIf(delta -> delta == 0L);
+
+        tripEventService.append(after.getTripId(), EventType.EXPENSE_EDITED, after.getId(),
+                editorId, deltas, after, before);
+    }
+
+    /**
+     * Record an expense deletion: the reverse of its deltas.
+     */
+    public void applyExpenseDeletion(Expense expense, String deleterId) {
+        Map<String, Long> deltas = expenseDeltas(expense);
+        deltas.replaceAll((userId, delta) -> -delta);
+
+        tripEventService.append(expense.getTripId(), EventType.EXPENSE_DELETED, expense.getId(),
+                deleterId, deltas, expense);
+    }
+
+    /**
+     * Record a confirmed settlement in the trip's event log.
+     * O(1): one delta for the payer and one for the receiver.
+     */
+    public void applySettlement(Settlement settlement) {
+        tripEventService.append(settlement.getTripId(), EventType.SETTLEMENT_CONFIRMED, settlement.getId(),
+                settlement.getToUserId(), settlementDeltas(settlement), null);
+    }
+
+    /**
+     * Net paise per member: the snapshot plus every event after it, read from
+     * the primary. Trips created before balance snapshots existed are rebuilt
+     * once from their expenses and confirmed settlements.
+     */
+    private Map<String, Long> loadBalances(String tripId) {
+        return load(tripId).balances;
+    }
+
+    private Replay load(String tripId) {
+        TripBalance snapshot = tripBalanceRepository.findById(tripId).orElse(null);
+        if (snapshot == null) {
+            return rebuildBalances(tripId);
+        }
+
+        Replay replay = replay(snapshot, tripEventService.eventsAfter(tripId, snapshot.getLastSeq()));
+        if (replay.replayed >= snapshotEvery && replay.foldedSeq > snapshot.getLastSeq()) {
+            // Losing this race is fine: whoever won folded at least as far
+            tripBalanceRepository.advanceSnapshot(tripId, snapshot.getLastSeq(), replay.foldedSeq, replay.folded);
+        }
+        return replay;
+    }
+
+    /**
+     * Same as loadBalances, but read from the replica when possible. Snapshots
+     * are only advanced from primary reads: a lagging secondary can be missing
+     * an event that the gap grace period would otherwise fold past.
+     */
+    private Map<String, Long> loadBalancesFromReplica(String tripId) {
+        TripBalance snapshot = replicaReads.findBalanceSnapshot(tripId).orElse(null);
+        if (snapshot == null) {
+            return loadBalances(tripId);
+        }
+
+        Replay replay = replay(snapshot, replicaReads.findEventsAfter(tripId, snapshot.getLastSeq()));
+        return replay.replayed >= snapshotEvery ? loadBalances(tripId) : replay.balances;
+    }
+
+    private Replay replay(TripBalance snapshot, List<TripEvent> events) {
+        Replay replay = new Replay(snapshot);
+        LocalDateTime gapCutoff = LocalDateTime.now().minus(Duration.ofMillis(snapshotGapGraceMs));
+        boolean contiguous = true;
+
+        for (TripEvent event : events) {
+            event.getDeltas().forEach((userId, delta) -> replay.balances.merge(userId, delta, Long::sum));
+            replay.replayed++;
+
+            // A missing seq may belong to an append still in flight, so only fold
+            // past it once the event after it is old enough that it never will land
+            contiguous &= event.getSeq() == replay.foldedSeq + 1 || event.seqTime().isBefore(gapCutoff);
+            if (contiguous) {
+                event.getDeltas().forEach((userId, delta) -> replay.folded.merge(userId, delta, Long::sum));
+                replay.foldedSeq = event.getSeq();
+            }
+        }
+        return replay;
+    }
+
+    /**
+     * Result of replaying events over a snapshot: the current balances, and
+     * the balances up to the last event that can safely be folded into it.
+     */
+    private static final class Replay {
+        final Map<String, Long> balances;
+        final Map<String, Long> folded;
+        long foldedSeq;
+        int replayed;
+
+        Replay(TripBalance snapshot) {
+            this.balances = new HashMap<>(snapshot.getBalances());
+            this.folded = new HashMap<>(snapshot.getBalances());
+            this.foldedSeq = snapshot.getLastSeq();
+        }
+    }
+
+    private Replay rebuildBalances(String tripId) {
+        // The history and the events are read from one snapshot, so every
+        // event read belongs to a change the history already counts
+        Map<String, Long> balances = mongoTransactions.snapshot(() -> {
+            // Completed trips' expenses may have moved to their archive
+            Trip trip = tripRepository.findById(tripId)
+                    .orElseThrow(() -> new IllegalArgumentException("Trip not found"));
+            BalanceAccumulator accumulator = BalanceAccumulator.sum(tripArchiveService.expenses(trip),
+                    trip.getMembers(), parallelThreshold);
+            for (Settlement settlement : settlementRepository.findByTripIdAndStatus(tripId, SettlementStatus.CONFIRMED)) {
+                accumulator.addSettlement(settlement);
+            }
+            Map<String, Long> history = accumulator.toMap();
+
+            // The snapshot starts before all of them, so take their deltas
+            // out again: replaying from seq 0 adds each back exactly once
+            for (TripEvent event : tripEventService.allEvents(tripId)) {
+                event.getDeltas().forEach((userId, delta) -> history.merge(userId, -delta, Long::sum));
+            }
+            return history;
+        });
+
+        try {
+            tripBalanceRepository.insert(TripBalance.builder().tripId(tripId).balances(balances).lastSeq(0).build());
+            log.info("Rebuilt balance snapshot for trip {}", tripId);
+        } catch (DuplicateKeyException e) {
+            // Another request rebuilt it first
+        }
+        return load(tripId);
+    }
+
+    /**
+     * Per-member paise deltas for an expense, in the trip's base currency. The payer is credited the full
+     * amount; the split members are debited their shares (see SplitCalculator),
+     * which always sum to the amount, so the deltas sum to exactly zero.
+     */
+    private static Map<String, Long> expenseDeltas(Expense expense) {
+        Map<String, Long> deltas = new HashMap<>();
+        List<String> split = expense.getSplitBetween();
+        if (split == null || split.isEmpty()) {
+            return deltas;
+        }
+
+        long amount = expense.getBaseAmount();
+        deltas.merge(expense.getPaidBy(), amount, Long::sum);
+
+        long[] shares = SplitCalculator.allocate(amount, expense.getSplitWeights(), split.size());
+        for (int i = 0; i < split.size(); i++) {
+            deltas.merge(split.get(i), -shares[i], Long::sum);
+        }
+        return deltas;
+    }
+
+    private static Map<String, Long> settlementDeltas(Settlement settlement) {
+        long amount = toPaise(settlement.getAmount());
+        Map<String, Long> deltas = new HashMap<>();
+        deltas.merge(settlement.getFromUserId(), amount, Long::sum);
+        deltas.merge(settlement.getToUserId(), -amount, Long::sum);
+        return deltas;
+    }
+
+    static long toPaise(Double amount) {
+        return amount == null ? 0L : Math.round(amount);
+    }
+
+    /**
+     * Convert paise balances to UserBalance DTOs (rupees) with user names.
+     * Every trip member gets a row, even before their first expense.
+     */
+    private List<UserBalance> toUserBalances(Trip trip, Map<String, Long> balancePaise) {
+        Map<String, Long> balances = new LinkedHashMap<>();
+        for (String memberId : trip.getMembers()) {
+            balances.put(memberId, 0L);
+        }
+        balancePaise.forEach((userId, paise) -> balances.merge(userId, paise, Long::sum));
+
+        // One query for all names instead of one per member; users too new
+        // to have replicated are looked up on the primary
+        Map<String, String> names = replicaReads.findUserNames(balances.keySet());
+        if (names.size() < balances.size()) {
+            List<String> missing = balances.keySet().stream()
+                    .filter(userId -> !names.containsKey(userId))
+                    .collect(Collectors.toList());
+            for (User user : userRepository.findAllById(missing)) {
+                names.put(user.getId(), user.getName());
+            }
+        }
+
+        return balances.entrySet().stream()
+                .map(entry -> {
+                    String userName = names.get(entry.getKey());
+                    if (userName == null) {
+                        throw new IllegalArgumentException("User not found: " + entry.getKey());
+                    }
+
+                    return UserBalance.builder()
+                            .userId(entry.getKey())
+                            .userName(userName)
+                            .balance(entry.getValue() / 100.0) // paise to rupees
+                            .build();
+                })
+                .collect(Collectors.toList());
+    }
 }
@@ -0,0 +1,302 @@
+package com.splittrip.backend.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import com.splittrip.backend.model.Expense;
+import com.splittrip.backend.model.Expense.SplitType;
+import com.splittrip.backend.service.TripExpenseCache.CachedTrip;
+
+/**
+ * Binary layout of a TripExpenseCache snapshot, written and read through a
+ * memory-mapped file. Big-endian throughout:
+ *
+ * <pre>
+ * header: int magic, int format, long crc32 of the body, int trip count
+ * trip:   str tripId, long seq, int member count, str member..., int expense count, expense...
+ * expense: str id, int field flags, [long version], int payer ordinal, [double amount],
+ *          [str currency], [double fxRate], [str description], int split count, int ordinal...,
+ *          [byte split type], [int weight count, long weight...], [long epoch second, int nano]
+ * str:    int UTF-8 length, bytes
+ * </pre>
+ *
+ * Member ids are written once per trip and referenced by ordinal; fields in
+ * brackets are only present when their flag is set.
+ */
+final class CacheSnapshotFile {
+
+    private static final int MAGIC = 0x53574543; // "SWEC"
+    private static final int FORMAT = 1;
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 4;
+
+    private static final int HAS_VERSION = 1;
+    private static final int HAS_AMOUNT = 1 << 1;
+    private static final int HAS_CURRENCY = 1 << 2;
+    private static final int HAS_FX_RATE = 1 << 3;
+    private static final int HAS_DESCRIPTION = 1 << 4;
+    private static final int HAS_SPLIT_TYPE = 1 << 5;
+    private static final int HAS_WEIGHTS = 1 << 6;
+    private static final int HAS_CREATED_AT = 1 << 7;
+
+    private CacheSnapshotFile() {
+    }
+
+    /**
+     * Write the trips to {@code path}, replacing its contents.
+     */
+    static void write(Path path, List<CachedTrip> trips) throws IOException {
+        // Size the file with a counting pass, then encode straight into the mapping
+        Out counter = new Out(null);
+        encodeBody(counter, trips);
+        int size = Math.toIntExact(HEADER_BYTES + counter.position);
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.position(HEADER_BYTES);
+            encodeBody(new Out(buffer), trips);
+
+            CRC32 crc = new CRC32();
+            crc.update(buffer.duplicate().position(HEADER_BYTES).limit(size));
+            buffer.putInt(0, MAGIC).putInt(4, FORMAT).putLong(8, crc.getValue()).putInt(16, trips.size());
+            buffer.force();
+        }
+    }
+
+    /**
+     * Read the trips back, least recently used first.
+     *
+     * @throws IOException if the file is unreadable, from another format or corrupt
+     */
+    static List<CachedTrip> read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES || channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Not a cache snapshot: " + path);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT) {
+                throw new IOException("Not a cache snapshot in format " + FORMAT + ": " + path);
+            }
+
+            CRC32 crc = new CRC32();
+            crc.update(buffer.duplicate().position(HEADER_BYTES));
+            if (crc.getValue() != buffer.getLong(8)) {
+                throw new IOException("Corrupt cache snapshot: " + path);
+            }
+
+            int tripCount = buffer.getInt(16);
+            buffer.position(HEADER_BYTES);
+            List<CachedTrip> trips = new ArrayList<>(tripCount);
+            for (int t = 0; t < tripCount; t++) {
+                trips.add(decodeTrip(buffer));
+            }
+            return trips;
+        } catch (RuntimeException e) {
+            // Underflow or a bad length: written by something else
+            throw new IOException("Unreadable cache snapshot: " + path, e);
+        }
+    }
+
+    private static void encodeBody(Out out, List<CachedTrip> trips) {
+        for (CachedTrip trip : trips) {
+            Map<String, Integer> ordinals = new HashMap<>();
+            List<String> members = new ArrayList<>();
+            for (Expense expense : trip.expenses) {
+                ordinals.computeIfAbsent(expense.getPaidBy(), id -> add(members, id));
+                if (expense.getSplitBetween() != null) {
+                    for (String memberId : expense.getSplitBetween()) {
+                        ordinals.computeIfAbsent(memberId, id -> add(members, id));
+                    }
+                }
+            }
+
+            out.putString(trip.tripId);
+            out.putLong(trip.seq);
+            out.putInt(members.size());
+            members.forEach(out::putString);
+            out.putInt(trip.expenses.size());
+            for (Expense expense : trip.expenses) {
+                encodeExpense(out, expense, ordinals);
+            }
+        }
+    }
+
+    private static int add(List<String> members, String memberId) {
+        members.add(memberId);
+        return members.size() - 1;
+    }
+
+    private static void encodeExpense(Out out, Expense expense, Map<String, Integer> ordinals) {
+        int flags = (expense.getVersion() != null ? HAS_VERSION : 0)
+                | (expense.getAmount() != null ? HAS_AMOUNT : 0)
+                | (expense.getCurrency() != null ? HAS_CURRENCY : 0)
+                | (expense.getFxRate() != null ? HAS_FX_RATE : 0)
+                | (expense.getDescription() != null ? HAS_DESCRIPTION : 0)
+                | (expense.getSplitType() != null ? HAS_SPLIT_TYPE : 0)
+                | (expense.getSplitWeights() != null ? HAS_WEIGHTS : 0)
+                | (expense.getCreatedAt() != null ? HAS_CREATED_AT : 0);
+
+        out.putString(expense.getId());
+        out.putInt(flags);
+        if (expense.getVersion() != null) {
+            out.putLong(expense.getVersion());
+        }
+        out.putInt(ordinals.get(expense.getPaidBy()));
+        if (expense.getAmount() != null) {
+            out.putDouble(expense.getAmount());
+        }
+        if (expense.getCurrency() != null) {
+            out.putString(expense.getCurrency());
+        }
+        if (expense.getFxRate() != null) {
+            out.putDouble(expense.getFxRate());
+        }
+        if (expense.getDescription() != null) {
+            out.putString(expense.getDescription());
+        }
+
+        List<String> split = expense.getSplitBetween() == null ? List.of() : expense.getSplitBetween();
+        out.putInt(split.size());
+        for (String memberId : split) {
+            out.putInt(ordinals.get(memberId));
+        }
+        if (expense.getSplitType() != null) {
+            out.putByte((byte) expense.getSplitType().ordinal());
+        }
+        if (expense.getSplitWeights() != null) {
+            out.putInt(expense.getSplitWeights().length);
+            for (long weight : expense.getSplitWeights()) {
+                out.putLong(weight);
+            }
+        }
+        if (expense.getCreatedAt() != null) {
+            out.putLong(expense.getCreatedAt().toEpochSecond(ZoneOffset.UTC));
+            out.putInt(expense.getCreatedAt().getNano());
+        }
+    }
+
+    private static CachedTrip decodeTrip(ByteBuffer in) {
+        String tripId = getString(in);
+        long seq = in.getLong();
+        String[] members = new String[in.getInt()];
+        for (int m = 0; m < members.length; m++) {
+            members[m] = getString(in);
+        }
+
+        int expenseCount = in.getInt();
+        List<Expense> expenses = new ArrayList<>(expenseCount);
+        for (int e = 0; e < expenseCount; e++) {
+            expenses.add(decodeExpense(in, tripId, members));
+        }
+        return new CachedTrip(tripId, seq, expenses);
+    }
+
+    private static Expense decodeExpense(ByteBuffer in, String tripId, String[] members) {
+        Expense expense = new Expense();
+        expense.setTripId(tripId);
+        expense.setId(getString(in));
+        int flags = in.getInt();
+        if ((flags & HAS_VERSION) != 0) {
+            expense.setVersion(in.getLong());
+        }
+        expense.setPaidBy(members[in.getInt()]);
+        if ((flags & HAS_AMOUNT) != 0) {
+            expense.setAmount(in.getDouble());
+        }
+        if ((flags & HAS_CURRENCY) != 0) {
+            expense.setCurrency(getString(in));
+        }
+        if ((flags & HAS_FX_RATE) != 0) {
+            expense.setFxRate(in.getDouble());
+        }
+        if ((flags & HAS_DESCRIPTION) != 0) {
+            expense.setDescription(getString(in));
+        }
+
+        int splitCount = in.getInt();
+        List<String> split = new ArrayList<>(splitCount);
+        for (int s = 0; s < splitCount; s++) {
+            split.add(members[in.getInt()]);
+        }
+        expense.setSplitBetween(split);
+        expense.setSplitType((flags & HAS_SPLIT_TYPE) != 0 ? SplitType.values()[in.get()] : null);
+        if ((flags & HAS_WEIGHTS) != 0) {
+            long[] weights = new long[in.getInt()];
+            for (int w = 0; w < weights.length; w++) {
+                weights[w] = in.getLong();
+            }
+            expense.setSplitWeights(weights);
+        }
+        expense.setCreatedAt((flags & HAS_CREATED_AT) != 0
+                ? LocalDateTime.ofEpochSecond(in.getLong(), in.getInt(), ZoneOffset.UTC)
+                : null);
+        return expense;
+    }
+
+    private static String getString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getInt()];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Encoder over a buffer, or a byte counter when the buffer is null.
+     */
+    private static final class Out {
+        private final ByteBuffer buffer;
+        long position;
+
+        Out(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        void putByte(byte value) {
+            if (buffer != null) {
+                buffer.put(value);
+            }
+            position += 1;
+        }
+
+        void putInt(int value) {
+            if (buffer != null) {
+                buffer.putInt(value);
+            }
+            position += 4;
+        }
+
+        void putLong(long value) {
+            if (buffer != null) {
+                buffer.putLong(value);
+            }
+            position += 8;
+        }
+
+        void putDouble(double value) {
+            if (buffer != null) {
+                buffer.putDouble(value);
+            }
+            position += 8;
+        }
+
+        void putString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            putInt(bytes.length);
+            if (buffer != null) {
+                buffer.put(bytes);
+            }
+            position += bytes.length;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.splittrip.backend.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.splittrip.backend.model.Trip;
+import com.splittrip.backend.repository.TripRepository;
+import com.splittrip.backend.service.TripExpenseCache.CachedTrip;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Warm restarts for TripExpenseCache: the cached trips are checkpointed to a
+ * local snapshot file (see CacheSnapshotFile) on a schedule and at shutdown,
+ * and loaded back when the application is ready.
+ *
+ * A loaded trip is kept only if it is still active and its event seq in
+ * Mongo has not gone backwards (a different or restored database); both are
+ * checked for all trips in two queries. Events logged since the checkpoint
+ * are replayed by the cache on the trip's first read, as after any other
+ * gap, so a restart costs one event query per hot trip instead of reloading
+ * every trip's expenses.
+ *
+ * Off unless {@code app.cache.snapshot.path} is set.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CacheSnapshotService {
+
+    private final TripExpenseCache tripExpenseCache;
+    private final TripEventService tripEventService;
+    private final TripRepository tripRepository;
+
+    @Value("${app.cache.snapshot.path:}")
+    private String snapshotPath;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (snapshotPath == null || snapshotPath.isBlank()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        List<CachedTrip> cached;
+        try {
+            cached = CacheSnapshotFile.read(Path.of(snapshotPath));
+        } catch (NoSuchFileException e) {
+            return; // First start
+        } catch (IOException e) {
+            log.warn("Ignoring cache snapshot: {}", e.getMessage());
+            return;
+        }
+        if (cached.isEmpty()) {
+            return;
+        }
+
+        Set<String> tripIds = cached.stream().map(trip -> trip.tripId).collect(Collectors.toSet());
+        Map<String, Long> seqs = tripEventService.currentSeqs(tripIds);
+        Set<String> active = StreamSupport.stream(tripRepository.findAllById(tripIds).spliterator(), false)
+                .filter(trip -> trip.getStatus() == Trip.TripStatus.ACTIVE)
+                .map(Trip::getId)
+                .collect(Collectors.toSet());
+
+        int restored = 0;
+        for (CachedTrip trip : cached) {
+            if (active.contains(trip.tripId) && trip.seq <= seqs.get(trip.tripId)) {
+                tripExpenseCache.restore(trip);
+                restored++;
+            }
+        }
+        log.info("Restored {} of {} trips from the cache snapshot in {} ms", restored, cached.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Scheduled(fixedDelayString = "${app.cache.snapshot.interval-ms:300000}",
+            initialDelayString = "${app.cache.snapshot.interval-ms:300000}")
+    public void checkpoint() {
+        if (snapshotPath == null || snapshotPath.isBlank()) {
+            return;
+        }
+
+        Path path = Path.of(snapshotPath);
+        Path partial = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            List<CachedTrip> cached = tripExpenseCache.cachedTrips();
+            CacheSnapshotFile.write(partial, cached);
+            // Readers only ever see a complete file
+            Files.move(partial, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Checkpointed {} trips to {}", cached.size(), path);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Cache snapshot to {} failed: {}", path, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void checkpointOnShutdown() {
+        checkpoint();
+    }
+}
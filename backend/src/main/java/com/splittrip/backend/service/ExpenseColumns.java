@@ -0,0 +1,407 @@
+package com.splittrip.backend.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.splittrip.backend.dto.ExpenseFilter;
+import com.splittrip.backend.model.Expense;
+import com.splittrip.backend.model.Expense.SplitType;
+
+/**
+ * One trip's expenses as columns: payer ordinal, base amount (paise),
+ * creation time (epoch millis, UTC) and a split bitset over member
+ * ordinals, {@code stride} longs per row, which summary and filter queries
+ * scan; the remaining fields are kept in columns of their own, and
+ * Expense objects are rebuilt only for the rows a query returns.
+ *
+ * Descriptions and split lists vary in length, so they are kept in shared
+ * pools (one char[]; one int[] of member ordinals with a parallel long[] of
+ * weights) that rows address by start and length, rather than one object
+ * per row. An edit appends the row's new values and a delete drops them;
+ * the ranges left behind are reclaimed by copying the live ones down once
+ * they make up half a pool.
+ *
+ * Rows stay in insertion order: an edit overwrites its row, a delete
+ * leaves a tombstone. A put older than the row's version, or for a deleted
+ * id, is ignored, so events replayed late or out of order cannot bring
+ * back stale data. Not thread-safe; TripExpenseCache locks around it.
+ */
+final class ExpenseColumns {
+
+    private static final int NONE = -1;
+
+    // Rough heap cost of an id string and its rowsById entry beyond its chars
+    private static final int ID_OVERHEAD_BYTES = 96;
+
+    // Pools are not compacted below this many slots
+    private static final int MIN_COMPACT_SLOTS = 1024;
+
+    private final Map<String, Integer> ordinals = new HashMap<>();
+    private String[] memberIds = new String[16];
+
+    private final Map<String, Integer> currencyOrdinals = new HashMap<>();
+    private final List<String> currencies = new ArrayList<>();
+
+    // Set from the first expense; every row belongs to the same trip
+    private String tripId;
+
+    private final Map<String, Integer> rowsById = new HashMap<>();
+    private int rows;
+    private int stride = 1;
+    private boolean[] live = new boolean[16];
+    private String[] id = new String[16];
+    private long[] version = new long[16];      // NONE = no version
+    private int[] payer = new int[16];
+    private long[] amount = new long[16];       // base currency paise
+    private double[] rawAmount = new double[16]; // Expense.amount; NaN = null
+    private int[] currency = new int[16];       // NONE = base currency
+    private double[] fxRate = new double[16];   // NaN = null
+    private int[] descriptionStart = new int[16];
+    private int[] descriptionLength = new int[16]; // NONE = null
+    private int[] splitStart = new int[16];
+    private int[] splitLength = new int[16];
+    private boolean[] weighted = new boolean[16];
+    private byte[] splitType = new byte[16];    // NONE = null
+    private long[] createdAt = new long[16];    // Long.MIN_VALUE = null
+    private int[] createdNanos = new int[16];
+    private long[] split = new long[16];
+
+    private char[] descriptions = new char[256];
+    private int descriptionsUsed;
+    private int descriptionGarbage;
+
+    // splitWeights[i] is the weight of splitMembers[i]; unweighted rows leave it unset
+    private int[] splitMembers = new int[256];
+    private long[] splitWeights = new long[256];
+    private int splitsUsed;
+    private int splitGarbage;
+
+    private int liveRows;
+    private long total;
+    private long idChars;
+
+    // Highest trip event seq reflected in the columns
+    long seq;
+
+    /**
+     * Insert the expense, or overwrite its row if it is already here and
+     * older. Ignored if the id was removed, or if both versions are known
+     * and the expense's is not newer than the row's.
+     */
+    void put(Expense expense) {
+        Integer existing = rowsById.get(expense.getId());
+        int row;
+        if (existing != null) {
+            row = existing;
+            if (!live[row] || isStale(row, expense)) {
+                return;
+            }
+            unaccount(row);
+        } else {
+            row = rows++;
+            ensureRowCapacity(rows);
+            rowsById.put(expense.getId(), row);
+            id[row] = expense.getId();
+            idChars += id[row].length();
+        }
+        if (tripId == null) {
+            tripId = expense.getTripId();
+        }
+
+        version[row] = expense.getVersion() == null ? NONE : expense.getVersion();
+        payer[row] = ordinal(expense.getPaidBy());
+        amount[row] = expense.getBaseAmount();
+        rawAmount[row] = expense.getAmount() == null ? Double.NaN : expense.getAmount();
+        currency[row] = expense.getCurrency() == null ? NONE : currencyOrdinal(expense.getCurrency());
+        fxRate[row] = expense.getFxRate() == null ? Double.NaN : expense.getFxRate();
+        splitType[row] = expense.getSplitType() == null ? NONE : (byte) expense.getSplitType().ordinal();
+        if (expense.getCreatedAt() == null) {
+            createdAt[row] = Long.MIN_VALUE;
+            createdNanos[row] = 0;
+        } else {
+            createdAt[row] = toMillis(expense.getCreatedAt());
+            createdNanos[row] = expense.getCreatedAt().getNano();
+        }
+
+        String text = expense.getDescription();
+        if (text == null) {
+            descriptionLength[row] = NONE;
+        } else {
+            descriptionStart[row] = appendDescription(text);
+            descriptionLength[row] = text.length();
+        }
+
+        List<String> members = expense.getSplitBetween() == null ? List.of() : expense.getSplitBetween();
+        long[] weights = expense.getSplitWeights();
+        if (weights != null && weights.length != members.size()) {
+            throw new IllegalArgumentException("Expense " + expense.getId() + " has "
+                    + weights.length + " split weights for " + members.size() + " members");
+        }
+        int start = reserveSplits(members.size());
+        for (int i = 0; i < members.size(); i++) {
+            splitMembers[start + i] = ordinal(members.get(i));
+        }
+        if (weights != null) {
+            System.arraycopy(weights, 0, splitWeights, start, weights.length);
+        }
+        splitStart[row] = start;
+        splitLength[row] = members.size();
+        weighted[row] = weights != null;
+
+        // ordinal() may have widened the rows
+        Arrays.fill(split, row * stride, (row + 1) * stride, 0L);
+        for (int i = start; i < start + members.size(); i++) {
+            int member = splitMembers[i];
+            split[row * stride + (member >>> 6)] |= 1L << member;
+        }
+
+        live[row] = true;
+        liveRows++;
+        total += amount[row];
+    }
+
+    /**
+     * Delete the expense, leaving a tombstone so later puts for it are ignored.
+     */
+    void remove(String expenseId) {
+        Integer row = rowsById.get(expenseId);
+        if (row == null) {
+            row = rows++;
+            ensureRowCapacity(rows);
+            rowsById.put(expenseId, row);
+            id[row] = expenseId;
+            idChars += expenseId.length();
+        } else if (live[row]) {
+            unaccount(row);
+            live[row] = false;
+        }
+    }
+
+    int size() {
+        return liveRows;
+    }
+
+    long total() {
+        return total;
+    }
+
+    List<Expense> find(ExpenseFilter filter) {
+        int paidBy = -1;
+        if (filter.getPaidBy() != null) {
+            Integer ordinal = ordinals.get(filter.getPaidBy());
+            if (ordinal == null) {
+                return List.of();
+            }
+            paidBy = ordinal;
+        }
+        int involving = -1;
+        if (filter.getInvolving() != null) {
+            Integer ordinal = ordinals.get(filter.getInvolving());
+            if (ordinal == null) {
+                return List.of();
+            }
+            involving = ordinal;
+        }
+        long from = filter.getFrom() == null ? Long.MIN_VALUE : toMillis(filter.getFrom());
+        long to = filter.getTo() == null ? Long.MAX_VALUE : toMillis(filter.getTo());
+        long minAmount = filter.getMinAmount() == null ? Long.MIN_VALUE : filter.getMinAmount();
+        long maxAmount = filter.getMaxAmount() == null ? Long.MAX_VALUE : filter.getMaxAmount();
+
+        List<Expense> matches = new ArrayList<>();
+        for (int row = 0; row < rows; row++) {
+            if (!live[row]
+                    || (paidBy >= 0 && payer[row] != paidBy)
+                    || createdAt[row] < from || createdAt[row] >= to
+                    || amount[row] < minAmount || amount[row] > maxAmount
+                    || (involving >= 0 && payer[row] != involving && !splitHas(row, involving))) {
+                continue;
+            }
+            matches.add(expense(row));
+        }
+        return matches;
+    }
+
+    /**
+     * Approximate heap footprint, for LRU eviction by size.
+     */
+    long footprintBytes() {
+        long perRow = 1 + 8 + 8 + 4 + 8 + 8 + 4 + 8 + 4 + 4 + 4 + 4 + 1 + 1 + 8 + 4 + 8L * stride;
+        return perRow * payer.length + 64L * ordinals.size()
+                + (long) ID_OVERHEAD_BYTES * rowsById.size() + 2L * idChars
+                + 2L * descriptions.length + 12L * splitMembers.length;
+    }
+
+    private Expense expense(int row) {
+        int start = splitStart[row];
+        int end = start + splitLength[row];
+        List<String> members = new ArrayList<>(splitLength[row]);
+        for (int i = start; i < end; i++) {
+            members.add(memberIds[splitMembers[i]]);
+        }
+        LocalDateTime created = createdAt[row] == Long.MIN_VALUE ? null
+                : LocalDateTime.ofEpochSecond(Math.floorDiv(createdAt[row], 1000L), createdNanos[row], ZoneOffset.UTC);
+
+        return Expense.builder()
+                .id(id[row])
+                .tripId(tripId)
+                .version(version[row] == NONE ? null : version[row])
+                .paidBy(memberIds[payer[row]])
+                .amount(Double.isNaN(rawAmount[row]) ? null : rawAmount[row])
+                .currency(currency[row] == NONE ? null : currencies.get(currency[row]))
+                .fxRate(Double.isNaN(fxRate[row]) ? null : fxRate[row])
+                .description(descriptionLength[row] == NONE ? null
+                        : new String(descriptions, descriptionStart[row], descriptionLength[row]))
+                .splitBetween(members)
+                .splitType(splitType[row] == NONE ? null : SplitType.values()[splitType[row]])
+                .splitWeights(weighted[row] ? Arrays.copyOfRange(splitWeights, start, end) : null)
+                .createdAt(created)
+                .build();
+    }
+
+    private boolean isStale(int row, Expense expense) {
+        return expense.getVersion() != null && version[row] != NONE && expense.getVersion() <= version[row];
+    }
+
+    private boolean splitHas(int row, int member) {
+        return (split[row * stride + (member >>> 6)] & (1L << member)) != 0;
+    }
+
+    // Takes a live row out of the totals; its pool ranges become garbage
+    private void unaccount(int row) {
+        liveRows--;
+        total -= amount[row];
+        if (descriptionLength[row] != NONE) {
+            descriptionGarbage += descriptionLength[row];
+        }
+        splitGarbage += splitLength[row];
+    }
+
+    private int appendDescription(String text) {
+        if (descriptionsUsed + text.length() > descriptions.length) {
+            if (descriptionGarbage >= MIN_COMPACT_SLOTS / 2 && descriptionGarbage * 2 >= descriptionsUsed) {
+                compactDescriptions();
+            }
+            if (descriptionsUsed + text.length() > descriptions.length) {
+                descriptions = Arrays.copyOf(descriptions,
+                        Math.max(descriptionsUsed + text.length(), descriptions.length * 2));
+            }
+        }
+        text.getChars(0, text.length(), descriptions, descriptionsUsed);
+        int start = descriptionsUsed;
+        descriptionsUsed += text.length();
+        return start;
+    }
+
+    private int reserveSplits(int count) {
+        if (splitsUsed + count > splitMembers.length) {
+            if (splitGarbage >= MIN_COMPACT_SLOTS / 2 && splitGarbage * 2 >= splitsUsed) {
+                compactSplits();
+            }
+            if (splitsUsed + count > splitMembers.length) {
+                int capacity = Math.max(splitsUsed + count, splitMembers.length * 2);
+                splitMembers = Arrays.copyOf(splitMembers, capacity);
+                splitWeights = Arrays.copyOf(splitWeights, capacity);
+            }
+        }
+        int start = splitsUsed;
+        splitsUsed += count;
+        return start;
+    }
+
+    // Copy live rows' ranges down over the garbage, in row order
+    private void compactDescriptions() {
+        int used = 0;
+        for (int row = 0; row < rows; row++) {
+            if (live[row] && descriptionLength[row] != NONE) {
+                System.arraycopy(descriptions, descriptionStart[row], descriptions, used, descriptionLength[row]);
+                descriptionStart[row] = used;
+                used += descriptionLength[row];
+            }
+        }
+        descriptionsUsed = used;
+        descriptionGarbage = 0;
+    }
+
+    private void compactSplits() {
+        int used = 0;
+        for (int row = 0; row < rows; row++) {
+            if (live[row]) {
+                System.arraycopy(splitMembers, splitStart[row], splitMembers, used, splitLength[row]);
+                if (weighted[row]) {
+                    System.arraycopy(splitWeights, splitStart[row], splitWeights, used, splitLength[row]);
+                }
+                splitStart[row] = used;
+                used += splitLength[row];
+            }
+        }
+        splitsUsed = used;
+        splitGarbage = 0;
+    }
+
+    private int ordinal(String userId) {
+        Integer ordinal = ordinals.get(userId);
+        if (ordinal != null) {
+            return ordinal;
+        }
+
+        int next = ordinals.size();
+        if (next == memberIds.length) {
+            memberIds = Arrays.copyOf(memberIds, next * 2);
+        }
+        memberIds[next] = userId;
+        ordinals.put(userId, next);
+        if (next >= stride * 64) {
+            widen(stride + 1);
+        }
+        return next;
+    }
+
+    private int currencyOrdinal(String code) {
+        return currencyOrdinals.computeIfAbsent(code, c -> {
+            currencies.add(c);
+            return currencies.size() - 1;
+        });
+    }
+
+    private void widen(int newStride) {
+        long[] widened = new long[payer.length * newStride];
+        for (int row = 0; row < rows; row++) {
+            System.arraycopy(split, row * stride, widened, row * newStride, stride);
+        }
+        split = widened;
+        stride = newStride;
+    }
+
+    private void ensureRowCapacity(int needed) {
+        if (needed <= payer.length) {
+            return;
+        }
+        int capacity = Math.max(needed, payer.length * 2);
+        live = Arrays.copyOf(live, capacity);
+        id = Arrays.copyOf(id, capacity);
+        version = Arrays.copyOf(version, capacity);
+        payer = Arrays.copyOf(payer, capacity);
+        amount = Arrays.copyOf(amount, capacity);
+        rawAmount = Arrays.copyOf(rawAmount, capacity);
+        currency = Arrays.copyOf(currency, capacity);
+        fxRate = Arrays.copyOf(fxRate, capacity);
+        descriptionStart = Arrays.copyOf(descriptionStart, capacity);
+        descriptionLength = Arrays.copyOf(descriptionLength, capacity);
+        splitStart = Arrays.copyOf(splitStart, capacity);
+        splitLength = Arrays.copyOf(splitLength, capacity);
+        weighted = Arrays.copyOf(weighted, capacity);
+        splitType = Arrays.copyOf(splitType, capacity);
+        createdAt = Arrays.copyOf(createdAt, capacity);
+        createdNanos = Arrays.copyOf(createdNanos, capacity);
+        split = Arrays.copyOf(split, capacity * stride);
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+}
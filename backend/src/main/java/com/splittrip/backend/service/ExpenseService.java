@@ -1,15 +1,24 @@
 package com.splittrip.backend.service;
 
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 
 import com.splittrip.backend.dto.CreateExpenseRequest;
+import com.splittrip.backend.dto.ExpenseFilter;
+import com.splittrip.backend.dto.UpdateExpenseRequest;
 import com.splittrip.backend.model.Expense;
+import com.splittrip.backend.model.Expense.SplitType;
 import com.splittrip.backend.model.Trip;
 import com.splittrip.backend.repository.ExpenseRepository;
 import com.splittrip.backend.repository.TripRepository;
 import com.splittrip.backend.repository.UserRepository;
+import com.splittrip.backend.utils.SplitCalculator;
 
 import lombok.RequiredArgsConstructor;
 
@@ -20,12 +29,109 @@ public class ExpenseService {
     private final ExpenseRepository expenseRepository;
     private final TripRepository tripRepository;
     private final UserRepository userRepository;
+    private final BalanceService balanceService;
+    private final FxRateService fxRateService;
+    private final TripExpenseCache tripExpenseCache;
+    private final TripArchiveService tripArchiveService;
+    private final MongoTransactions mongoTransactions;
+
+    private static final long MAX_SHARES = 1_000_000;
 
     public Expense createExpense(CreateExpenseRequest request) {
         // Validate trip exists
         Trip trip = tripRepository.findById(request.getTripId())
                 .orElseThrow(() -> new IllegalArgumentException("Trip not found"));
+        requireActive(trip);
+
+        Expense expense = buildExpense(trip, request, null);
+        expense.setId(UUID.randomUUID().toString());
+
+        // The expense and its event are stored together or not at all
+        Expense created = mongoTransactions.run(() -> {
+            Expense saved = expenseRepository.insert(expense);
+            balanceService.applyExpense(saved);
+            return saved;
+        });
+        tripExpenseCache.changed(created.getTripId());
+        return created;
+    }
+
+    /**
+     * Replace an expense's details. The balance change is logged as one event
+     * holding the old expense's reverse deltas plus the new one's, so the cost
+     * is O(split size) and readers never see half an edit.
+     */
+    public Expense updateExpense(String expenseId, UpdateExpenseRequest request) {
+        Expense existing = expenseRepository.findById(expenseId)
+                .orElseThrow(() -> new IllegalArgumentException("Expense not found"));
+        Trip trip = tripRepository.findById(existing.getTripId())
+                .orElseThrow(() -> new IllegalArgumentException("Trip not found"));
+        requireMember(trip, request.getUserId());
+        requireActive(trip);
+
+        CreateExpenseRequest fields = new CreateExpenseRequest(existing.getTripId(), request.getPaidBy(),
+                request.getAmount(), request.getCurrency(), request.getDescription(), request.getSplitBetween(),
+                request.getSplitType(), request.getSplitValues(), request.getExcludedMembers());
+        Expense updated = buildExpense(trip, fields, existing);
+        updated.setId(existing.getId());
+        updated.setCreatedAt(existing.getCreatedAt());
+
+        if (!Objects.equals(existing.getVersion(), request.getVersion())) {
+            throw new OptimisticLockingFailureException("Expense was modified by someone else, reload and retry");
+        }
+        mongoTransactions.run(() -> {
+            if (!expenseRepository.updateIfVersion(updated, request.getVersion())) {
+                throw new OptimisticLockingFailureException("Expense was modified by someone else, reload and retry");
+            }
+            updated.setVersion(request.getVersion() == null ? 1L : request.getVersion() + 1);
+            balanceService.applyExpenseEdit(existing, updated, request.getUserId());
+        });
+        tripExpenseCache.changed(updated.getTripId());
+        return updated;
+    }
+
+    /**
+     * Delete an expense, logging its reverse deltas as one event.
+     */
+    public void deleteExpense(String expenseId, String userId, Long version) {
+        Expense existing = expenseRepository.findById(expenseId)
+                .orElseThrow(() -> new IllegalArgumentException("Expense not found"));
+        Trip trip = tripRepository.findById(existing.getTripId())
+                .orElseThrow(() -> new IllegalArgumentException("Trip not found"));
+        requireMember(trip, userId);
+        requireActive(trip);
+
+        if (!Objects.equals(existing.getVersion(), version)) {
+            throw new OptimisticLockingFailureException("Expense was modified by someone else, reload and retry");
+        }
+        mongoTransactions.run(() -> {
+            if (!expenseRepository.deleteIfVersion(expenseId, version)) {
+                throw new OptimisticLockingFailureException("Expense was modified by someone else, reload and retry");
+            }
+            balanceService.applyExpenseDeletion(existing, userId);
+        });
+        tripExpenseCache.changed(existing.getTripId());
+    }
+
+    private static void requireMember(Trip trip, String userId) {
+        if (userId == null || !trip.getMembers().contains(userId)) {
+            throw new IllegalArgumentException("Only trip members can change expenses");
+        }
+    }
+
+    // Completed trips are archived and read-only
+    private static void requireActive(Trip trip) {
+        if (trip.getStatus() == Trip.TripStatus.COMPLETED) {
+            throw new IllegalArgumentException("Trip is completed; reopen it to change expenses");
+        }
+    }
 
+    /**
+     * Validate a request against the trip and build the expense it describes
+     * (without id). When editing, {@code existing} keeps the FX rate captured
+     * at creation unless the currency changes.
+     */
+    private Expense buildExpense(Trip trip, CreateExpenseRequest request, Expense existing) {
         // Validate paidBy user exists
         if (!userRepository.existsById(request.getPaidBy())) {
             throw new IllegalArgumentException("PaidBy user not found");
@@ -36,8 +142,20 @@ public class ExpenseService {
             throw new IllegalArgumentException("PaidBy user is not a member of this trip");
         }
 
+        // Resolve who shares the expense and with what weights
+        SplitType splitType = request.getSplitType() != null ? request.getSplitType() : SplitType.EQUAL;
+        List<String> splitBetween = splitType == SplitType.EXCEPT
+                ? membersExcept(trip, request.getExcludedMembers())
+                : request.getSplitBetween();
+        if (splitBetween == null || splitBetween.isEmpty()) {
+            throw new IllegalArgumentException("SplitBetween cannot be empty");
+        }
+        SplitCalculator.requireDistinct(splitBetween);
+        long[] splitWeights = resolveWeights(splitType, request.getSplitValues(), splitBetween.size(),
+                Math.round(request.getAmount()));
+
         // Validate all splitBetween users exist and are members
-        for (String userId : request.getSplitBetween()) {
+        for (String userId : splitBetween) {
             if (!userRepository.existsById(userId)) {
                 throw new IllegalArgumentException("User not found in splitBetween: " + userId);
             }
@@ -46,23 +164,102 @@ public class ExpenseService {
             }
         }
 
-        Expense expense = Expense.builder()
-                .id(UUID.randomUUID().toString())
+        // Convert foreign-currency expenses at today's rate, fixed from here on
+        String currency = request.getCurrency() != null && !request.getCurrency().isBlank()
+                ? request.getCurrency().trim().toUpperCase()
+                : trip.getBaseCurrency();
+        if (!fxRateService.supports(currency)) {
+            throw new IllegalArgumentException("Unsupported currency: " + currency);
+        }
+        Double fxRate;
+        if (currency.equals(trip.getBaseCurrency())) {
+            fxRate = null;
+        } else if (existing != null && currency.equals(existing.getCurrency())) {
+            fxRate = existing.getFxRate();
+        } else {
+            fxRate = fxRateService.rate(currency, trip.getBaseCurrency(), LocalDate.now());
+        }
+
+        return Expense.builder()
                 .tripId(request.getTripId())
                 .paidBy(request.getPaidBy())
                 .amount(request.getAmount())
+                .currency(currency)
+                .fxRate(fxRate)
                 .description(request.getDescription())
-                .splitBetween(request.getSplitBetween())
+                .splitBetween(splitBetween)
+                .splitType(splitType)
+                .splitWeights(splitWeights)
                 .build();
+    }
+
+    private static List<String> membersExcept(Trip trip, List<String> excludedMembers) {
+        List<String> excluded = excludedMembers != null ? excludedMembers : List.of();
+        for (String userId : excluded) {
+            if (!trip.getMembers().contains(userId)) {
+                throw new IllegalArgumentException("User not a trip member: " + userId);
+            }
+        }
+        return trip.getMembers().stream()
+                .filter(userId -> !excluded.contains(userId))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Convert request split values into stored weights (null for equal splits).
+     * EXACT values are paise and must add up to the amount; PERCENTAGE values
+     * are percents stored as basis points and must add up to 100;
+     * SHARES must be non-negative with at least one positive share.
+     */
+    private static long[] resolveWeights(SplitType splitType, List<Double> values, int splitCount, long amountPaise) {
+        if (splitType == SplitType.EQUAL || splitType == SplitType.EXCEPT) {
+            return null;
+        }
+        if (values == null || values.size() != splitCount) {
+            throw new IllegalArgumentException("splitValues must have one value per member in splitBetween");
+        }
+
+        long[] weights = new long[splitCount];
+        long total = 0;
+        for (int i = 0; i < splitCount; i++) {
+            Double value = values.get(i);
+            if (value == null || value < 0) {
+                throw new IllegalArgumentException("splitValues must not be negative");
+            }
+            weights[i] = splitType == SplitType.PERCENTAGE ? Math.round(value * 100) : Math.round(value);
+            if (splitType == SplitType.SHARES && weights[i] > MAX_SHARES) {
+                throw new IllegalArgumentException("A member cannot have more than " + MAX_SHARES + " shares");
+            }
+            total += weights[i];
+        }
 
-        return expenseRepository.save(expense);
+        if (splitType == SplitType.EXACT && total != amountPaise) {
+            throw new IllegalArgumentException("Exact split amounts must add up to the expense amount");
+        }
+        if (splitType == SplitType.PERCENTAGE && total != 10_000) {
+            throw new IllegalArgumentException("Split percentages must add up to 100");
+        }
+        if (splitType == SplitType.SHARES && total == 0) {
+            throw new IllegalArgumentException("At least one member must have a share");
+        }
+        return weights;
     }
 
     public java.util.List<Expense> getExpensesForTrip(String tripId) {
+        return getExpensesForTrip(tripId, new ExpenseFilter());
+    }
+
+    /**
+     * The trip's expenses matching the filter, served from TripExpenseCache,
+     * or from the trip's archive once it is completed.
+     */
+    public java.util.List<Expense> getExpensesForTrip(String tripId, ExpenseFilter filter) {
         // Ensure trip exists
-        if (!tripRepository.existsById(tripId)) {
-            throw new IllegalArgumentException("Trip not found");
+        Trip trip = tripRepository.findById(tripId)
+                .orElseThrow(() -> new IllegalArgumentException("Trip not found"));
+        if (trip.getStatus() == Trip.TripStatus.COMPLETED) {
+            return tripArchiveService.findExpenses(trip, filter);
         }
-        return expenseRepository.findByTripId(tripId);
+        return tripExpenseCache.find(tripId, filter);
     }
 }
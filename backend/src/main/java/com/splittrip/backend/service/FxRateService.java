@@ -0,0 +1,84 @@
+package com.splittrip.backend.service;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.splittrip.backend.utils.FxRateTable;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * FX Rate Service: currency conversion from an in-memory rate snapshot.
+ * 
+ * The snapshot is loaded at startup from the bundled fx-rates.csv (works
+ * offline) or from app.fx.rates-file if set. It is refreshed on a schedule
+ * by loading a new table and swapping the reference, so readers always
+ * see one complete, consistent table.
+ */
+@Service
+@Slf4j
+public class FxRateService {
+
+    private static final String BUNDLED_RATES = "fx-rates.csv";
+
+    @Value("${app.fx.rates-file:}")
+    private String ratesFile;
+
+    private final AtomicReference<FxRateTable> table = new AtomicReference<>();
+
+    @PostConstruct
+    public void load() throws IOException {
+        table.set(readTable());
+        log.info("Loaded FX rates for {} currencies up to {}",
+                table.get().currencyCount(), table.get().latestDate());
+    }
+
+    @Scheduled(fixedDelayString = "${app.fx.refresh-interval-ms:3600000}",
+            initialDelayString = "${app.fx.refresh-interval-ms:3600000}")
+    public void refresh() {
+        if (ratesFile == null || ratesFile.isBlank()) {
+            return; // Bundled rates never change at runtime
+        }
+        try {
+            table.set(readTable());
+        } catch (IOException | RuntimeException e) {
+            // Keep serving the previous snapshot
+            log.warn("FX rate refresh from {} failed: {}", ratesFile, e.getMessage());
+        }
+    }
+
+    /**
+     * Multiplier converting {@code from} to {@code to} on {@code date}.
+     */
+    public double rate(String from, String to, LocalDate date) {
+        return table.get().rate(from, to, date);
+    }
+
+    public boolean supports(String currency) {
+        return table.get().supports(currency);
+    }
+
+    private FxRateTable readTable() throws IOException {
+        if (ratesFile != null && !ratesFile.isBlank()) {
+            try (Reader reader = Files.newBufferedReader(Path.of(ratesFile), StandardCharsets.UTF_8)) {
+                return FxRateTable.parse(reader);
+            }
+        }
+        try (Reader reader = new InputStreamReader(
+                new ClassPathResource(BUNDLED_RATES).getInputStream(), StandardCharsets.UTF_8)) {
+            return FxRateTable.parse(reader);
+        }
+    }
+}
@@ -1,28 +1,38 @@
 package com.splittrip.backend.service;
 
-import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
 import java.util.UUID;
 
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import com.splittrip.backend.dto.JoinRequestInbox;
 import com.splittrip.backend.model.JoinRequest;
 import com.splittrip.backend.model.JoinRequest.RequestStatus;
 import com.splittrip.backend.model.Trip;
+import com.splittrip.backend.model.TripEvent.EventType;
 import com.splittrip.backend.model.User;
 import com.splittrip.backend.repository.JoinRequestRepository;
 import com.splittrip.backend.repository.TripRepository;
 import com.splittrip.backend.repository.UserRepository;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class JoinRequestService {
 
     private final JoinRequestRepository joinRequestRepository;
     private final TripRepository tripRepository;
     private final UserRepository userRepository;
+    private final TripEventService tripEventService;
+    private final MongoTransactions mongoTransactions;
 
     /**
      * Submit a join request for a trip
@@ -41,19 +51,20 @@ public class JoinRequestService {
             throw new IllegalArgumentException("You are already a member of this trip");
         }
 
-        // Check if there's already a pending request
-        if (joinRequestRepository.existsByTripIdAndUserIdAndStatus(tripId, userId, RequestStatus.PENDING)) {
-            throw new IllegalArgumentException("You already have a pending join request for this trip");
-        }
-
         JoinRequest joinRequest = JoinRequest.builder()
                 .id(UUID.randomUUID().toString())
                 .tripId(tripId)
+                .creatorId(trip.getCreatedBy())
                 .userId(userId)
                 .userName(user.getName())
                 .build();
 
-        return joinRequestRepository.save(joinRequest);
+        // The partial unique index on pending requests rejects a second one
+        try {
+            return joinRequestRepository.insert(joinRequest);
+        } catch (DuplicateKeyException e) {
+            throw new IllegalArgumentException("You already have a pending join request for this trip");
+        }
     }
 
     /**
@@ -63,6 +74,42 @@ public class JoinRequestService {
         return joinRequestRepository.findByTripIdAndStatus(tripId, RequestStatus.PENDING);
     }
 
+    /**
+     * Pending requests across every trip the user created, in one indexed
+     * read. Approving or rejecting a request takes it out of the inbox.
+     */
+    public JoinRequestInbox getInbox(String creatorId) {
+        List<JoinRequest> pending = joinRequestRepository
+                .findByCreatorIdAndStatusOrderByRequestedAtAsc(creatorId, RequestStatus.PENDING);
+        return JoinRequestInbox.builder()
+                .creatorId(creatorId)
+                .pendingCount(pending.size())
+                .requests(pending)
+                .build();
+    }
+
+    /**
+     * Fill in the creator of pending requests submitted before requests
+     * carried it, so they show up in inboxes. Runs once, in the background.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillCreatorIds() {
+        List<JoinRequest> missing = joinRequestRepository.findByStatusAndCreatorIdIsNull(RequestStatus.PENDING);
+        int backfilled = 0;
+        for (JoinRequest request : missing) {
+            // Conditional update rather than save(), which would write back
+            // this stale copy over a request answered meanwhile
+            String creatorId = tripRepository.findById(request.getTripId()).map(Trip::getCreatedBy).orElse(null);
+            if (creatorId != null && joinRequestRepository.setCreatorIfMissing(request.getId(), creatorId)) {
+                backfilled++;
+            }
+        }
+        if (backfilled > 0) {
+            log.info("Backfilled the creator of {} pending join requests", backfilled);
+        }
+    }
+
     /**
      * Approve a join request and add user to trip
      */
@@ -82,18 +129,18 @@ public class JoinRequestService {
             throw new IllegalArgumentException("Only the trip creator can approve join requests");
         }
 
-        // Add user to trip
-        if (!trip.getMembers().contains(request.getUserId())) {
-            trip.getMembers().add(request.getUserId());
-            tripRepository.save(trip);
-        }
-
-        // Update request status
-        request.setStatus(RequestStatus.APPROVED);
-        request.setRespondedBy(approverId);
-        request.setRespondedAt(LocalDateTime.now());
-
-        return joinRequestRepository.save(request);
+        // Only one concurrent answer gets past the conditional update; the
+        // answer, the member and the join event are stored together
+        return mongoTransactions.run(() -> {
+            JoinRequest approved = joinRequestRepository.respond(requestId, RequestStatus.APPROVED, approverId)
+                    .orElseThrow(() -> new IllegalArgumentException("This request has already been processed"));
+
+            // Atomic $addToSet, no-op if already a member
+            tripRepository.addMember(trip.getId(), request.getUserId())
+                    .ifPresent(updated -> tripEventService.append(trip.getId(), EventType.MEMBER_JOINED,
+                            request.getUserId(), approverId, new HashMap<>(), null));
+            return approved;
+        });
     }
 
     /**
@@ -115,12 +162,8 @@ public class JoinRequestService {
             throw new IllegalArgumentException("Only the trip creator can reject join requests");
         }
 
-        // Update request status
-        request.setStatus(RequestStatus.REJECTED);
-        request.setRespondedBy(rejectorId);
-        request.setRespondedAt(LocalDateTime.now());
-
-        return joinRequestRepository.save(request);
+        return joinRequestRepository.respond(requestId, RequestStatus.REJECTED, rejectorId)
+                .orElseThrow(() -> new IllegalArgumentException("This request has already been processed"));
     }
 
     /**
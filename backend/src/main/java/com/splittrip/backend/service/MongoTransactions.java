@@ -0,0 +1,167 @@
+package com.splittrip.backend.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import org.springframework.data.mongodb.TransientMongoDbException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.interceptor.DefaultTransactionAttribute;
+
+import com.mongodb.MongoException;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs a unit of work in one MongoDB transaction, so a change and the trip
+ * event recording it are stored together or not at all. Repositories and
+ * MongoTemplate join the transaction on their own.
+ *
+ * Work should only write documents that concurrent requests rarely share:
+ * anything every write to a trip touches (like its event sequence) belongs
+ * in an {@link #afterCommit} action instead, or transactions on one trip
+ * abort each other. Write conflicts that still happen, and other errors the
+ * server labels transient (such as a failover), are retried with a short
+ * randomized backoff; anything else rolls back and is rethrown as is.
+ *
+ * {@link #snapshot} runs read-only work against one point-in-time view of
+ * the database, for reads that must agree with each other without locking
+ * anything writers touch.
+ *
+ * Transactions need a replica set or a sharded cluster. A single-node
+ * replica set is enough for local development.
+ */
+@Service
+@Slf4j
+public class MongoTransactions {
+
+    private static final int MAX_ATTEMPTS = 10;
+    private static final long MAX_BACKOFF_MS = 200;
+
+    private static final TransactionDefinition WRITE = TransactionDefinition.withDefaults();
+    private static final TransactionDefinition SNAPSHOT = snapshotRead();
+
+    private final PlatformTransactionManager transactionManager;
+
+    // Actions registered by the attempt running on this thread, if any
+    private final ThreadLocal<List<Runnable>> afterCommit = new ThreadLocal<>();
+
+    // The MongoTransactionManager from MongoConfig; any manager in tests
+    public MongoTransactions(PlatformTransactionManager transactionManager) {
+        this.transactionManager = transactionManager;
+    }
+
+    /**
+     * Run {@code work} in a transaction and return its result. The work may
+     * run more than once, so it must not have effects outside MongoDB.
+     */
+    public <T> T run(Supplier<T> work) {
+        return run(WRITE, work);
+    }
+
+    public void run(Runnable work) {
+        run(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Run read-only {@code work} in a transaction with snapshot read concern,
+     * so all of its reads see the database as of one moment. Like run, the
+     * work may run more than once.
+     */
+    public <T> T snapshot(Supplier<T> work) {
+        return run(SNAPSHOT, work);
+    }
+
+    private <T> T run(TransactionDefinition definition, Supplier<T> work) {
+        if (afterCommit.get() != null) {
+            throw new IllegalStateException("Transactions cannot be nested");
+        }
+        for (int attempt = 1; ; attempt++) {
+            List<Runnable> actions = new ArrayList<>();
+            afterCommit.set(actions);
+            T result;
+            try {
+                result = execute(definition, work);
+            } catch (RuntimeException e) {
+                if (attempt >= MAX_ATTEMPTS || !isTransient(e)) {
+                    throw e;
+                }
+                log.debug("Retrying transaction after attempt {}: {}", attempt, e.getMessage());
+                backOff(attempt);
+                continue;
+            } finally {
+                afterCommit.remove();
+            }
+
+            // Only the attempt that committed gets here, outside its transaction
+            actions.forEach(Runnable::run);
+            return result;
+        }
+    }
+
+    private <T> T execute(TransactionDefinition definition, Supplier<T> work) {
+        TransactionStatus status = transactionManager.getTransaction(definition);
+        T result;
+        try {
+            result = work.get();
+        } catch (RuntimeException | Error e) {
+            transactionManager.rollback(status);
+            throw e;
+        }
+        transactionManager.commit(status);
+        return result;
+    }
+
+    /**
+     * Run {@code action} once the transaction running on this thread has
+     * committed, or right away if there is none. Nothing runs for attempts
+     * that roll back, and an action that fails does not undo the commit.
+     */
+    public void afterCommit(Runnable action) {
+        List<Runnable> actions = afterCommit.get();
+        if (actions == null) {
+            action.run();
+        } else {
+            actions.add(action);
+        }
+    }
+
+    // Not TransientDataAccessException: that includes our own optimistic lock failures
+    static boolean isTransient(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TransientMongoDbException) {
+                return true;
+            }
+            if (cause instanceof MongoException mongo
+                    && mongo.hasErrorLabel(MongoException.TRANSIENT_TRANSACTION_ERROR_LABEL)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Labels are how MongoTransactionManager takes per-transaction options
+    private static TransactionDefinition snapshotRead() {
+        DefaultTransactionAttribute definition = new DefaultTransactionAttribute();
+        definition.setReadOnly(true);
+        definition.setLabels(List.of("mongo:readConcern=snapshot"));
+        return definition;
+    }
+
+    private static void backOff(int attempt) {
+        long bound = Math.min(MAX_BACKOFF_MS, 1L << attempt);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(bound + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying a transaction", e);
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package com.splittrip.backend.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.splittrip.backend.model.Expense;
+import com.splittrip.backend.model.Settlement;
+import com.splittrip.backend.model.Settlement.SettlementStatus;
+import com.splittrip.backend.model.Trip;
+import com.splittrip.backend.model.TripEvent;
+import com.splittrip.backend.model.UserNetPosition;
+import com.splittrip.backend.repository.SettlementRepository;
+import com.splittrip.backend.repository.TripRepository;
+import com.splittrip.backend.repository.UserNetPositionRepository;
+import com.splittrip.backend.repository.UserRepository;
+import com.splittrip.backend.utils.SplitCalculator;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Per-user net position across all trips (see UserNetPosition).
+ *
+ * Writes never touch it. The stored document is a snapshot per trip, and a
+ * read adds the pairwise deltas of each trip's events after the snapshot,
+ * fetched from the trip event log in one query. A read that replays
+ * {@code app.net-positions.fold-every} events of a trip folds them into the
+ * snapshot with a conditional update, like balance snapshots.
+ *
+ * A trip the snapshot does not cover yet (on the user's first read, or once
+ * they join another trip) is added from its expenses and confirmed
+ * settlements, read in one snapshot transaction with the trip's event seqs
+ * so that its later events can be told apart from those the history already
+ * has. Reads take no locks, so they never hold up trip writes.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NetPositionService {
+
+    // Concurrent reads adding different trips for the same user
+    private static final int MAX_ADD_ATTEMPTS = 3;
+
+    private final UserNetPositionRepository netPositionRepository;
+    private final TripRepository tripRepository;
+    private final TripArchiveService tripArchiveService;
+    private final SettlementRepository settlementRepository;
+    private final UserRepository userRepository;
+    private final TripEventService tripEventService;
+    private final MongoTransactions mongoTransactions;
+
+    @Value("${app.net-positions.fold-every:100}")
+    private int foldEvery;
+
+    // How long a gap in event seqs may be an in-flight append
+    @Value("${app.balances.snapshot-gap-grace-ms:60000}")
+    private long gapGraceMs;
+
+    public UserNetPosition getNetPosition(String userId) {
+        UserNetPosition stored = netPositionRepository.findById(userId).orElse(null);
+        if (stored == null) {
+            if (!userRepository.existsById(userId)) {
+                throw new IllegalArgumentException("User not found");
+            }
+            stored = netPositionRepository.insertIfAbsent(UserNetPosition.builder().userId(userId).build());
+        }
+
+        List<Trip> trips = tripRepository.findByMembersContaining(userId);
+        for (int attempt = 1; attempt <= MAX_ADD_ATTEMPTS; attempt++) {
+            Set<String> covered = stored.getTripSeqs().keySet();
+            List<String> unseen = trips.stream().map(Trip::getId).filter(id -> !covered.contains(id)).toList();
+            if (unseen.isEmpty()) {
+                break;
+            }
+            addTrips(userId, unseen);
+            stored = netPositionRepository.findById(userId).orElse(stored);
+        }
+        return replay(stored, trips);
+    }
+
+    /**
+     * Drop the user's snapshot so the next read adds every trip from history
+     * again, e.g. after a data fix, and return that read.
+     */
+    public UserNetPosition rebuild(String userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new IllegalArgumentException("User not found");
+        }
+        netPositionRepository.save(UserNetPosition.builder().userId(userId).build());
+        log.info("Rebuilding net position for user {}", userId);
+        return getNetPosition(userId);
+    }
+
+    private void addTrips(String userId, List<String> tripIds) {
+        // Every event visible in this snapshot belongs to a change the history
+        // counts; the trip is recorded at the highest seq among them, and the
+        // ones without a seq yet are remembered so they are not counted twice
+        Baseline baseline = mongoTransactions.snapshot(() -> {
+            Baseline trips = new Baseline();
+            for (Trip trip : tripRepository.findAllById(tripIds)) {
+                PairDeltas deltas = new PairDeltas();
+                // Completed trips' expenses may have moved to their archive
+                for (Expense expense : tripArchiveService.expenses(trip)) {
+                    deltas.addExpense(expense, 1);
+                }
+                for (Settlement settlement : settlementRepository.findByTripIdAndStatus(trip.getId(), SettlementStatus.CONFIRMED)) {
+                    deltas.addSettlement(settlement);
+                }
+                addOwn(trips.positions, trip.getBaseCurrency(), deltas.nonZero().get(userId));
+
+                trips.tripSeqs.put(trip.getId(), tripEventService.lastNumberedSeq(trip.getId()));
+                List<String> unnumbered = tripEventService.unnumbered(trip.getId()).stream()
+                        .map(TripEvent::getId)
+                        .toList();
+                if (!unnumbered.isEmpty()) {
+                    trips.includedEvents.put(trip.getId(), unnumbered);
+                }
+            }
+            return trips;
+        });
+
+        if (!baseline.tripSeqs.isEmpty() && netPositionRepository.addTrips(userId, baseline.positions,
+                baseline.tripSeqs, baseline.includedEvents)) {
+            log.info("Added {} trips to the net position of user {}", baseline.tripSeqs.size(), userId);
+        }
+    }
+
+    /**
+     * The stored snapshot plus the events of each covered trip after it.
+     */
+    private UserNetPosition replay(UserNetPosition stored, List<Trip> trips) {
+        Map<String, Trip> byId = trips.stream().collect(Collectors.toMap(Trip::getId, Function.identity()));
+        Map<String, Long> seqs = new HashMap<>(stored.getTripSeqs());
+        seqs.keySet().retainAll(byId.keySet());
+
+        Map<String, Map<String, Long>> positions = new HashMap<>();
+        stored.getPositions().forEach((currency, counterparties) -> positions.put(currency, new HashMap<>(counterparties)));
+
+        List<TripEvent> events = tripEventService.eventsAfter(seqs);
+        LocalDateTime gapCutoff = LocalDateTime.now().minus(Duration.ofMillis(gapGraceMs));
+        for (int from = 0, to; from < events.size(); from = to) {
+            String tripId = events.get(from).getTripId();
+            to = from + 1;
+            while (to < events.size() && events.get(to).getTripId().equals(tripId)) {
+                to++;
+            }
+            replayTrip(stored, byId.get(tripId), events.subList(from, to), positions, gapCutoff);
+        }
+
+        return UserNetPosition.builder()
+                .userId(stored.getUserId())
+                .positions(positions)
+                .tripSeqs(stored.getTripSeqs())
+                .includedEvents(stored.getIncludedEvents())
+                .updatedAt(stored.getUpdatedAt())
+                .build();
+    }
+
+    private void replayTrip(UserNetPosition stored, Trip trip, List<TripEvent> events,
+            Map<String, Map<String, Long>> positions, LocalDateTime gapCutoff) {
+        String userId = stored.getUserId();
+        long snapshotSeq = stored.getTripSeqs().get(trip.getId());
+        Set<String> included = new HashSet<>(stored.getIncludedEvents().getOrDefault(trip.getId(), List.of()));
+
+        PairDeltas replayed = new PairDeltas();
+        PairDeltas folded = new PairDeltas();
+        long foldedSeq = snapshotSeq;
+        boolean contiguous = true;
+
+        for (TripEvent event : events) {
+            boolean counted = included.contains(event.getId());
+            if (!counted) {
+                replayed.addEvent(event);
+            }
+
+            // Same rule as the balance snapshot: only move past a missing seq
+            // once it is too old to still be in flight
+            contiguous &= event.getSeq() == foldedSeq + 1 || event.seqTime().isBefore(gapCutoff);
+            if (contiguous) {
+                if (!counted) {
+                    folded.addEvent(event);
+                }
+                included.remove(event.getId());
+                foldedSeq = event.getSeq();
+            }
+        }
+        addOwn(positions, trip.getBaseCurrency(), replayed.nonZero().get(userId));
+
+        if (events.size() >= foldEvery && foldedSeq > snapshotSeq) {
+            // Losing this race is fine: whoever won folded at least as far
+            netPositionRepository.foldTrip(userId, trip.getId(), snapshotSeq, foldedSeq, trip.getBaseCurrency(),
+                    folded.nonZero().getOrDefault(userId, Map.of()), new ArrayList<>(included));
+        }
+    }
+
+    private static void addOwn(Map<String, Map<String, Long>> positions, String currency, Map<String, Long> own) {
+        if (own != null) {
+            Map<String, Long> inCurrency = positions.computeIfAbsent(currency, c -> new HashMap<>());
+            own.forEach((counterpartyId, delta) -> inCurrency.merge(counterpartyId, delta, Long::sum));
+        }
+    }
+
+    /**
+     * Trips being added to a snapshot: what their history adds to the
+     * positions, and the seqs and unnumbered events it covers.
+     */
+    private static final class Baseline {
+        final Map<String, Map<String, Long>> positions = new HashMap<>();
+        final Map<String, Long> tripSeqs = new HashMap<>();
+        final Map<String, List<String>> includedEvents = new HashMap<>();
+    }
+
+    /**
+     * Pairwise paise deltas, userId -> counterparty -> delta, recorded on both
+     * sides: every split member owes the payer their share, and a settlement
+     * pays down what the payer owes the receiver.
+     */
+    static final class PairDeltas {
+        final Map<String, Map<String, Long>> byUser = new HashMap<>();
+
+        void addExpense(Expense expense, int sign) {
+            List<String> split = expense == null ? null : expense.getSplitBetween();
+            if (split == null || split.isEmpty()) {
+                return;
+            }
+
+            long[] shares = SplitCalculator.allocate(expense.getBaseAmount(), expense.getSplitWeights(), split.size());
+            for (int i = 0; i < split.size(); i++) {
+                if (!split.get(i).equals(expense.getPaidBy())) {
+                    add(expense.getPaidBy(), split.get(i), sign * shares[i]);
+                }
+            }
+        }
+
+        void addSettlement(Settlement settlement) {
+            add(settlement.getToUserId(), settlement.getFromUserId(), -BalanceService.toPaise(settlement.getAmount()));
+        }
+
+        /**
+         * What a trip event changes. Settlement events only carry balance
+         * deltas: the payer's is +amount and the receiver's -amount.
+         */
+        void addEvent(TripEvent event) {
+            switch (event.getType()) {
+                case EXPENSE_ADDED -> addExpense(event.getExpense(), 1);
+                case EXPENSE_DELETED -> addExpense(event.getExpense(), -1);
+                case EXPENSE_EDITED -> {
+                    addExpense(event.getPreviousExpense(), -1);
+                    addExpense(event.getExpense(), 1);
+                }
+                case SETTLEMENT_CONFIRMED -> {
+                    String fromUserId = null;
+                    String toUserId = null;
+                    long amount = 0;
+                    for (Map.Entry<String, Long> delta : event.getDeltas().entrySet()) {
+                        if (delta.getValue() > 0) {
+                            fromUserId = delta.getKey();
+                            amount = delta.getValue();
+                        } else if (delta.getValue() < 0) {
+                            toUserId = delta.getKey();
+                        }
+                    }
+                    if (fromUserId != null && toUserId != null) {
+                        add(toUserId, fromUserId, -amount);
+                    }
+                }
+                default -> {
+                    // Joining a trip changes no one's position
+                }
+            }
+        }
+
+        // creditor is owed amount by debtor
+        private void add(String creditorId, String debtorId, long amount) {
+            byUser.computeIfAbsent(creditorId, id -> new HashMap<>()).merge(debtorId, amount, Long::sum);
+            byUser.computeIfAbsent(debtorId, id -> new HashMap<>()).merge(creditorId, -amount, Long::sum);
+        }
+
+        Map<String, Map<String, Long>> nonZero() {
+            byUser.values().forEach(counterparties -> counterparties.values().removeIf(delta -> delta == 0L));
+            byUser.values().removeIf(Map::isEmpty);
+            return byUser;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.splittrip.backend.service;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.splittrip.backend.model.Sequence;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Sequence Service: hands out blocks of values from named counters.
+ * Each call is a single atomic findAndModify ($inc with upsert),
+ * so concurrent callers on any instance never receive the same value.
+ */
+@Service
+@RequiredArgsConstructor
+public class SequenceService {
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Reserve {@code count} consecutive values from the named sequence.
+     * Returns the first reserved value; the block is [first, first + count).
+     * Values start at 0 for a new sequence.
+     */
+    public long reserve(String name, long count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("count must be positive");
+        }
+
+        Sequence sequence = mongoTemplate.findAndModify(
+                Query.query(where("_id").is(name)),
+                new Update().inc("value", count),
+                FindAndModifyOptions.options().upsert(true).returnNew(true),
+                Sequence.class);
+
+        return sequence.getValue() - count;
+    }
+
+    /**
+     * Number of values handed out so far (0 for a sequence never used).
+     */
+    public long current(String name) {
+        Sequence sequence = mongoTemplate.findById(name, Sequence.class);
+        return sequence == null ? 0L : sequence.getValue();
+    }
+
+    /**
+     * Values handed out so far for each of the named sequences, in one query.
+     * Sequences never used are absent.
+     */
+    public Map<String, Long> current(Collection<String> names) {
+        Map<String, Long> values = new HashMap<>();
+        for (Sequence sequence : mongoTemplate.find(Query.query(where("_id").in(names)), Sequence.class)) {
+            values.put(sequence.getId(), sequence.getValue());
+        }
+        return values;
+    }
+
+    /**
+     * Reserve a single value from the named sequence.
+     */
+    public long next(String name) {
+        return reserve(name, 1);
+    }
+}
@@ -0,0 +1,207 @@
+package com.splittrip.backend.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Service;
+
+import com.splittrip.backend.dto.BalanceSummary;
+import com.splittrip.backend.dto.RecordSettlementRequest;
+import com.splittrip.backend.dto.SettlementPlanDTO;
+import com.splittrip.backend.model.Settlement;
+import com.splittrip.backend.model.Settlement.SettlementMethod;
+import com.splittrip.backend.model.Settlement.SettlementStatus;
+import com.splittrip.backend.model.Trip;
+import com.splittrip.backend.model.User;
+import com.splittrip.backend.repository.SettlementRepository;
+import com.splittrip.backend.repository.TripRepository;
+import com.splittrip.backend.repository.UserRepository;
+import com.splittrip.backend.utils.DebtGraph;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Settlement Service: record "I paid you back" and confirm it.
+ * Flow:
+ * - The payer (or anyone in the trip) records a PENDING settlement
+ * - The receiver confirms it; only then does it change balances
+ * - Confirmation is a one-shot PENDING -> CONFIRMED transition, so a
+ *   settlement is folded into balances exactly once
+ */
+@Service
+@RequiredArgsConstructor
+public class SettlementService {
+
+    private final SettlementRepository settlementRepository;
+    private final TripRepository tripRepository;
+    private final UserRepository userRepository;
+    private final BalanceService balanceService;
+    private final MongoTransactions mongoTransactions;
+
+    /**
+     * Record a settlement between two trip members (amount in paise).
+     */
+    public Settlement recordSettlement(RecordSettlementRequest request) {
+        Trip trip = tripRepository.findById(request.getTripId())
+                .orElseThrow(() -> new IllegalArgumentException("Trip not found"));
+        requireActive(trip);
+
+        if (request.getFromUserId().equals(request.getToUserId())) {
+            throw new IllegalArgumentException("Cannot settle with yourself");
+        }
+        if (!trip.getMembers().contains(request.getFromUserId())) {
+            throw new IllegalArgumentException("Payer is not a member of this trip");
+        }
+        if (!trip.getMembers().contains(request.getToUserId())) {
+            throw new IllegalArgumentException("Receiver is not a member of this trip");
+        }
+
+        Settlement settlement = Settlement.builder()
+                .id(UUID.randomUUID().toString())
+                .tripId(request.getTripId())
+                .fromUserId(request.getFromUserId())
+                .toUserId(request.getToUserId())
+                .amount(request.getAmount())
+                .method(request.getMethod() != null ? request.getMethod() : SettlementMethod.MANUAL)
+                .transactionId(request.getTransactionId())
+                .build();
+
+        return settlementRepository.insert(settlement);
+    }
+
+    /**
+     * Confirm a pending settlement. Only the receiver can confirm.
+     */
+    public Settlement confirmSettlement(String settlementId, String confirmerId) {
+        Settlement settlement = settlementRepository.findById(settlementId)
+                .orElseThrow(() -> new IllegalArgumentException("Settlement not found"));
+
+        if (!settlement.getToUserId().equals(confirmerId)) {
+            throw new IllegalArgumentException("Only the receiver can confirm a settlement");
+        }
+        Trip trip = tripRepository.findById(settlement.getTripId())
+                .orElseThrow(() -> new IllegalArgumentException("Trip not found"));
+        requireActive(trip);
+
+        // The confirmation and its event are stored together or not at all
+        return mongoTransactions.run(() -> {
+            Settlement confirmed = settlementRepository.markConfirmed(settlementId)
+                    .orElseThrow(() -> notPending(settlementId));
+            balanceService.applySettlement(confirmed);
+            return confirmed;
+        });
+    }
+
+    // Reports the status that made the confirmation miss, not the one read before it
+    private IllegalArgumentException notPending(String settlementId) {
+        return settlementRepository.findById(settlementId)
+                .map(current -> new IllegalArgumentException(
+                        "Settlement is already " + current.getStatus().name().toLowerCase()))
+                .orElseGet(() -> new IllegalArgumentException("Settlement not found"));
+    }
+
+    // Completed trips are archived and read-only
+    private static void requireActive(Trip trip) {
+        if (trip.getStatus() == Trip.TripStatus.COMPLETED) {
+            throw new IllegalArgumentException("Trip is completed; reopen it to change settlements");
+        }
+    }
+
+    /**
+     * All settlements for a trip, any status.
+     */
+    public List<Settlement> getSettlementsForTrip(String tripId) {
+        if (!tripRepository.existsById(tripId)) {
+            throw new IllegalArgumentException("Trip not found");
+        }
+        return settlementRepository.findByTripId(tripId);
+    }
+
+    /**
+     * Confirmed settlements for a trip.
+     */
+    public List<Settlement> getConfirmedSettlementsForTrip(String tripId) {
+        return settlementRepository.findByTripIdAndStatus(tripId, SettlementStatus.CONFIRMED);
+    }
+
+    /**
+     * One settlement plan per currency for the given trips of a user (all of
+     * their trips when none are given), covering everyone in those trips.
+     * Each trip is a hub node in a DebtGraph: members who owe pay into it and
+     * members who are owed are paid out of it. Hubs net to zero, so a person
+     * owed on one trip and owing on another only settles the difference.
+     */
+    public List<SettlementPlanDTO> planAcrossTrips(String userId, List<String> tripIds) {
+        List<Trip> trips = tripIds == null || tripIds.isEmpty()
+                ? tripRepository.findByMembersContaining(userId)
+                : tripRepository.findAllById(tripIds);
+        if (tripIds != null && !tripIds.isEmpty() && trips.size() != tripIds.stream().distinct().count()) {
+            throw new IllegalArgumentException("Trip not found");
+        }
+        for (Trip trip : trips) {
+            if (!trip.getMembers().contains(userId)) {
+                throw new IllegalArgumentException("User is not a member of trip " + trip.getId());
+            }
+        }
+
+        Map<String, List<Trip>> byCurrency = trips.stream()
+                .collect(Collectors.groupingBy(Trip::getBaseCurrency, LinkedHashMap::new, Collectors.toList()));
+        List<SettlementPlanDTO> plans = new ArrayList<>();
+        byCurrency.forEach((currency, currencyTrips) -> plans.add(plan(currency, currencyTrips)));
+        return plans;
+    }
+
+    private SettlementPlanDTO plan(String currency, List<Trip> trips) {
+        List<Map<String, Long>> balances = new ArrayList<>();
+        Map<String, Integer> ordinals = new LinkedHashMap<>();
+        for (Trip trip : trips) {
+            Map<String, Long> tripBalances = balanceService.tripBalancePaise(trip.getId());
+            // A hub left with a balance would show up in the plan as a payer or payee
+            long total = tripBalances.values().stream().mapToLong(Long::longValue).sum();
+            if (total != 0) {
+                throw new IllegalStateException("Balances of trip " + trip.getId() + " sum to " + total + " paise");
+            }
+            balances.add(tripBalances);
+            tripBalances.keySet().forEach(memberId -> ordinals.putIfAbsent(memberId, ordinals.size()));
+        }
+
+        // People are 0..n-1, trip hubs come after them
+        int people = ordinals.size();
+        DebtGraph graph = new DebtGraph(people + trips.size());
+        for (int t = 0; t < trips.size(); t++) {
+            int hub = people + t;
+            balances.get(t).forEach((memberId, paise) -> graph.addDebt(ordinals.get(memberId), hub, -paise));
+        }
+        DebtGraph.Plan plan = graph.simplify();
+
+        String[] memberIds = ordinals.keySet().toArray(String[]::new);
+        Map<String, String> names = new HashMap<>();
+        for (User user : userRepository.findAllById(ordinals.keySet())) {
+            names.put(user.getId(), user.getName());
+        }
+
+        List<BalanceSummary.BalanceInstruction> instructions = new ArrayList<>(plan.size());
+        for (int i = 0; i < plan.size(); i++) {
+            String fromUserId = memberIds[plan.from(i)];
+            String toUserId = memberIds[plan.to(i)];
+            instructions.add(BalanceSummary.BalanceInstruction.builder()
+                    .fromUserId(fromUserId)
+                    .fromUserName(names.getOrDefault(fromUserId, "Unknown"))
+                    .toUserId(toUserId)
+                    .toUserName(names.getOrDefault(toUserId, "Unknown"))
+                    .amount(plan.amount(i) / 100.0) // paise to rupees
+                    .build());
+        }
+
+        return SettlementPlanDTO.builder()
+                .currency(currency)
+                .tripIds(trips.stream().map(Trip::getId).collect(Collectors.toList()))
+                .instructions(instructions)
+                .build();
+    }
+}
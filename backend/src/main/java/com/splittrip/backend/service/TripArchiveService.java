@@ -0,0 +1,280 @@
+package com.splittrip.backend.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+
+import com.splittrip.backend.dto.BalanceSummary;
+import com.splittrip.backend.dto.ExpenseFilter;
+import com.splittrip.backend.model.Expense;
+import com.splittrip.backend.model.Trip;
+import com.splittrip.backend.model.TripArchive;
+import com.splittrip.backend.model.TripArchiveChunk;
+import com.splittrip.backend.repository.ExpenseRepository;
+import com.splittrip.backend.repository.TripArchiveChunkRepository;
+import com.splittrip.backend.repository.TripArchiveRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Archives of completed trips (see TripArchive).
+ *
+ * Archiving writes the archive before deleting the expenses it holds, and
+ * restoring re-inserts them before deleting the archive, so at every point
+ * each expense is in at least one place; {@link #expenses} merges both by id,
+ * preferring the expenses collection. Changes that passed ExpenseService's
+ * status check before the trip was completed can still commit while it is
+ * archived, so each expense is deleted only if its version is still the one
+ * archived: an edit that committed first keeps its row, which shadows the
+ * archived copy, and an edit or delete that comes later finds the row gone
+ * and fails with a conflict. An expense deleted after it was read is dropped
+ * by writing the archive again without it. A completed trip whose archiving
+ * failed is read from the expenses collection alone until it is archived
+ * again.
+ *
+ * The compressed expenses are written as chunks of at most
+ * {@code app.trips.archive.chunk-bytes} under a new generation, then the
+ * header naming that generation replaces the previous one, and only then
+ * are older generations' chunks deleted.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TripArchiveService {
+
+    private static final TypeReference<List<Expense>> EXPENSE_LIST = new TypeReference<>() {};
+
+    // Well below MongoDB's 16 MB document limit
+    private static final int MAX_CHUNK_BYTES = 15 * 1024 * 1024;
+
+    // Header reads racing a re-archive that deleted the chunks they name
+    private static final int MAX_READ_ATTEMPTS = 3;
+
+    private final TripArchiveRepository tripArchiveRepository;
+    private final TripArchiveChunkRepository tripArchiveChunkRepository;
+    private final ExpenseRepository expenseRepository;
+    private final TripEventService tripEventService;
+    private final TripExpenseCache tripExpenseCache;
+    private final JsonMapper jsonMapper;
+
+    @Value("${app.trips.archive.chunk-bytes:4194304}")
+    private int chunkBytes;
+
+    /**
+     * Archive a completed trip with the summary computed at event seq
+     * {@code seq}, and move its expenses out of the expenses collection.
+     * A negative seq archives a summary that is never served.
+     */
+    public TripArchive archive(Trip trip, long seq, BalanceSummary summary) {
+        List<Expense> hot = expenseRepository.findByTripId(trip.getId());
+        // Includes a previous archive's expenses, so archiving twice loses nothing
+        List<Expense> expenses = merge(archivedExpenses(trip.getId()), hot);
+        TripArchive archive = write(trip, seq, summary, expenses);
+
+        List<String> deleted = new ArrayList<>();
+        for (Expense expense : hot) {
+            if (!expenseRepository.deleteIfVersion(expense.getId(), expense.getVersion())
+                    && !expenseRepository.existsById(expense.getId())) {
+                deleted.add(expense.getId());
+            }
+        }
+        if (!deleted.isEmpty()) {
+            log.info("Trip {} lost {} expenses while archiving; writing its archive again", trip.getId(),
+                    deleted.size());
+            expenses.removeIf(expense -> deleted.contains(expense.getId()));
+            archive = write(trip, seq, summary, expenses);
+        }
+        tripExpenseCache.evict(trip.getId());
+        return archive;
+    }
+
+    private TripArchive write(Trip trip, long seq, BalanceSummary summary, List<Expense> expenses) {
+        byte[] json = jsonMapper.writeValueAsBytes(expenses);
+        byte[] gzipped = gzip(json);
+
+        String generation = UUID.randomUUID().toString();
+        List<byte[]> chunks = split(gzipped, Math.min(chunkBytes, MAX_CHUNK_BYTES));
+        for (int index = 0; index < chunks.size(); index++) {
+            tripArchiveChunkRepository.insert(TripArchiveChunk.builder()
+                    .id(generation + ":" + index)
+                    .tripId(trip.getId())
+                    .generation(generation)
+                    .index(index)
+                    .data(chunks.get(index))
+                    .build());
+        }
+
+        TripArchive archive = TripArchive.builder()
+                .tripId(trip.getId())
+                .lastSeq(seq)
+                .summary(summary)
+                .expenseCount(expenses.size())
+                .totalAmount(expenses.stream().mapToLong(Expense::getBaseAmount).sum())
+                .generation(generation)
+                .chunkCount(chunks.size())
+                .compressedBytes(gzipped.length)
+                .uncompressedBytes(json.length)
+                .build();
+        tripArchiveRepository.save(archive);
+        tripArchiveChunkRepository.deleteByTripIdAndGenerationNot(trip.getId(), generation);
+        log.info("Archived trip {} at seq {}: {} expenses, {} -> {} bytes in {} chunks", trip.getId(), seq,
+                expenses.size(), json.length, gzipped.length, chunks.size());
+        return archive;
+    }
+
+    /**
+     * Move a reopened trip's expenses back into the expenses collection and
+     * drop its archive. Does nothing if the trip was never archived.
+     */
+    public void restore(Trip trip) {
+        if (!tripArchiveRepository.existsById(trip.getId())) {
+            return;
+        }
+
+        List<Expense> expenses = archivedExpenses(trip.getId());
+        for (Expense expense : expenses) {
+            try {
+                expenseRepository.insert(expense);
+            } catch (DuplicateKeyException e) {
+                // Restored by an earlier attempt
+            }
+        }
+        tripArchiveRepository.deleteById(trip.getId());
+        tripArchiveChunkRepository.deleteByTripId(trip.getId());
+        tripExpenseCache.evict(trip.getId());
+        log.info("Restored {} expenses of trip {} from its archive", expenses.size(), trip.getId());
+    }
+
+    /**
+     * The archived summary, if the trip has an archive and no event (such as
+     * a settlement confirmed after completion) has been logged since it.
+     */
+    public Optional<BalanceSummary> summary(Trip trip) {
+        return tripArchiveRepository.findById(trip.getId())
+                .filter(archive -> archive.getLastSeq() == tripEventService.currentSeq(trip.getId()))
+                .map(TripArchive::getSummary);
+    }
+
+    /**
+     * Whether the trip has an archive. A completed trip without one failed
+     * to archive and can be archived again.
+     */
+    public boolean isArchived(Trip trip) {
+        return tripArchiveRepository.existsById(trip.getId());
+    }
+
+    /**
+     * Every expense of the trip: archived ones plus any in the expenses collection.
+     */
+    public List<Expense> expenses(Trip trip) {
+        List<Expense> hot = expenseRepository.findByTripId(trip.getId());
+        if (trip.getStatus() != Trip.TripStatus.COMPLETED) {
+            return hot;
+        }
+
+        return merge(archivedExpenses(trip.getId()), hot);
+    }
+
+    // By id, the expenses collection's copy winning
+    private static List<Expense> merge(List<Expense> archived, List<Expense> hot) {
+        Map<String, Expense> byId = new LinkedHashMap<>();
+        archived.forEach(expense -> byId.put(expense.getId(), expense));
+        hot.forEach(expense -> byId.put(expense.getId(), expense));
+        return new ArrayList<>(byId.values());
+    }
+
+    /**
+     * A completed trip's expenses matching the filter, oldest first.
+     */
+    public List<Expense> findExpenses(Trip trip, ExpenseFilter filter) {
+        ExpenseColumns columns = new ExpenseColumns();
+        expenses(trip).forEach(columns::put);
+        return columns.find(filter);
+    }
+
+    /**
+     * Sum of a completed trip's expenses in paise of its base currency.
+     */
+    public long totalAmount(Trip trip) {
+        if (!expenseRepository.findByTripId(trip.getId()).isEmpty()) {
+            // Mid-archive or not archived: the same expense may be in both places
+            return expenses(trip).stream().mapToLong(Expense::getBaseAmount).sum();
+        }
+        return tripArchiveRepository.findById(trip.getId()).map(TripArchive::getTotalAmount).orElse(0L);
+    }
+
+    private List<Expense> archivedExpenses(String tripId) {
+        for (int attempt = 1; attempt <= MAX_READ_ATTEMPTS; attempt++) {
+            TripArchive archive = tripArchiveRepository.findById(tripId).orElse(null);
+            if (archive == null) {
+                return List.of();
+            }
+
+            List<TripArchiveChunk> chunks = tripArchiveChunkRepository
+                    .findByTripIdAndGenerationOrderByIndexAsc(tripId, archive.getGeneration());
+            if (chunks.size() == archive.getChunkCount()) {
+                return decode(jsonMapper, join(chunks.stream().map(TripArchiveChunk::getData).toList()));
+            }
+            log.debug("Archive of trip {} changed while reading it (attempt {})", tripId, attempt);
+        }
+        throw new IllegalStateException("Archive of trip " + tripId + " is missing chunks");
+    }
+
+    static List<Expense> decode(JsonMapper mapper, byte[] gzipped) {
+        return mapper.readerFor(EXPENSE_LIST).readValue(gunzip(gzipped));
+    }
+
+    static List<byte[]> split(byte[] bytes, int chunkBytes) {
+        if (chunkBytes < 1) {
+            throw new IllegalArgumentException("chunkBytes must be positive");
+        }
+        List<byte[]> chunks = new ArrayList<>();
+        for (int from = 0; from < bytes.length; from += chunkBytes) {
+            chunks.add(Arrays.copyOfRange(bytes, from, Math.min(bytes.length, from + chunkBytes)));
+        }
+        return chunks;
+    }
+
+    static byte[] join(List<byte[]> chunks) {
+        ByteArrayOutputStream joined = new ByteArrayOutputStream(chunks.stream().mapToInt(c -> c.length).sum());
+        chunks.forEach(joined::writeBytes);
+        return joined.toByteArray();
+    }
+
+    static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (OutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    static byte[] gunzip(byte[] bytes) {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.splittrip.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.splittrip.backend.utils.TripCodeGenerator;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Trip Code Allocator: hands out trip codes without checking the database.
+ * 
+ * Each instance reserves a block of counter values from the "trip-code"
+ * sequence and maps every value through {@link TripCodeGenerator#fromIndex},
+ * which is one-to-one. Codes therefore never repeat across instances, and
+ * a Mongo round trip is only needed once per block.
+ * 
+ * The unique index on Trip.tripCode stays as a safety net for codes issued
+ * by the old random generator (see TripService.createTrip).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TripCodeAllocator {
+
+    static final String SEQUENCE_NAME = "trip-code";
+
+    private final SequenceService sequenceService;
+
+    // Must never change once codes have been issued, or old and new codes may collide
+    @Value("${app.trip-code.key:7046029254386353131}")
+    private long key;
+
+    @Value("${app.trip-code.block-size:20}")
+    private int blockSize;
+
+    // Current reserved block [nextIndex, blockEnd), guarded by this
+    private long nextIndex;
+    private long blockEnd;
+
+    public synchronized String allocate() {
+        if (nextIndex >= blockEnd) {
+            nextIndex = sequenceService.reserve(SEQUENCE_NAME, blockSize);
+            blockEnd = nextIndex + blockSize;
+            log.debug("Reserved trip code block [{}, {})", nextIndex, blockEnd);
+        }
+        return TripCodeGenerator.fromIndex(nextIndex++, key);
+    }
+
+    /**
+     * The counter value {@code code} was allocated from, if it was; -1 for
+     * codes no counter value maps to. Old random codes also map to some
+     * value, usually far beyond {@link #issued}.
+     */
+    public long indexOf(String code) {
+        return TripCodeGenerator.indexOf(code, key);
+    }
+
+    /**
+     * Counter values reserved so far by all instances; every allocated
+     * code's index is below it.
+     */
+    public long issued() {
+        return sequenceService.current(SEQUENCE_NAME);
+    }
+}
@@ -0,0 +1,179 @@
+package com.splittrip.backend.service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import com.splittrip.backend.model.Trip;
+import com.splittrip.backend.repository.TripRepository;
+import com.splittrip.backend.utils.BloomFilter;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Trip code to trip id, for the join entry point.
+ *
+ * Codes that cannot exist are rejected without a query. An allocated code
+ * is the image of a counter value below the "trip-code" sequence (see
+ * TripCodeAllocator), so inverting it gives an exact test: the code may
+ * exist only if its index is below the last sequence value read, plus a
+ * slack window for blocks other instances reserved since. Codes beyond the
+ * window re-read the sequence at most once per refresh interval. Codes
+ * from the old random generator invert to arbitrary indexes, so the ones
+ * outside that range are loaded once at startup into a Bloom filter.
+ * Until that finishes every code is looked up.
+ *
+ * Codes that pass go through a bounded LRU cache. A miss is cached for a
+ * short TTL, so other instances' new trips show up once it expires; a trip
+ * created here replaces its code's entry straight away. Codes never change
+ * and trips are never deleted, so hits do not expire.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TripCodeLookup {
+
+    private static final double LEGACY_FALSE_POSITIVE_RATE = 0.01;
+
+    private final TripRepository tripRepository;
+    private final TripCodeAllocator tripCodeAllocator;
+
+    @Value("${app.trip-code.cache.size:10000}")
+    private int cacheSize;
+
+    @Value("${app.trip-code.cache.negative-ttl-ms:5000}")
+    private long negativeTtlMs;
+
+    // Counter values other instances may have reserved since the sequence was read
+    @Value("${app.trip-code.filter.slack:1000}")
+    private long slack;
+
+    @Value("${app.trip-code.filter.refresh-ms:1000}")
+    private long refreshMs;
+
+    // Access-ordered; a null tripId is a cached miss
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    // Null until loaded
+    private volatile BloomFilter legacyCodes;
+    private volatile long issued;
+    private final AtomicLong issuedReadAt = new AtomicLong();
+
+    /**
+     * The id of the trip with this code, if there is one.
+     */
+    public Optional<String> tripIdFor(String tripCode) {
+        long now = System.nanoTime();
+        synchronized (this) {
+            Entry entry = entries.get(tripCode);
+            if (entry != null && (entry.tripId != null || now < entry.expiresAt)) {
+                return Optional.ofNullable(entry.tripId);
+            }
+        }
+
+        if (!mightExist(tripCode)) {
+            return Optional.empty();
+        }
+
+        String tripId = tripRepository.findByTripCode(tripCode).map(Trip::getId).orElse(null);
+        synchronized (this) {
+            Entry created = entries.get(tripCode);
+            if (tripId == null && created != null && created.tripId != null) {
+                return Optional.of(created.tripId); // created here while we looked
+            }
+            entries.put(tripCode, new Entry(tripId, now + negativeTtlMs * 1_000_000));
+            trim();
+        }
+        return Optional.ofNullable(tripId);
+    }
+
+    /**
+     * Record a trip created on this instance, replacing any cached miss for its code.
+     */
+    public synchronized void onTripCreated(Trip trip) {
+        entries.put(trip.getTripCode(), new Entry(trip.getId(), 0L));
+        trim();
+    }
+
+    /**
+     * Build the filter for codes issued before the allocator, on a
+     * background thread. One pass over the trip codes.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadLegacyCodes() {
+        long start = System.nanoTime();
+        try {
+            // Read first: codes allocated during the scan are below the later value anyway
+            long issuedBefore = tripCodeAllocator.issued();
+            issued = issuedBefore;
+            issuedReadAt.set(System.nanoTime());
+            List<String> legacy = new ArrayList<>();
+            tripRepository.forEachTripCode(code -> {
+                long index = tripCodeAllocator.indexOf(code);
+                if (index < 0 || index >= issuedBefore) {
+                    legacy.add(code);
+                }
+            });
+
+            BloomFilter filter = BloomFilter.forExpected(legacy.size(), LEGACY_FALSE_POSITIVE_RATE);
+            legacy.forEach(filter::add);
+            legacyCodes = filter;
+            log.info("Loaded {} legacy trip codes into a {} byte filter in {} ms", legacy.size(),
+                    filter.sizeBytes(), (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            // Keep looking every code up
+            log.error("Failed to load legacy trip codes: {}", e.getMessage());
+        }
+    }
+
+    boolean mightExist(String tripCode) {
+        BloomFilter legacy = legacyCodes;
+        if (legacy == null) {
+            return true;
+        }
+
+        long index = tripCodeAllocator.indexOf(tripCode);
+        if (index >= 0 && index >= issued + slack) {
+            // One caller per interval re-reads the sequence; the rest use the last value
+            long readAt = issuedReadAt.get();
+            long now = System.nanoTime();
+            if (now - readAt > refreshMs * 1_000_000 && issuedReadAt.compareAndSet(readAt, now)) {
+                issued = tripCodeAllocator.issued();
+            }
+        }
+        if (index >= 0 && index < issued + slack) {
+            return true;
+        }
+        return legacy.mightContain(tripCode);
+    }
+
+    private void trim() {
+        Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+        while (entries.size() > cacheSize && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    private static final class Entry {
+        final String tripId;
+        final long expiresAt; // System.nanoTime(); only for misses
+
+        Entry(String tripId, long expiresAt) {
+            this.tripId = tripId;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
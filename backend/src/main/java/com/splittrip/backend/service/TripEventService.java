@@ -0,0 +1,188 @@
+package com.splittrip.backend.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.splittrip.backend.model.Expense;
+import com.splittrip.backend.model.TripEvent;
+import com.splittrip.backend.model.TripEvent.EventType;
+import com.splittrip.backend.repository.TripEventRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Trip Event Service: appends to and reads the per-trip event log.
+ *
+ * Appends run in the transaction that stores the change (see
+ * MongoTransactions), so a change is never stored without its event. The
+ * event is stored without a seq, and numbered from the
+ * "trip-events:{tripId}" sequence once the transaction has committed: the
+ * sequence is the one document every write to a trip would share, so
+ * keeping it out of the transaction is what lets concurrent writes to one
+ * trip commit without conflicting. It also means a seq is only handed out
+ * for a stored change, so a reader that reads the sequence first never
+ * misses a change whose event is at or below it.
+ *
+ * Readers only see numbered events. A seq handed out but not yet set on its
+ * event shows up as a gap, which readers only fold past once it is too old
+ * to still land (app.balances.snapshot-gap-grace-ms). Events left
+ * unnumbered by a crash right after their commit are numbered by
+ * numberStragglers.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TripEventService {
+
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int STRAGGLER_BATCH = 500;
+
+    private final TripEventRepository tripEventRepository;
+    private final SequenceService sequenceService;
+    private final MongoTransactions mongoTransactions;
+
+    // How long a gap in event seqs may be an in-flight append
+    @Value("${app.balances.snapshot-gap-grace-ms:60000}")
+    private long gapGraceMs;
+
+    /**
+     * Store an event for a change made in the current transaction; it is
+     * numbered once the transaction commits.
+     */
+    public TripEvent append(String tripId, EventType type, String subjectId, String actorId,
+            Map<String, Long> deltas, Expense expense) {
+        return append(tripId, type, subjectId, actorId, deltas, expense, null);
+    }
+
+    /**
+     * append, for an edit: {@code previous} is the expense before it.
+     */
+    public TripEvent append(String tripId, EventType type, String subjectId, String actorId,
+            Map<String, Long> deltas, Expense expense, Expense previous) {
+        TripEvent event = TripEvent.builder()
+                .id(UUID.randomUUID().toString())
+                .tripId(tripId)
+                .type(type)
+                .subjectId(subjectId)
+                .actorId(actorId)
+                .deltas(deltas)
+                .expense(expense)
+                .previousExpense(previous)
+                .build();
+
+        TripEvent saved = tripEventRepository.insert(event);
+        mongoTransactions.afterCommit(() -> number(saved));
+        return saved;
+    }
+
+    /**
+     * Number events whose request died between committing them and numbering
+     * them. Only events older than the gap grace period are touched, well
+     * past the moment their own request would have numbered them.
+     */
+    @Scheduled(fixedDelayString = "${app.events.straggler-interval-ms:60000}",
+            initialDelayString = "${app.events.straggler-interval-ms:60000}")
+    public void numberStragglers() {
+        LocalDateTime before = LocalDateTime.now().minus(Duration.ofMillis(gapGraceMs));
+        List<TripEvent> stragglers;
+        do {
+            stragglers = tripEventRepository.findUnnumbered(before, STRAGGLER_BATCH);
+            for (TripEvent event : stragglers) {
+                number(event);
+                log.warn("Numbered trip {} event {} left unnumbered since {}",
+                        event.getTripId(), event.getId(), event.getCreatedAt());
+            }
+        } while (stragglers.size() == STRAGGLER_BATCH);
+    }
+
+    // Losing to another instance only leaves the seq taken here as a gap
+    private void number(TripEvent event) {
+        long seq = sequenceService.next(sequenceName(event.getTripId())) + 1;
+        if (tripEventRepository.assignSeq(event.getId(), seq)) {
+            event.setSeq(seq);
+        }
+    }
+
+    /**
+     * All events after {@code seq}, oldest first (used for balance replay).
+     */
+    public List<TripEvent> eventsAfter(String tripId, long seq) {
+        return tripEventRepository.findByTripIdAndSeqGreaterThanOrderBySeqAsc(tripId, seq);
+    }
+
+    /**
+     * For each tripId -> seq, the trip's events after that seq, in one
+     * query. Grouped by trip, oldest first within each.
+     */
+    public List<TripEvent> eventsAfter(Map<String, Long> seqs) {
+        return tripEventRepository.findAfter(seqs);
+    }
+
+    /**
+     * Highest seq already set on one of the trip's events (0 if none).
+     */
+    public long lastNumberedSeq(String tripId) {
+        return tripEventRepository.findTopByTripIdOrderBySeqDesc(tripId)
+                .map(TripEvent::getSeq)
+                .orElse(0L);
+    }
+
+    /**
+     * The trip's events whose transaction committed but that have no seq yet.
+     */
+    public List<TripEvent> unnumbered(String tripId) {
+        return tripEventRepository.findByTripIdAndSeqIsNull(tripId);
+    }
+
+    /**
+     * Every event of the trip, numbered or not, in no particular order.
+     */
+    public List<TripEvent> allEvents(String tripId) {
+        return tripEventRepository.findByTripId(tripId);
+    }
+
+    /**
+     * One page of trip history after {@code seq}, oldest first (audit view).
+     */
+    public List<TripEvent> history(String tripId, long afterSeq, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return tripEventRepository.findByTripIdAndSeqGreaterThanOrderBySeqAsc(
+                tripId, afterSeq, PageRequest.of(0, limit));
+    }
+
+    /**
+     * Highest sequence number handed out for the trip so far.
+     */
+    public long currentSeq(String tripId) {
+        return sequenceService.current(sequenceName(tripId));
+    }
+
+    /**
+     * currentSeq for several trips in one query.
+     */
+    public Map<String, Long> currentSeqs(Collection<String> tripIds) {
+        Map<String, Long> byName = sequenceService.current(tripIds.stream().map(TripEventService::sequenceName).toList());
+        Map<String, Long> seqs = new HashMap<>();
+        for (String tripId : tripIds) {
+            seqs.put(tripId, byName.getOrDefault(sequenceName(tripId), 0L));
+        }
+        return seqs;
+    }
+
+    private static String sequenceName(String tripId) {
+        return "trip-events:" + tripId;
+    }
+}
@@ -0,0 +1,273 @@
+package com.splittrip.backend.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.splittrip.backend.dto.ExpenseFilter;
+import com.splittrip.backend.model.Expense;
+import com.splittrip.backend.model.TripEvent;
+import com.splittrip.backend.repository.ExpenseRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-process cache of hot trips' expenses as ExpenseColumns.
+ *
+ * A trip is loaded with one findByTripId and then kept current from the
+ * trip event log: every expense add, edit and delete is an event carrying
+ * the expense, so bringing a trip current costs one sequence lookup plus
+ * the events since, on whichever instance made the write. A read checks
+ * the sequence only if the trip was last checked more than
+ * {@code app.expenses.cache.refresh-ms} ago or this instance has written
+ * to it since (see {@link #changed}); other reads cost no query, and
+ * another instance's writes show up here within the refresh interval. Replaying an
+ * event is idempotent (put or remove by expense id), and ExpenseColumns
+ * ignores puts older than what it holds or for deleted ids, so overlap
+ * between the initial load and the log, or events replayed out of order,
+ * are harmless.
+ *
+ * Trips are evicted least recently used first once their combined
+ * footprint passes {@code app.expenses.cache.max-bytes}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TripExpenseCache {
+
+    private final ExpenseRepository expenseRepository;
+    private final TripEventService tripEventService;
+
+    @Value("${app.expenses.cache.max-bytes:67108864}")
+    private long maxBytes;
+
+    @Value("${app.expenses.cache.refresh-ms:1000}")
+    private long refreshMs;
+
+    // How long a gap in event seqs may be an in-flight append
+    @Value("${app.balances.snapshot-gap-grace-ms:60000}")
+    private long gapGraceMs;
+
+    // Access-ordered, so iteration starts at the least recently used trip
+    private final LinkedHashMap<String, Entry> trips = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    /**
+     * Sum of the trip's expenses in paise of its base currency.
+     */
+    public long totalAmount(String tripId) {
+        Entry entry = current(tripId);
+        synchronized (entry.columns) {
+            return entry.columns.total();
+        }
+    }
+
+    /**
+     * The trip's expenses matching the filter, oldest first.
+     */
+    public List<Expense> find(String tripId, ExpenseFilter filter) {
+        Entry entry = current(tripId);
+        synchronized (entry.columns) {
+            return entry.columns.find(filter);
+        }
+    }
+
+    /**
+     * Note that this instance changed a trip's expenses, so the next read
+     * catches up on the log instead of waiting out the refresh interval.
+     * Call after the change commits and its event is numbered.
+     */
+    public void changed(String tripId) {
+        Entry entry;
+        synchronized (this) {
+            entry = trips.get(tripId);
+        }
+        if (entry != null) {
+            entry.stale = true;
+        }
+    }
+
+    /**
+     * Drop a trip, e.g. when its expenses are moved out of the expenses collection.
+     */
+    public synchronized void evict(String tripId) {
+        Entry entry = trips.remove(tripId);
+        if (entry != null) {
+            totalBytes -= entry.bytes;
+        }
+    }
+
+    long footprintBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * Every cached trip with the seq its expenses are current to, least
+     * recently used first, for CacheSnapshotService.
+     */
+    List<CachedTrip> cachedTrips() {
+        List<Map.Entry<String, Entry>> entries;
+        synchronized (this) {
+            entries = new ArrayList<>(trips.entrySet());
+        }
+
+        List<CachedTrip> cached = new ArrayList<>(entries.size());
+        for (Map.Entry<String, Entry> entry : entries) {
+            ExpenseColumns columns = entry.getValue().columns;
+            synchronized (columns) {
+                cached.add(new CachedTrip(entry.getKey(), columns.seq, columns.find(new ExpenseFilter())));
+            }
+        }
+        return cached;
+    }
+
+    /**
+     * Cache a trip's expenses as of {@code seq}, e.g. from a snapshot taken
+     * before a restart; the first read catches up on events after it.
+     * Ignored if the trip is already cached.
+     */
+    void restore(CachedTrip cached) {
+        ExpenseColumns columns = new ExpenseColumns();
+        cached.expenses.forEach(columns::put);
+        columns.seq = cached.seq;
+
+        // Restored entries check the log on their first read
+        Entry entry = new Entry(columns, true);
+        synchronized (this) {
+            if (trips.putIfAbsent(cached.tripId, entry) != null) {
+                return;
+            }
+        }
+        synchronized (columns) {
+            account(cached.tripId, entry, columns.footprintBytes());
+        }
+    }
+
+    private Entry current(String tripId) {
+        Entry entry;
+        synchronized (this) {
+            entry = trips.get(tripId);
+        }
+        long checkedAt = System.nanoTime();
+        if (entry != null && !entry.stale && checkedAt - entry.checkedAt < refreshMs * 1_000_000) {
+            return entry;
+        }
+        if (entry != null) {
+            // Cleared before the seq is read, so a change noted after it is not lost
+            entry.stale = false;
+        }
+
+        // Read the seq before any expenses, so nothing at or below it can be missed
+        long seq = tripEventService.currentSeq(tripId);
+        if (entry == null) {
+            entry = load(tripId, seq);
+        }
+
+        synchronized (entry.columns) {
+            if (entry.columns.seq < seq) {
+                catchUp(tripId, entry.columns);
+            }
+            // Behind a gap that may still fill: keep checking on every read
+            if (entry.columns.seq >= seq) {
+                entry.checkedAt = checkedAt;
+            }
+            account(tripId, entry, entry.columns.footprintBytes());
+        }
+        return entry;
+    }
+
+    private Entry load(String tripId, long seq) {
+        ExpenseColumns columns = new ExpenseColumns();
+        for (Expense expense : expenseRepository.findByTripId(tripId)) {
+            columns.put(expense);
+        }
+        columns.seq = seq;
+
+        synchronized (this) {
+            // Another request may have loaded it meanwhile; keep theirs
+            Entry existing = trips.get(tripId);
+            if (existing != null) {
+                return existing;
+            }
+            Entry entry = new Entry(columns, false);
+            trips.put(tripId, entry);
+            log.debug("Cached {} expenses for trip {}", columns.size(), tripId);
+            return entry;
+        }
+    }
+
+    private void catchUp(String tripId, ExpenseColumns columns) {
+        LocalDateTime gapCutoff = LocalDateTime.now().minus(Duration.ofMillis(gapGraceMs));
+        boolean contiguous = true;
+
+        for (TripEvent event : tripEventService.eventsAfter(tripId, columns.seq)) {
+            switch (event.getType()) {
+                case EXPENSE_ADDED, EXPENSE_EDITED -> {
+                    if (event.getExpense() != null) {
+                        columns.put(event.getExpense());
+                    }
+                }
+                case EXPENSE_DELETED -> columns.remove(event.getSubjectId());
+                default -> {
+                    // Members and settlements do not change the expense columns
+                }
+            }
+
+            // Same rule as the balance snapshot: only move past a missing seq
+            // once it is too old to still be in flight; replays are idempotent
+            contiguous &= event.getSeq() == columns.seq + 1 || event.seqTime().isBefore(gapCutoff);
+            if (contiguous) {
+                columns.seq = event.getSeq();
+            }
+        }
+    }
+
+    private synchronized void account(String tripId, Entry entry, long bytes) {
+        if (trips.get(tripId) != entry) {
+            return; // evicted meanwhile
+        }
+        totalBytes += bytes - entry.bytes;
+        entry.bytes = bytes;
+
+        Iterator<Map.Entry<String, Entry>> eldest = trips.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, Entry> victim = eldest.next();
+            totalBytes -= victim.getValue().bytes;
+            eldest.remove();
+            log.debug("Evicted trip {} from the expense cache", victim.getKey());
+        }
+    }
+
+    static final class CachedTrip {
+        final String tripId;
+        final long seq;
+        final List<Expense> expenses;
+
+        CachedTrip(String tripId, long seq, List<Expense> expenses) {
+            this.tripId = tripId;
+            this.seq = seq;
+            this.expenses = expenses;
+        }
+    }
+
+    private static final class Entry {
+        final ExpenseColumns columns;
+        long bytes;
+        // System.nanoTime() of the last read that brought it current to the log
+        volatile long checkedAt;
+        volatile boolean stale;
+
+        Entry(ExpenseColumns columns, boolean stale) {
+            this.columns = columns;
+            this.stale = stale;
+        }
+    }
+}
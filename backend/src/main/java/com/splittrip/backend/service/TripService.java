@@ -1,21 +1,24 @@
 package com.splittrip.backend.service;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 
 import com.splittrip.backend.dto.CreateTripRequest;
+import com.splittrip.backend.dto.TripListItemDTO;
 import com.splittrip.backend.dto.TripSummaryDTO;
-import com.splittrip.backend.model.Expense;
 import com.splittrip.backend.model.Trip;
-import com.splittrip.backend.model.User;
-import com.splittrip.backend.repository.ExpenseRepository;
+import com.splittrip.backend.model.TripEvent.EventType;
+import com.splittrip.backend.repository.ReplicaReadRepository;
 import com.splittrip.backend.repository.TripRepository;
 import com.splittrip.backend.repository.UserRepository;
-import com.splittrip.backend.utils.TripCodeGenerator;
+import com.splittrip.backend.utils.SingleFlight;
 
 import lombok.RequiredArgsConstructor;
 
@@ -25,7 +28,24 @@ public class TripService {
 
     private final TripRepository tripRepository;
     private final UserRepository userRepository;
-    private final ExpenseRepository expenseRepository;
+    private final TripCodeAllocator tripCodeAllocator;
+    private final BalanceService balanceService;
+    private final FxRateService fxRateService;
+    private final TripEventService tripEventService;
+    private final ReplicaReadRepository replicaReads;
+    private final TripExpenseCache tripExpenseCache;
+    private final TripArchiveService tripArchiveService;
+    private final TripCodeLookup tripCodeLookup;
+    private final MongoTransactions mongoTransactions;
+
+    private static final int MAX_TRIP_CODE_ATTEMPTS = 5;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int SINGLE_FLIGHT_STRIPES = 16;
+
+    // A trip link shared in a group chat brings many identical reads at once;
+    // concurrent ones share a single lookup (results are read-only)
+    private final SingleFlight<String, Trip> tripsByCode = new SingleFlight<>(SINGLE_FLIGHT_STRIPES);
+    private final SingleFlight<String, TripSummaryDTO> tripSummaries = new SingleFlight<>(SINGLE_FLIGHT_STRIPES);
 
     public Trip createTrip(CreateTripRequest request) {
         // Validate creator exists
@@ -37,36 +57,52 @@ public class TripService {
         List<String> members = new ArrayList<>();
         members.add(request.getCreatedBy());
 
-        // Generate unique trip code (TUID)
-        String tripCode = generateUniqueTripCode();
+        String baseCurrency = request.getBaseCurrency() != null && !request.getBaseCurrency().isBlank()
+                ? request.getBaseCurrency().trim().toUpperCase()
+                : Trip.DEFAULT_CURRENCY;
+        if (!fxRateService.supports(baseCurrency)) {
+            throw new IllegalArgumentException("Unsupported currency: " + baseCurrency);
+        }
 
+        // Allocate unique trip code (TUID) - no database probing needed
         Trip trip = Trip.builder()
                 .id(UUID.randomUUID().toString())
                 .name(request.getName())
-                .tripCode(tripCode)
+                .tripCode(tripCodeAllocator.allocate())
                 .createdBy(request.getCreatedBy())
+                .baseCurrency(baseCurrency)
                 .members(members)
                 .build();
 
-        return tripRepository.save(trip);
+        Trip created = insertWithUniqueCode(trip);
+        balanceService.initializeTrip(created.getId());
+        tripCodeLookup.onTripCreated(created);
+        return created;
     }
 
-    private String generateUniqueTripCode() {
-        String tripCode;
-        int attempts = 0;
-        do {
-            tripCode = TripCodeGenerator.generate();
-            attempts++;
-            if (attempts > 10) {
-                throw new RuntimeException("Failed to generate unique trip code");
+    /**
+     * Allocated codes never repeat, so the unique index on tripCode only fires
+     * when a code matches one issued by the old random generator.
+     * In that case take the next allocated code and retry.
+     */
+    private Trip insertWithUniqueCode(Trip trip) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return tripRepository.insert(trip);
+            } catch (DuplicateKeyException e) {
+                if (attempt >= MAX_TRIP_CODE_ATTEMPTS) {
+                    throw new RuntimeException("Failed to generate unique trip code", e);
+                }
+                trip.setTripCode(tripCodeAllocator.allocate());
             }
-        } while (tripRepository.existsByTripCode(tripCode));
-        return tripCode;
+        }
     }
 
     public Trip getTripByCode(String tripCode) {
-        return tripRepository.findByTripCode(tripCode)
-                .orElseThrow(() -> new IllegalArgumentException("Trip not found with code: " + tripCode));
+        // Unknown codes, including mistyped and guessed ones, are mostly answered from memory
+        return tripsByCode.run(tripCode, () -> tripCodeLookup.tripIdFor(tripCode)
+                .flatMap(tripRepository::findById)
+                .orElseThrow(() -> new IllegalArgumentException("Trip not found with code: " + tripCode)));
     }
 
     public List<Trip> getTripsByUser(String userId) {
@@ -87,22 +123,46 @@ public class TripService {
         }
     }
 
-    public Trip addMemberToTrip(String tripId, String userId) {
-        Trip trip = tripRepository.findById(tripId)
-                .orElseThrow(() -> new IllegalArgumentException("Trip not found"));
+    /**
+     * Paged, projected trip list for the landing page.
+     * Returns name, code, status, creator and member count only - no members array.
+     * Optionally limited to one status (ACTIVE or COMPLETED).
+     */
+    public List<TripListItemDTO> getTripListForUser(String userId, String status, int page, int size) {
+        if (page < 0) {
+            throw new IllegalArgumentException("page must not be negative");
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        Trip.TripStatus tripStatus = null;
+        if (status != null && !status.isBlank()) {
+            try {
+                tripStatus = Trip.TripStatus.valueOf(status.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid status: " + status + ". Must be ACTIVE or COMPLETED");
+            }
+        }
+        return replicaReads.findTripListItems(userId, tripStatus, page, size);
+    }
 
+    public Trip addMemberToTrip(String tripId, String userId) {
         // Validate user exists
         if (!userRepository.existsById(userId)) {
             throw new IllegalArgumentException("User not found");
         }
 
-        // Check if user is already a member
-        if (trip.getMembers().contains(userId)) {
-            throw new IllegalArgumentException("User is already a member of this trip");
-        }
-
-        trip.getMembers().add(userId);
-        return tripRepository.save(trip);
+        // Atomic $addToSet - concurrent joins never overwrite each other;
+        // the member and the join event are stored together
+        return mongoTransactions.run(() -> {
+            Trip trip = tripRepository.addMember(tripId, userId)
+                    .orElseThrow(() -> tripRepository.existsById(tripId)
+                            ? new IllegalArgumentException("User is already a member of this trip")
+                            : new IllegalArgumentException("Trip not found"));
+
+            tripEventService.append(tripId, EventType.MEMBER_JOINED, userId, userId, new HashMap<>(), null);
+            return trip;
+        });
     }
 
     public Trip getTripById(String tripId) {
@@ -115,28 +175,33 @@ public class TripService {
      * Includes trip name, code, member count, and total expenses
      */
     public TripSummaryDTO getTripSummary(String tripId) {
-        Trip trip = tripRepository.findById(tripId)
+        return tripSummaries.run(tripId, () -> loadTripSummary(tripId));
+    }
+
+    private TripSummaryDTO loadTripSummary(String tripId) {
+        // Read from the replica; a trip too new to have replicated comes from the primary
+        Trip trip = replicaReads.findTrip(tripId)
+                .or(() -> tripRepository.findById(tripId))
                 .orElseThrow(() -> new IllegalArgumentException("Trip not found"));
 
-        // Fetch member names
+        // Fetch member names in one query
+        Map<String, String> names = replicaReads.findUserNames(trip.getMembers());
         List<String> memberNames = trip.getMembers().stream()
-                .map(userId -> {
-                    User user = userRepository.findById(userId).orElse(null);
-                    return user != null ? user.getName() : "Unknown";
-                })
+                .map(userId -> names.getOrDefault(userId, "Unknown"))
                 .collect(Collectors.toList());
 
-        // Calculate total expenses (amount stored in paise)
-        List<Expense> expenses = expenseRepository.findByTripId(tripId);
-        long totalAmount = expenses.stream()
-            .mapToLong(e -> Math.round(e.getAmount()))
-            .sum();
+        // Total expenses (paise/cents of the trip's base currency), summed over the cached
+        // columns, or kept in the archive once the trip is completed
+        long totalAmount = trip.getStatus() == Trip.TripStatus.COMPLETED
+                ? tripArchiveService.totalAmount(trip)
+                : tripExpenseCache.totalAmount(tripId);
 
         return TripSummaryDTO.builder()
                 .tripId(trip.getId())
                 .tripCode(trip.getTripCode())
                 .name(trip.getName())
                 .memberCount(trip.getMembers().size())
+                .currency(trip.getBaseCurrency())
                 .totalExpensesAmount(totalAmount)
                 .memberNames(memberNames)
                 .build();
@@ -144,16 +209,36 @@ public class TripService {
 
     /**
      * Update trip status (e.g., from ACTIVE to COMPLETED)
+     * A plain $set, so concurrent member adds never make it fail; setting the
+     * status the trip already has changes nothing.
+     * Completing a trip archives it (see TripArchiveService); reopening it
+     * restores the archived expenses before the trip accepts changes again.
+     * The status changes first, so no expense is written after archiving; if
+     * archiving then fails, the trip reads from its expenses as before and
+     * setting COMPLETED again retries the archive.
      */
     public Trip updateTripStatus(String tripId, String status) {
-        Trip trip = tripRepository.findById(tripId)
-                .orElseThrow(() -> new IllegalArgumentException("Trip not found"));
-
+        Trip.TripStatus newStatus;
         try {
-            trip.setStatus(Trip.TripStatus.valueOf(status.toUpperCase()));
-            return tripRepository.save(trip);
+            newStatus = Trip.TripStatus.valueOf(status.toUpperCase());
         } catch (IllegalArgumentException e) {
             throw new IllegalArgumentException("Invalid status: " + status + ". Must be ACTIVE or COMPLETED");
         }
+
+        Trip trip = getTripById(tripId);
+        if (newStatus == Trip.TripStatus.ACTIVE) {
+            tripArchiveService.restore(trip);
+        }
+        Trip updated = tripRepository.updateStatus(tripId, newStatus).orElse(null);
+        if (updated == null) {
+            updated = getTripById(tripId); // Already in this status
+            if (newStatus != Trip.TripStatus.COMPLETED || tripArchiveService.isArchived(updated)) {
+                return updated;
+            }
+        }
+        if (newStatus == Trip.TripStatus.COMPLETED) {
+            balanceService.archiveTrip(updated);
+        }
+        return updated;
     }
 }
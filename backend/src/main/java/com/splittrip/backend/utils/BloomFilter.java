@@ -0,0 +1,77 @@
+package com.splittrip.backend.utils;
+
+/**
+ * Fixed-size Bloom filter over strings: {@link #mightContain} never misses
+ * an added string, and wrongly reports other strings at about the false
+ * positive rate it was sized for. Bit positions come from double hashing
+ * (h1 + i * h2) of one 64-bit hash. Not thread-safe while being filled;
+ * safe to read from many threads once published.
+ */
+public final class BloomFilter {
+
+    private final long[] words;
+    private final long bitCount;
+    private final int hashes;
+
+    private BloomFilter(long bitCount, int hashes) {
+        this.words = new long[(int) ((bitCount + 63) >>> 6)];
+        this.bitCount = (long) words.length << 6;
+        this.hashes = hashes;
+    }
+
+    /**
+     * A filter for up to {@code expected} strings at the given false positive rate.
+     */
+    public static BloomFilter forExpected(int expected, double falsePositiveRate) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("falsePositiveRate must be between 0 and 1");
+        }
+        int n = Math.max(1, expected);
+        double ln2 = Math.log(2);
+        long bits = Math.max(64, (long) Math.ceil(-n * Math.log(falsePositiveRate) / (ln2 * ln2)));
+        int hashes = Math.max(1, (int) Math.round((double) bits / n * ln2));
+        return new BloomFilter(bits, hashes);
+    }
+
+    public void add(String value) {
+        long hash = hash(value);
+        long step = step(hash);
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(hash + i * step, bitCount);
+            words[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    public boolean mightContain(String value) {
+        long hash = hash(value);
+        long step = step(hash);
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(hash + i * step, bitCount);
+            if ((words[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long sizeBytes() {
+        return 8L * words.length;
+    }
+
+    // FNV-1a over the UTF-16 chars
+    private static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    // Second hash, derived from the first with the SplitMix64 finalizer
+    private static long step(long hash) {
+        long z = (hash ^ (hash >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return (z ^ (z >>> 31)) | 1L;
+    }
+}
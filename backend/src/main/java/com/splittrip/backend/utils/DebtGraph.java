@@ -0,0 +1,186 @@
+package com.splittrip.backend.utils;
+
+import java.util.Arrays;
+
+/**
+ * Debts between people (dense int ids), reduced to a short list of
+ * transfers that settles all of them.
+ *
+ * Only each person's net position is kept: a debt is subtracted from the
+ * debtor and added to the creditor as it is recorded, which collapses every
+ * cycle. Positions are settled exact matches first; the rest are paired off
+ * in one sweep down the debts and credits sorted by amount, each transfer
+ * going from the largest debt still open to the largest credit still open
+ * in that order (amounts are ranked once, not after every transfer). Each
+ * transfer closes at least one position, so there are at most (people with
+ * a non-zero position - 1) of them. The true minimum means finding zero-sum
+ * subsets, which is NP-hard.
+ */
+public final class DebtGraph {
+
+    private final long[] net;
+
+    public DebtGraph(int size) {
+        this.net = new long[size];
+    }
+
+    public int size() {
+        return net.length;
+    }
+
+    /**
+     * Record that {@code debtor} owes {@code creditor}. Zero amounts and
+     * self-debts are ignored; a negative amount is a debt the other way.
+     */
+    public void addDebt(int debtor, int creditor, long amount) {
+        if (debtor < 0 || debtor >= net.length || creditor < 0 || creditor >= net.length) {
+            throw new IndexOutOfBoundsException("Node out of range: " + debtor + " -> " + creditor);
+        }
+        if (debtor == creditor) {
+            return;
+        }
+        net[debtor] = Math.subtractExact(net[debtor], amount);
+        net[creditor] = Math.addExact(net[creditor], amount);
+    }
+
+    /**
+     * Net paise per node: positive = is owed, negative = owes. Sums to zero.
+     */
+    public long[] netPositions() {
+        return net.clone();
+    }
+
+    /**
+     * Transfers that settle every net position.
+     */
+    public Plan simplify() {
+        return settle(netPositions());
+    }
+
+    static Plan settle(long[] net) {
+        int n = net.length;
+        int debtorCount = 0;
+        for (long position : net) {
+            if (position < 0) {
+                debtorCount++;
+            }
+        }
+
+        // Sort by amount, keeping the node in the low digits: amount * n + node
+        long[] debts = new long[debtorCount];
+        long[] credits = new long[n - debtorCount];
+        int d = 0;
+        int c = 0;
+        for (int node = 0; node < n; node++) {
+            if (net[node] < 0) {
+                debts[d++] = Math.addExact(Math.multiplyExact(-net[node], (long) n), node);
+            } else if (net[node] > 0) {
+                credits[c++] = Math.addExact(Math.multiplyExact(net[node], (long) n), node);
+            }
+        }
+        credits = Arrays.copyOf(credits, c);
+        Arrays.sort(debts);
+        Arrays.sort(credits);
+
+        Plan.Builder plan = new Plan.Builder(Math.max(0, d + c - 1));
+        long[] debtLeft = new long[d];
+        long[] creditLeft = new long[c];
+        for (int i = 0; i < d; i++) {
+            debtLeft[i] = debts[i] / n;
+        }
+        for (int j = 0; j < c; j++) {
+            creditLeft[j] = credits[j] / n;
+        }
+
+        // Equal amounts settle each other in one transfer
+        for (int i = 0, j = 0; i < d && j < c;) {
+            if (debtLeft[i] == creditLeft[j]) {
+                plan.add((int) (debts[i] % n), (int) (credits[j] % n), debtLeft[i]);
+                debtLeft[i++] = 0;
+                creditLeft[j++] = 0;
+            } else if (debtLeft[i] < creditLeft[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+
+        // Sweep both lists from the largest amount down: the debt at i pays
+        // the credit at j until one of them is closed
+        for (int i = d - 1, j = c - 1; i >= 0 && j >= 0;) {
+            if (debtLeft[i] == 0) {
+                i--;
+            } else if (creditLeft[j] == 0) {
+                j--;
+            } else {
+                long amount = Math.min(debtLeft[i], creditLeft[j]);
+                plan.add((int) (debts[i] % n), (int) (credits[j] % n), amount);
+                debtLeft[i] -= amount;
+                creditLeft[j] -= amount;
+            }
+        }
+        return plan.build();
+    }
+
+    /**
+     * Transfers as parallel primitive arrays: {@code from(i)} pays
+     * {@code to(i)} {@code amount(i)} paise.
+     */
+    public static final class Plan {
+        private final int[] from;
+        private final int[] to;
+        private final long[] amounts;
+
+        private Plan(int[] from, int[] to, long[] amounts) {
+            this.from = from;
+            this.to = to;
+            this.amounts = amounts;
+        }
+
+        public int size() {
+            return from.length;
+        }
+
+        public int from(int i) {
+            return from[i];
+        }
+
+        public int to(int i) {
+            return to[i];
+        }
+
+        public long amount(int i) {
+            return amounts[i];
+        }
+
+        private static final class Builder {
+            private int[] from;
+            private int[] to;
+            private long[] amounts;
+            private int size;
+
+            Builder(int capacity) {
+                from = new int[capacity];
+                to = new int[capacity];
+                amounts = new long[capacity];
+            }
+
+            void add(int payer, int payee, long amount) {
+                if (size == from.length) {
+                    int grown = Math.max(4, size * 2);
+                    from = Arrays.copyOf(from, grown);
+                    to = Arrays.copyOf(to, grown);
+                    amounts = Arrays.copyOf(amounts, grown);
+                }
+                from[size] = payer;
+                to[size] = payee;
+                amounts[size] = amount;
+                size++;
+            }
+
+            Plan build() {
+                return new Plan(Arrays.copyOf(from, size), Arrays.copyOf(to, size), Arrays.copyOf(amounts, size));
+            }
+        }
+    }
+}
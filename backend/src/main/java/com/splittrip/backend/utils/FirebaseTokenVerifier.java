@@ -4,6 +4,7 @@ import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseAuthException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Component;
 
 import java.util.Map;
@@ -14,7 +15,7 @@ import java.util.Map;
  * Verifies Firebase ID tokens from the frontend and extracts user claims.
  * 
  * Assumes:
- * - FirebaseAuth is initialized by FirebaseConfig at application startup
+ * - FirebaseAuth is initialized by FirebaseConfig on the first verification (lazy bean)
  * - Tokens are always present (caller validates Authorization header)
  * - Only responsibility is token verification and claim extraction
  * 
@@ -29,7 +30,7 @@ import java.util.Map;
 @Slf4j
 public class FirebaseTokenVerifier {
 
-    private final FirebaseAuth firebaseAuth;
+    private final ObjectProvider<FirebaseAuth> firebaseAuth;
 
     /**
      * Verify Firebase ID token and extract claims.
@@ -40,7 +41,7 @@ public class FirebaseTokenVerifier {
      */
     public Map<String, Object> verifyToken(String idToken) {
         try {
-            var decodedToken = firebaseAuth.verifyIdToken(idToken);
+            var decodedToken = firebaseAuth.getObject().verifyIdToken(idToken);
             var claims = decodedToken.getClaims();
             
             String uid = decodedToken.getUid();
@@ -0,0 +1,140 @@
+package com.splittrip.backend.utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable, date-indexed FX rate snapshot.
+ * 
+ * Rates are held as units of each currency per 1 USD in a
+ * [currency][day] array, forward-filled so every day after a currency's
+ * first quote has a value. A conversion is a binary search over the
+ * quote days plus two array reads - no I/O.
+ * 
+ * Source format (CSV, '#' comments allowed):
+ *   date,currency,unitsPerUsd
+ *   2025-01-01,INR,85.6
+ */
+public final class FxRateTable {
+
+    private final Map<String, Integer> currencyIndex;
+    private final int[] epochDays;        // sorted quote days
+    private final double[][] unitsPerUsd; // [currency][day index], NaN before first quote
+
+    private FxRateTable(Map<String, Integer> currencyIndex, int[] epochDays, double[][] unitsPerUsd) {
+        this.currencyIndex = currencyIndex;
+        this.epochDays = epochDays;
+        this.unitsPerUsd = unitsPerUsd;
+    }
+
+    public static FxRateTable parse(Reader source) throws IOException {
+        TreeMap<LocalDate, Map<String, Double>> quotes = new TreeMap<>();
+        Map<String, Integer> currencyIndex = new HashMap<>();
+
+        BufferedReader reader = new BufferedReader(source);
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#") || line.startsWith("date")) {
+                continue;
+            }
+
+            String[] parts = line.split(",");
+            if (parts.length != 3) {
+                throw new IOException("Bad FX rate line " + lineNumber + ": " + line);
+            }
+            try {
+                LocalDate date = LocalDate.parse(parts[0].trim());
+                String currency = parts[1].trim().toUpperCase();
+                double rate = Double.parseDouble(parts[2].trim());
+                if (!(rate > 0)) {
+                    throw new IOException("FX rate must be positive on line " + lineNumber);
+                }
+
+                quotes.computeIfAbsent(date, d -> new HashMap<>()).put(currency, rate);
+                currencyIndex.putIfAbsent(currency, currencyIndex.size());
+            } catch (RuntimeException e) {
+                throw new IOException("Bad FX rate line " + lineNumber + ": " + line, e);
+            }
+        }
+
+        int[] epochDays = new int[quotes.size()];
+        double[][] unitsPerUsd = new double[currencyIndex.size()][quotes.size()];
+        for (double[] row : unitsPerUsd) {
+            Arrays.fill(row, Double.NaN);
+        }
+
+        int day = 0;
+        for (Map.Entry<LocalDate, Map<String, Double>> entry : quotes.entrySet()) {
+            epochDays[day] = (int) entry.getKey().toEpochDay();
+            for (Map.Entry<String, Integer> currency : currencyIndex.entrySet()) {
+                Double rate = entry.getValue().get(currency.getKey());
+                double[] row = unitsPerUsd[currency.getValue()];
+                // Forward-fill days with no quote from the previous day
+                row[day] = rate != null ? rate : (day > 0 ? row[day - 1] : Double.NaN);
+            }
+            day++;
+        }
+
+        return new FxRateTable(Map.copyOf(currencyIndex), epochDays, unitsPerUsd);
+    }
+
+    /**
+     * Multiplier converting an amount in {@code from} to {@code to},
+     * using the latest quotes on or before {@code date}. Dates before the
+     * first quote use the first quote.
+     */
+    public double rate(String from, String to, LocalDate date) {
+        if (from.equals(to)) {
+            return 1.0;
+        }
+
+        int day = dayIndex(date);
+        double fromRate = unitsPerUsd[indexOf(from)][day];
+        double toRate = unitsPerUsd[indexOf(to)][day];
+        if (Double.isNaN(fromRate) || Double.isNaN(toRate)) {
+            throw new IllegalArgumentException("No FX rate for " + from + "/" + to + " on " + date);
+        }
+        return toRate / fromRate;
+    }
+
+    public boolean supports(String currency) {
+        return currencyIndex.containsKey(currency);
+    }
+
+    public int currencyCount() {
+        return currencyIndex.size();
+    }
+
+    public LocalDate latestDate() {
+        return epochDays.length == 0 ? null : LocalDate.ofEpochDay(epochDays[epochDays.length - 1]);
+    }
+
+    private int indexOf(String currency) {
+        Integer index = currencyIndex.get(currency);
+        if (index == null) {
+            throw new IllegalArgumentException("Unsupported currency: " + currency);
+        }
+        return index;
+    }
+
+    private int dayIndex(LocalDate date) {
+        if (epochDays.length == 0) {
+            throw new IllegalArgumentException("No FX rates loaded");
+        }
+        int position = Arrays.binarySearch(epochDays, (int) date.toEpochDay());
+        if (position >= 0) {
+            return position;
+        }
+        int insertionPoint = -position - 1;
+        return Math.max(insertionPoint - 1, 0);
+    }
+}
@@ -42,6 +42,10 @@ public class GoogleTokenVerifier {
     @Value("${app.google.client-secret:}")
     private String googleClientSecret;
 
+    // Thread-safe and reusable; built on first use. It caches Google's public
+    // keys between calls instead of fetching them for every token.
+    private volatile GoogleIdTokenVerifier idTokenVerifier;
+
     /**
      * Verify Google ID token and extract payload.
      * 
@@ -51,15 +55,8 @@ public class GoogleTokenVerifier {
      */
     public GoogleIdToken.Payload verifyToken(String idToken) {
         try {
-            // Create verifier with Google's public keys
-            GoogleIdTokenVerifier verifier = new GoogleIdTokenVerifier.Builder(
-                    new NetHttpTransport(),
-                    new GsonFactory())
-                    .setAudience(Collections.singletonList(googleClientId))
-                    .build();
-
             // Verify token signature and expiration
-            GoogleIdToken token = verifier.verify(idToken);
+            GoogleIdToken token = idTokenVerifier().verify(idToken);
 
             if (token == null) {
                 log.warn("Invalid Google ID token: signature verification failed");
@@ -86,6 +83,22 @@ public class GoogleTokenVerifier {
         }
     }
 
+    private GoogleIdTokenVerifier idTokenVerifier() {
+        GoogleIdTokenVerifier verifier = idTokenVerifier;
+        if (verifier == null) {
+            synchronized (this) {
+                verifier = idTokenVerifier;
+                if (verifier == null) {
+                    verifier = new GoogleIdTokenVerifier.Builder(HttpTransportHolder.INSTANCE, GsonFactory.getDefaultInstance())
+                            .setAudience(Collections.singletonList(googleClientId))
+                            .build();
+                    idTokenVerifier = verifier;
+                }
+            }
+        }
+        return verifier;
+    }
+
     /**
      * Extract user info from verified token payload.
      * 
@@ -126,8 +139,8 @@ public class GoogleTokenVerifier {
 
             // Exchange authorization code for access token and ID token
             GoogleTokenResponse tokenResponse = new GoogleAuthorizationCodeTokenRequest(
-                    new NetHttpTransport(),
-                    new GsonFactory(),
+                    HttpTransportHolder.INSTANCE,
+                    GsonFactory.getDefaultInstance(),
                     "https://oauth2.googleapis.com/token",
                     googleClientId,
                     googleClientSecret,
@@ -167,6 +180,11 @@ public class GoogleTokenVerifier {
         }
     }
 
+    // Loaded on first Google sign-in rather than at startup, like the verifier
+    private static final class HttpTransportHolder {
+        static final NetHttpTransport INSTANCE = new NetHttpTransport();
+    }
+
     /**
      * Container for extracted Google user info.
      */
@@ -0,0 +1,89 @@
+package com.splittrip.backend.utils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key: the first caller runs the
+ * loader, and callers arriving while it runs wait for and share its result
+ * (or its exception) instead of repeating the work. Nothing is cached; the
+ * key is forgotten as soon as the loader finishes, so a call that starts
+ * afterwards runs the loader again.
+ *
+ * In-flight calls live in a power-of-two number of ConcurrentHashMaps
+ * chosen by key hash, so unrelated keys rarely touch the same map. Joining
+ * is a single putIfAbsent; only the waiting itself blocks.
+ *
+ * Shared results must be treated as read-only by callers.
+ */
+public final class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>>[] stripes;
+    private final int mask;
+
+    @SuppressWarnings("unchecked")
+    public SingleFlight(int stripes) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("stripes must be positive");
+        }
+        int count = stripes == 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.stripes = new ConcurrentHashMap[count];
+        for (int i = 0; i < count; i++) {
+            this.stripes[i] = new ConcurrentHashMap<>();
+        }
+        this.mask = count - 1;
+    }
+
+    /**
+     * The loader's result for {@code key}, shared with every concurrent call for the same key.
+     */
+    public V run(K key, Supplier<V> loader) {
+        ConcurrentHashMap<K, CompletableFuture<V>> inFlight = stripe(key);
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> leader = inFlight.putIfAbsent(key, mine);
+        if (leader != null) {
+            return await(leader);
+        }
+
+        try {
+            V value = loader.get();
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    int inFlight() {
+        int count = 0;
+        for (ConcurrentHashMap<K, CompletableFuture<V>> stripe : stripes) {
+            count += stripe.size();
+        }
+        return count;
+    }
+
+    private ConcurrentHashMap<K, CompletableFuture<V>> stripe(K key) {
+        int h = key.hashCode();
+        return stripes[(h ^ (h >>> 16)) & mask];
+    }
+
+    private static <V> V await(CompletableFuture<V> leader) {
+        try {
+            return leader.join();
+        } catch (CompletionException e) {
+            // Rethrow the leader's exception as is, so callers handle it the same way
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
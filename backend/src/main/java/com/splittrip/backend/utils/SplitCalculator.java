@@ -0,0 +1,98 @@
+package com.splittrip.backend.utils;
+
+import java.math.BigInteger;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Splits an amount (paise) across members by weight, exactly.
+ * 
+ * Each member first gets floor(amount * weight / totalWeight); the paise
+ * left over go one each to the members with the largest remainders
+ * (ties go to the earlier member). The shares always sum to the amount.
+ * 
+ * Works on caller-supplied primitive arrays so the balance loop can reuse
+ * buffers instead of allocating per expense or per split member.
+ */
+public final class SplitCalculator {
+
+    private SplitCalculator() {
+    }
+
+    /**
+     * Equal split when {@code weights} is null, weighted split otherwise.
+     * Writes shares into {@code out[0..n)}; {@code scratch} must hold n values.
+     */
+    public static void allocate(long amount, long[] weights, int n, long[] out, long[] scratch) {
+        if (n == 0) {
+            return;
+        }
+        if (weights == null) {
+            long share = amount / n;
+            long remainder = amount % n;
+            for (int i = 0; i < n; i++) {
+                out[i] = share + (i < remainder ? 1 : 0);
+            }
+            return;
+        }
+
+        long totalWeight = 0;
+        for (int i = 0; i < n; i++) {
+            totalWeight += weights[i];
+        }
+        if (totalWeight <= 0) {
+            throw new IllegalArgumentException("Split weights must add up to more than zero");
+        }
+
+        long allocated = 0;
+        for (int i = 0; i < n; i++) {
+            long product;
+            try {
+                product = Math.multiplyExact(amount, weights[i]);
+                out[i] = product / totalWeight;
+                scratch[i] = product % totalWeight;
+            } catch (ArithmeticException overflow) {
+                BigInteger[] division = BigInteger.valueOf(amount).multiply(BigInteger.valueOf(weights[i]))
+                        .divideAndRemainder(BigInteger.valueOf(totalWeight));
+                out[i] = division[0].longValue();
+                scratch[i] = division[1].longValue();
+            }
+            allocated += out[i];
+        }
+
+        // Largest remainder: hand out the leftover paise one at a time
+        for (long leftover = amount - allocated; leftover > 0; leftover--) {
+            int best = 0;
+            for (int i = 1; i < n; i++) {
+                if (scratch[i] > scratch[best]) {
+                    best = i;
+                }
+            }
+            out[best]++;
+            scratch[best] = -1;
+        }
+    }
+
+    /**
+     * Reject a split that names a member more than once: the member would be
+     * debited twice while the weights line up with the wrong people.
+     */
+    public static void requireDistinct(List<String> members) {
+        Set<String> seen = new HashSet<>();
+        for (String memberId : members) {
+            if (!seen.add(memberId)) {
+                throw new IllegalArgumentException("Member listed more than once in splitBetween: " + memberId);
+            }
+        }
+    }
+
+    /**
+     * Convenience form that allocates its own arrays.
+     */
+    public static long[] allocate(long amount, long[] weights, int n) {
+        long[] out = new long[n];
+        allocate(amount, weights, n, out, new long[n]);
+        return out;
+    }
+}
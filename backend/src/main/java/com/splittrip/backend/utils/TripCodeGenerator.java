@@ -6,6 +6,9 @@ public class TripCodeGenerator {
 
     private static final String CHARACTERS = "ABCDEFGHJKLMNPQRSTUVWXYZ23456789";
     private static final int CODE_LENGTH = 6;
+    private static final int MAX_CODE_LENGTH = 12; // 12 * 5 bits = 60 bits, fits in a long
+    private static final int BITS_PER_CHAR = 5;    // 32 characters
+    private static final int FEISTEL_ROUNDS = 4;
     private static final SecureRandom random = new SecureRandom();
 
     /**
@@ -29,4 +32,124 @@ public class TripCodeGenerator {
     public static String generateWithPrefix(String prefix) {
         return prefix + generate();
     }
+
+    /**
+     * Maps a counter value to a trip code, one-to-one.
+     * 
+     * Indexes [0, 32^6) become 6-character codes, the next 32^7 become
+     * 7-character codes, and so on, so the code length grows on its own
+     * as the space fills. Within each length the index is scrambled with
+     * a keyed Feistel permutation, so consecutive indexes give unrelated
+     * codes. Distinct indexes always give distinct codes for the same key.
+     */
+    public static String fromIndex(long index, long key) {
+        if (index < 0) {
+            throw new IllegalArgumentException("Trip code index must not be negative");
+        }
+
+        int length = CODE_LENGTH;
+        while (index >= spaceSize(length)) {
+            index -= spaceSize(length);
+            length++;
+            if (length > MAX_CODE_LENGTH) {
+                throw new IllegalArgumentException("Trip code index out of range");
+            }
+        }
+
+        return encode(permute(index, length * BITS_PER_CHAR, key), length);
+    }
+
+    /**
+     * Inverse of {@link #fromIndex}: the index that gives {@code code} under
+     * {@code key}, or -1 if no index can (wrong length or characters).
+     */
+    public static long indexOf(String code, long key) {
+        int length = code.length();
+        if (length < CODE_LENGTH || length > MAX_CODE_LENGTH) {
+            return -1;
+        }
+
+        long value = 0;
+        for (int i = 0; i < length; i++) {
+            int digit = CHARACTERS.indexOf(code.charAt(i));
+            if (digit < 0) {
+                return -1;
+            }
+            value = (value << BITS_PER_CHAR) | digit;
+        }
+
+        long index = unpermute(value, length * BITS_PER_CHAR, key);
+        for (int shorter = CODE_LENGTH; shorter < length; shorter++) {
+            index += spaceSize(shorter);
+        }
+        return index;
+    }
+
+    private static long spaceSize(int length) {
+        return 1L << (length * BITS_PER_CHAR);
+    }
+
+    /**
+     * Permutes [0, 2^bits). The Feistel network works on an even number of
+     * bits, so odd widths cycle-walk: re-apply until the value falls back in range.
+     */
+    private static long permute(long value, int bits, long key) {
+        int halfBits = (bits + 1) / 2;
+        long limit = 1L << bits;
+        do {
+            value = feistel(value, halfBits, key);
+        } while (value >= limit);
+        return value;
+    }
+
+    // Walks the same cycle backwards
+    private static long unpermute(long value, int bits, long key) {
+        int halfBits = (bits + 1) / 2;
+        long limit = 1L << bits;
+        do {
+            value = inverseFeistel(value, halfBits, key);
+        } while (value >= limit);
+        return value;
+    }
+
+    private static long feistel(long value, int halfBits, long key) {
+        long mask = (1L << halfBits) - 1;
+        long left = value >>> halfBits;
+        long right = value & mask;
+        for (int round = 0; round < FEISTEL_ROUNDS; round++) {
+            long next = left ^ (roundFunction(right, round, key) & mask);
+            left = right;
+            right = next;
+        }
+        return (left << halfBits) | right;
+    }
+
+    private static long inverseFeistel(long value, int halfBits, long key) {
+        long mask = (1L << halfBits) - 1;
+        long left = value >>> halfBits;
+        long right = value & mask;
+        for (int round = FEISTEL_ROUNDS - 1; round >= 0; round--) {
+            long previous = right ^ (roundFunction(left, round, key) & mask);
+            right = left;
+            left = previous;
+        }
+        return (left << halfBits) | right;
+    }
+
+    // SplitMix64 finalizer over the half block mixed with the round key
+    private static long roundFunction(long half, int round, long key) {
+        long z = half + key + (round + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static String encode(long value, int length) {
+        char[] code = new char[length];
+        for (int i = length - 1; i >= 0; i--) {
+            code[i] = CHARACTERS.charAt((int) (value & (CHARACTERS.length() - 1)));
+            value >>>= BITS_PER_CHAR;
+        }
+        return new String(code);
+    }
 }
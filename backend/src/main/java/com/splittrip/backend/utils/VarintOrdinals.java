@@ -0,0 +1,52 @@
+package com.splittrip.backend.utils;
+
+import java.util.Arrays;
+
+/**
+ * Packs small non-negative ints (member ordinals) as unsigned LEB128
+ * varints: 7 bits per byte, high bit set on every byte but the last.
+ * Ordinals below 128 take one byte. Order is preserved.
+ */
+public final class VarintOrdinals {
+
+    private VarintOrdinals() {
+    }
+
+    public static byte[] encode(int[] ordinals) {
+        byte[] out = new byte[ordinals.length * 5];
+        int pos = 0;
+        for (int ordinal : ordinals) {
+            if (ordinal < 0) {
+                throw new IllegalArgumentException("Negative ordinal: " + ordinal);
+            }
+            int value = ordinal;
+            while ((value & ~0x7F) != 0) {
+                out[pos++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            out[pos++] = (byte) value;
+        }
+        return Arrays.copyOf(out, pos);
+    }
+
+    public static int[] decode(byte[] packed) {
+        int[] out = new int[packed.length];
+        int count = 0;
+        int value = 0;
+        int shift = 0;
+        for (byte b : packed) {
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                out[count++] = value;
+                value = 0;
+                shift = 0;
+            } else {
+                shift += 7;
+            }
+        }
+        if (shift != 0) {
+            throw new IllegalArgumentException("Truncated varint");
+        }
+        return Arrays.copyOf(out, count);
+    }
+}
@@ -0,0 +1,42 @@
+package com.splittrip.backend.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.PropertyNamingStrategies;
+import tools.jackson.databind.cfg.DateTimeFeature;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+class BinaryFormatsConfigTest {
+
+    record Sample(String tripName, String note, LocalDate startDate) {
+    }
+
+    @Test
+    void smileMapperFollowsTheJsonMapperSettings() {
+        JsonMapper json = JsonMapper.builder()
+                .changeDefaultPropertyInclusion(inclusion -> inclusion.withValueInclusion(JsonInclude.Include.NON_NULL))
+                .propertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+                .enable(DateTimeFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build();
+        SmileMapper smile = BinaryFormatsConfig.smileMapper(json);
+
+        Sample sample = new Sample("Goa", null, LocalDate.of(2026, 1, 2));
+        Map<?, ?> fromSmile = smile.readValue(smile.writeValueAsBytes(sample), Map.class);
+        Map<?, ?> fromJson = json.readValue(json.writeValueAsBytes(sample), Map.class);
+
+        assertEquals(fromJson, fromSmile);
+        assertFalse(fromSmile.containsKey("note"));
+        assertFalse(smile.isEnabled(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES));
+    }
+}
@@ -0,0 +1,50 @@
+package com.splittrip.backend.config;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import com.splittrip.backend.dto.BalanceSummary;
+import com.splittrip.backend.model.Sequence;
+import com.splittrip.backend.model.Trip;
+
+class NativeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    NativeHintsTest() {
+        new NativeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void documentsAreReflectivelyMappable() {
+        for (Class<?> document : NativeHints.DOCUMENTS) {
+            assertTrue(RuntimeHintsPredicates.reflection().onType(document)
+                    .withMemberCategories(MemberCategory.ACCESS_DECLARED_FIELDS,
+                            MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)
+                    .test(hints), document.getSimpleName());
+        }
+        // Only reached through MongoTemplate, so AOT alone would miss it
+        assertTrue(RuntimeHintsPredicates.reflection().onType(Sequence.class).test(hints));
+    }
+
+    @Test
+    void responsesAndGoogleJsonTypesAreRegistered() throws Exception {
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onMethodInvocation(BalanceSummary.BalanceInstruction.class.getMethod("getToUserName")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onMethodInvocation(Trip.class.getMethod("getMembers")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(Class.forName("com.google.api.client.googleapis.auth.oauth2.GoogleIdToken$Payload"))
+                .test(hints));
+    }
+
+    @Test
+    void bundledResourcesAreIncluded() {
+        assertTrue(RuntimeHintsPredicates.resource().forResource("fx-rates.csv").test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("admin_sdk.properties").test(hints));
+    }
+}
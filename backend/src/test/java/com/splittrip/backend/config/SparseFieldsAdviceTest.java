@@ -0,0 +1,119 @@
+package com.splittrip.backend.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.splittrip.backend.dto.ApiResponse;
+import com.splittrip.backend.dto.BalanceSummary;
+import com.splittrip.backend.dto.UserBalance;
+import com.splittrip.backend.model.Trip;
+
+import lombok.extern.slf4j.Slf4j;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.node.ObjectNode;
+
+@Slf4j
+class SparseFieldsAdviceTest {
+
+    private static final int MEMBERS = 30;
+
+    private final JsonMapper mapper = JsonMapper.builder().build();
+
+    @Test
+    void parsesCommaSeparatedNames() {
+        assertEquals(Set.of("name", "tripCode"), SparseFieldsAdvice.parse(" name, tripCode,,"));
+        assertTrue(SparseFieldsAdvice.parse(null).isEmpty());
+        assertTrue(SparseFieldsAdvice.parse(" ").isEmpty());
+    }
+
+    @Test
+    void keepsOnlySelectedTopLevelFields() {
+        JsonNode trip = SparseFieldsAdvice.select(mapper, trip(), Set.of("name", "tripCode", "unknown"));
+        assertEquals(Set.of("name", "tripCode"), Set.copyOf(trip.propertyNames()));
+
+        JsonNode balances = SparseFieldsAdvice.select(mapper, summary().getRawBalances(), Set.of("userId", "balance"));
+        assertEquals(MEMBERS, balances.size());
+        balances.forEach(balance -> assertFalse(balance.has("userName")));
+    }
+
+    @Test
+    void reportsBytesPerRequest() throws IOException {
+        BalanceSummary summary = summary();
+        JsonNode previous = mapper.valueToTree(summary);
+        // The prose message each instruction used to carry
+        previous.get("instructions").forEach(instruction -> ((ObjectNode) instruction).put("message",
+                instruction.get("fromUserName").asString() + " has to pay ₹1250.00 to "
+                        + instruction.get("toUserName").asString()));
+
+        byte[] before = bytes(previous);
+        byte[] full = bytes(summary);
+        byte[] dashboard = bytes(SparseFieldsAdvice.select(mapper, summary, Set.of("currency", "instructions")));
+        byte[] tripBefore = bytes(trip());
+        byte[] tripHeader = bytes(SparseFieldsAdvice.select(mapper, trip(), Set.of("id", "name", "tripCode", "status")));
+
+        log.info("[bytes] balance-summary, {} members: before={}B (gzip {}B) now={}B (gzip {}B)"
+                        + " fields=currency,instructions {}B (gzip {}B)",
+                MEMBERS, before.length, gzip(before), full.length, gzip(full), dashboard.length, gzip(dashboard));
+        log.info("[bytes] trip, {} members: full={}B (gzip {}B) fields=id,name,tripCode,status {}B",
+                MEMBERS, tripBefore.length, gzip(tripBefore), tripHeader.length);
+
+        assertTrue(full.length < before.length);
+        assertTrue(gzip(dashboard) * 3 < before.length);
+        assertTrue(tripHeader.length * 4 < tripBefore.length);
+    }
+
+    private byte[] bytes(Object data) {
+        return mapper.writeValueAsBytes(ApiResponse.success(data));
+    }
+
+    private static int gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.size();
+    }
+
+    private static Trip trip() {
+        List<String> members = new ArrayList<>();
+        for (int i = 0; i < MEMBERS; i++) {
+            members.add(UUID.randomUUID().toString());
+        }
+        return Trip.builder()
+                .id(UUID.randomUUID().toString())
+                .name("Goa")
+                .tripCode("TRP4K9Q2")
+                .createdBy(members.get(0))
+                .members(members)
+                .status(Trip.TripStatus.ACTIVE)
+                .build();
+    }
+
+    // Everyone owes member 0
+    private static BalanceSummary summary() {
+        List<UserBalance> balances = new ArrayList<>();
+        for (int i = 0; i < MEMBERS; i++) {
+            balances.add(new UserBalance(UUID.randomUUID().toString(), "Member " + i,
+                    i == 0 ? 1250.0 * (MEMBERS - 1) : -1250.0));
+        }
+        List<BalanceSummary.BalanceInstruction> instructions = new ArrayList<>();
+        UserBalance payee = balances.get(0);
+        for (UserBalance debtor : balances.subList(1, MEMBERS)) {
+            instructions.add(new BalanceSummary.BalanceInstruction(debtor.getUserId(), debtor.getUserName(),
+                    payee.getUserId(), payee.getUserName(), 1250.0));
+        }
+        return new BalanceSummary(UUID.randomUUID().toString(), "Goa", "INR", balances, instructions);
+    }
+}
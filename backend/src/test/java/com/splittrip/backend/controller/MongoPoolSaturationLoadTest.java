@@ -0,0 +1,200 @@
+package com.splittrip.backend.controller;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.splittrip.backend.dto.CreateExpenseRequest;
+import com.splittrip.backend.dto.CreateTripRequest;
+import com.splittrip.backend.model.Trip;
+import com.splittrip.backend.service.ExpenseService;
+import com.splittrip.backend.service.TripService;
+import com.splittrip.backend.service.UserService;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Steps up concurrency on the main endpoints and reports, per step, throughput,
+ * latency and the Mongo pool's peak checked-out and waiting connections.
+ * The first step with waiters is where the pool saturates.
+ *
+ * Needs a running MongoDB (set MONGODB_URI) and the benchmark group
+ * (-Dgroups=benchmark -DexcludedGroups=). Tune with system properties:
+ *   -Dload.poolSize=10 -Dload.requests=400 -Dload.maxConcurrency=128
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@EnabledIfEnvironmentVariable(named = "MONGODB_URI", matches = ".+")
+@Tag("benchmark")
+@Slf4j
+class MongoPoolSaturationLoadTest {
+
+    private static final int POOL_SIZE = Integer.getInteger("load.poolSize", 10);
+    private static final int REQUESTS = Integer.getInteger("load.requests", 400);
+    private static final int MAX_CONCURRENCY = Integer.getInteger("load.maxConcurrency", 128);
+    private static final int MEMBERS = 8;
+    private static final int SEED_EXPENSES = 200;
+
+    @DynamicPropertySource
+    static void pool(DynamicPropertyRegistry registry) {
+        registry.add("app.mongo.pool.max-size", () -> POOL_SIZE);
+        registry.add("app.mongo.pool.max-wait-time", () -> "5s");
+    }
+
+    @Value("${local.server.port}")
+    private int port;
+
+    @Autowired
+    private TripService tripService;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    @Test
+    void reportWherePoolSaturates() throws Exception {
+        List<String> members = new ArrayList<>();
+        for (int i = 0; i < MEMBERS; i++) {
+            String userId = UUID.randomUUID().toString();
+            userService.getOrCreateByIdAndName(userId, "Member " + i);
+            members.add(userId);
+        }
+        Trip trip = tripService.createTrip(new CreateTripRequest("Load trip", members.get(0), "Member 0", null));
+        for (int i = 1; i < MEMBERS; i++) {
+            tripService.addMemberToTrip(trip.getId(), members.get(i));
+        }
+        for (int i = 0; i < SEED_EXPENSES; i++) {
+            expenseService.createExpense(expense(trip.getId(), members.get(i % MEMBERS), members));
+        }
+
+        String base = "http://localhost:" + port;
+        String expenseJson = "{\"tripId\":\"" + trip.getId() + "\",\"paidBy\":\"" + members.get(0)
+                + "\",\"amount\":1000,\"description\":\"Load\",\"splitBetween\":[\"" + members.get(1)
+                + "\",\"" + members.get(2) + "\"]}";
+
+        log.info("[load] pool max-size={}, {} requests per step", POOL_SIZE, REQUESTS);
+        runEndpoint("balances", () -> get(base + "/trips/" + trip.getId() + "/balances"));
+        runEndpoint("summary", () -> get(base + "/trips/" + trip.getId() + "/summary"));
+        runEndpoint("trip list", () -> get(base + "/trips/user/" + members.get(0) + "/list"));
+        runEndpoint("create expense", () -> post(base + "/expenses", expenseJson));
+    }
+
+    private void runEndpoint(String label, Supplier<HttpRequest> request) throws Exception {
+        for (int concurrency = 4; concurrency <= MAX_CONCURRENCY; concurrency *= 2) {
+            runStep(label, concurrency, request);
+        }
+    }
+
+    private void runStep(String label, int concurrency, Supplier<HttpRequest> request) throws Exception {
+        long[] nanos = new long[REQUESTS];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        AtomicBoolean running = new AtomicBoolean(true);
+        int[] peak = new int[2]; // checked out, waiting
+
+        Thread sampler = new Thread(() -> {
+            while (running.get()) {
+                peak[0] = Math.max(peak[0], (int) busiestPool("mongodb.pool.checkedout"));
+                peak[1] = Math.max(peak[1], (int) busiestPool("mongodb.pool.waiting"));
+                Thread.onSpinWait();
+            }
+        });
+        sampler.start();
+
+        ExecutorService pool = Executors.newFixedThreadPool(concurrency);
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < concurrency; t++) {
+                workers.add(pool.submit(() -> {
+                    for (int i = next.getAndIncrement(); i < REQUESTS; i = next.getAndIncrement()) {
+                        long begin = System.nanoTime();
+                        try {
+                            if (http.send(request.get(), HttpResponse.BodyHandlers.discarding()).statusCode() >= 500) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        nanos[i] = System.nanoTime() - begin;
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            pool.shutdown();
+            running.set(false);
+            sampler.join();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        Arrays.sort(nanos);
+        log.info(String.format("[load] %-15s c=%-4d %7.0f req/s p50=%6.1fms p99=%7.1fms checkedout<=%-3d waiting<=%-4d errors=%d%s",
+                label, concurrency, REQUESTS / seconds, nanos[REQUESTS / 2] / 1e6,
+                nanos[(int) Math.ceil(REQUESTS * 0.99) - 1] / 1e6, peak[0], peak[1], errors.get(),
+                peak[1] > 0 ? "  <- saturated" : ""));
+
+        // The pool never hands out more than its configured size
+        assertTrue(peak[0] <= POOL_SIZE, "checked out " + peak[0] + " > pool size " + POOL_SIZE);
+    }
+
+    // Pools are per server, so report the busiest one
+    private double busiestPool(String gauge) {
+        return meterRegistry.find(gauge).gauges().stream().mapToDouble(Gauge::value).max().orElse(0);
+    }
+
+    private static HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).GET().build();
+    }
+
+    private static HttpRequest post(String url, String json) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private static CreateExpenseRequest expense(String tripId, String paidBy, List<String> members) {
+        CreateExpenseRequest request = new CreateExpenseRequest();
+        request.setTripId(tripId);
+        request.setPaidBy(paidBy);
+        request.setAmount(2500.0);
+        request.setDescription("Seed");
+        request.setSplitBetween(members);
+        return request;
+    }
+}
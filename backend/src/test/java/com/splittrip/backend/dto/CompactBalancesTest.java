@@ -0,0 +1,65 @@
+package com.splittrip.backend.dto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import lombok.extern.slf4j.Slf4j;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+@Slf4j
+class CompactBalancesTest {
+
+    private static final int MEMBERS = 30;
+
+    @Test
+    void transfersReferToMembersByIndex() {
+        BalanceSummary summary = summary(3);
+        CompactBalances compact = CompactBalances.of(summary);
+
+        assertEquals(3, compact.getMemberIds().size());
+        for (int i = 0; i < summary.getInstructions().size(); i++) {
+            BalanceSummary.BalanceInstruction instruction = summary.getInstructions().get(i);
+            CompactBalances.Transfer transfer = compact.getTransfers().get(i);
+            assertEquals(instruction.getFromUserId(), compact.getMemberIds().get(transfer.getFrom()));
+            assertEquals(instruction.getToUserName(), compact.getMemberNames().get(transfer.getTo()));
+            assertEquals(instruction.getAmount(), transfer.getAmount());
+        }
+        assertEquals(summary.getRawBalances().get(1).getBalance(), compact.getBalances().get(1));
+    }
+
+    @Test
+    void binaryPayloadIsMuchSmallerThanJson() {
+        BalanceSummary summary = summary(MEMBERS);
+        int json = JsonMapper.builder().build().writeValueAsBytes(ApiResponse.success(summary)).length;
+        int cbor = CBORMapper.builder().build().writeValueAsBytes(ApiResponse.success(CompactBalances.of(summary))).length;
+        int smile = SmileMapper.builder().build().writeValueAsBytes(ApiResponse.success(CompactBalances.of(summary))).length;
+
+        log.info("[payload] {} members: json={}B cbor={}B smile={}B", MEMBERS, json, cbor, smile);
+        assertTrue(cbor * 2 < json, "cbor " + cbor + "B vs json " + json + "B");
+        assertTrue(smile * 2 < json, "smile " + smile + "B vs json " + json + "B");
+    }
+
+    // Everyone owes member 0, like a trip where one person paid for everything
+    private static BalanceSummary summary(int members) {
+        List<UserBalance> balances = new ArrayList<>();
+        for (int i = 0; i < members; i++) {
+            balances.add(new UserBalance(UUID.randomUUID().toString(), "Member " + i,
+                    i == 0 ? 1250.0 * (members - 1) : -1250.0));
+        }
+        List<BalanceSummary.BalanceInstruction> instructions = new ArrayList<>();
+        UserBalance payee = balances.get(0);
+        for (UserBalance debtor : balances.subList(1, members)) {
+            instructions.add(new BalanceSummary.BalanceInstruction(debtor.getUserId(), debtor.getUserName(),
+                    payee.getUserId(), payee.getUserName(), 1250.0));
+        }
+        return new BalanceSummary(UUID.randomUUID().toString(), "Goa", "INR", balances, instructions);
+    }
+}
@@ -0,0 +1,129 @@
+package com.splittrip.backend.repository;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.splittrip.backend.model.Expense;
+import com.splittrip.backend.utils.VarintOrdinals;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+class CompactSplitsTest {
+
+    private static final int MEMBERS = 20;
+
+    private final List<String> members = new ArrayList<>();
+    private final TripMemberTable memberTable = new TripMemberTable(tripId -> members, 100);
+    private final CompactSplits compactSplits = new CompactSplits(memberTable);
+    private final MappingMongoConverter converter;
+
+    CompactSplitsTest() {
+        for (int i = 0; i < MEMBERS; i++) {
+            members.add(UUID.randomUUID().toString());
+        }
+        memberTable.put("trip", members);
+        ReflectionTestUtils.setField(compactSplits, "enabled", true);
+
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+    }
+
+    @Test
+    void varintsRoundTripInOrder() {
+        int[] ordinals = { 5, 0, 127, 128, 300, 16_383, 16_384, Integer.MAX_VALUE };
+        byte[] packed = VarintOrdinals.encode(ordinals);
+
+        assertArrayEquals(ordinals, VarintOrdinals.decode(packed));
+        assertEquals(1 + 1 + 1 + 2 + 2 + 2 + 3 + 5, packed.length);
+    }
+
+    @Test
+    void storedAsOrdinalsAndReadBackAsTheSameIds() {
+        // Reversed, so order must survive
+        List<String> split = new ArrayList<>(members);
+        Collections.reverse(split);
+        Expense expense = expense(split);
+
+        Document document = write(expense);
+        compactSplits.onBeforeSave(expense, document, "expenses");
+        assertFalse(document.containsKey(CompactSplits.SPLIT_BETWEEN));
+        assertTrue(document.containsKey(CompactSplits.SPLIT_ORDINALS));
+
+        Expense read = converter.read(Expense.class, document);
+        compactSplits.onAfterConvert(read, document, "expenses");
+        assertEquals(split, read.getSplitBetween());
+        // Every expense points at the table's strings instead of its own copies
+        assertSame(members.get(MEMBERS - 1), read.getSplitBetween().get(0));
+    }
+
+    @Test
+    void nonMembersAndDisabledModeKeepTheIdList() {
+        Document withStranger = write(expense(List.of(members.get(0), "not-a-member")));
+        compactSplits.onBeforeSave(expense(List.of(members.get(0), "not-a-member")), withStranger, "expenses");
+        assertTrue(withStranger.containsKey(CompactSplits.SPLIT_BETWEEN));
+
+        ReflectionTestUtils.setField(compactSplits, "enabled", false);
+        Document disabled = write(expense(members));
+        compactSplits.onBeforeSave(expense(members), disabled, "expenses");
+        assertFalse(disabled.containsKey(CompactSplits.SPLIT_ORDINALS));
+    }
+
+    @Test
+    void reportsStorageAndHeapSavings() {
+        Expense expense = expense(members);
+        Document full = write(expense);
+        int fullBytes = bsonBytes(full);
+        compactSplits.onBeforeSave(expense, full, "expenses");
+        int compactBytes = bsonBytes(full);
+
+        // Each decoded id list otherwise holds its own String copies (24 B header + 16 B array header + 36 B)
+        long heapPerExpense = MEMBERS * (24 + 16 + 36L);
+        log.info("[splits] {}-member expense: {} B stored -> {} B compact; ~{} B of id strings per"
+                + " loaded expense now shared per trip", MEMBERS, fullBytes, compactBytes, heapPerExpense);
+        assertTrue(fullBytes - compactBytes > MEMBERS * 36);
+    }
+
+    private Document write(Expense expense) {
+        Document document = new Document();
+        converter.write(expense, document);
+        return document;
+    }
+
+    private static int bsonBytes(Document document) {
+        return new RawBsonDocument(document, new DocumentCodec()).getByteBuffer().remaining();
+    }
+
+    private static Expense expense(List<String> split) {
+        return Expense.builder()
+                .id(UUID.randomUUID().toString())
+                .tripId("trip")
+                .paidBy(split.get(0))
+                .amount(12_000.0)
+                .description("Dinner")
+                .splitBetween(split)
+                .build();
+    }
+}
@@ -0,0 +1,37 @@
+package com.splittrip.backend.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import com.splittrip.backend.model.JoinRequest;
+
+class JoinRequestIndexesTest {
+
+    @Test
+    void onlyPendingRequestsAreUniquePerTripAndUser() {
+        MongoMappingContext context = new MongoMappingContext();
+        context.setSimpleTypeHolder(new MongoCustomConversions(List.of()).getSimpleTypeHolder());
+        Map<String, IndexDefinition> indexes = new HashMap<>();
+        IndexResolver.create(context).resolveIndexFor(JoinRequest.class)
+                .forEach(index -> indexes.put(index.getIndexOptions().getString("name"), index));
+
+        IndexDefinition pending = indexes.get("tripId_userId_pending");
+        assertEquals(new Document("tripId", 1).append("userId", 1), pending.getIndexKeys());
+        assertTrue(pending.getIndexOptions().getBoolean("unique"));
+        assertEquals(new Document("status", "PENDING"), pending.getIndexOptions().get("partialFilterExpression"));
+
+        IndexDefinition inbox = indexes.get("creatorId_status_requestedAt");
+        assertEquals(new Document("creatorId", 1).append("status", 1).append("requestedAt", 1), inbox.getIndexKeys());
+    }
+}
@@ -0,0 +1,112 @@
+package com.splittrip.backend.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.mongodb.ReadPreference;
+import com.splittrip.backend.config.MongoConfig;
+import com.splittrip.backend.dto.CreateExpenseRequest;
+import com.splittrip.backend.dto.CreateTripRequest;
+import com.splittrip.backend.dto.TripSummaryDTO;
+import com.splittrip.backend.dto.UserBalance;
+import com.splittrip.backend.model.Trip;
+import com.splittrip.backend.service.BalanceService;
+import com.splittrip.backend.service.ExpenseService;
+import com.splittrip.backend.service.TripService;
+import com.splittrip.backend.service.UserService;
+
+/**
+ * Balance and summary reads with replica reads enabled.
+ * Needs a local replica set (set MONGODB_REPLICA_SET_URI), e.g. three mongod
+ * processes started with --replSet rs0 on ports 27017-27019 after rs.initiate():
+ *   mongodb://localhost:27017,localhost:27018,localhost:27019/splitwith_test?replicaSet=rs0
+ */
+@SpringBootTest
+@EnabledIfEnvironmentVariable(named = "MONGODB_REPLICA_SET_URI", matches = ".+")
+class ReplicaReadRoutingTest {
+
+    private static final long CATCH_UP_TIMEOUT_MS = 10_000;
+
+    @DynamicPropertySource
+    static void replicaSet(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", () -> System.getenv("MONGODB_REPLICA_SET_URI"));
+        registry.add("app.mongo.replica-reads.enabled", () -> "true");
+    }
+
+    @Autowired
+    private TripService tripService;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private BalanceService balanceService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    @Qualifier(MongoConfig.READ_REPLICA_TEMPLATE)
+    private MongoTemplate readReplicaMongoTemplate;
+
+    @Test
+    void onlyTheReplicaTemplatePrefersSecondaries() {
+        assertFalse(mongoTemplate.hasReadPreference());
+        assertEquals(ReadPreference.secondaryPreferred(90, TimeUnit.SECONDS),
+                readReplicaMongoTemplate.getReadPreference());
+    }
+
+    @Test
+    void readsRightAfterWritesSeeTheTripAndCatchUp() throws Exception {
+        String creatorId = UUID.randomUUID().toString();
+        userService.getOrCreateByIdAndName(creatorId, "Creator");
+        Trip trip = tripService.createTrip(new CreateTripRequest("Replica trip", creatorId, "Creator", null));
+
+        // Not yet on any secondary: falls back to the primary instead of "Trip not found"
+        TripSummaryDTO summary = tripService.getTripSummary(trip.getId());
+        assertEquals(trip.getId(), summary.getTripId());
+        assertEquals(1, balanceService.calculateBalances(trip.getId()).size());
+
+        CreateExpenseRequest expense = new CreateExpenseRequest();
+        expense.setTripId(trip.getId());
+        expense.setPaidBy(creatorId);
+        expense.setAmount(12_345.0);
+        expense.setDescription("Dinner");
+        expense.setSplitBetween(List.of(creatorId));
+        expenseService.createExpense(expense);
+
+        // Eventually consistent: the summary total catches up within the staleness bound
+        long deadline = System.currentTimeMillis() + CATCH_UP_TIMEOUT_MS;
+        long total;
+        do {
+            total = tripService.getTripSummary(trip.getId()).getTotalExpensesAmount();
+            if (total == 12_345L) {
+                break;
+            }
+            Thread.sleep(100);
+        } while (System.currentTimeMillis() < deadline);
+        assertEquals(12_345L, total);
+
+        double sum = balanceService.calculateBalances(trip.getId()).stream()
+                .mapToDouble(UserBalance::getBalance)
+                .sum();
+        assertTrue(Math.abs(sum) < 0.001, "Balances must sum to zero, got " + sum);
+    }
+}
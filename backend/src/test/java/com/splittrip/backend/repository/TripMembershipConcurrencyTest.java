@@ -0,0 +1,92 @@
+package com.splittrip.backend.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.splittrip.backend.dto.CreateTripRequest;
+import com.splittrip.backend.model.JoinRequest;
+import com.splittrip.backend.model.Trip;
+import com.splittrip.backend.service.JoinRequestService;
+import com.splittrip.backend.service.TripService;
+import com.splittrip.backend.service.UserService;
+
+/**
+ * Concurrent join approvals and direct joins on one trip.
+ * Needs a running MongoDB (set MONGODB_URI), e.g. mongodb://localhost:27017/splitwith_test
+ */
+@SpringBootTest
+@EnabledIfEnvironmentVariable(named = "MONGODB_URI", matches = ".+")
+class TripMembershipConcurrencyTest {
+
+    private static final int JOINERS = 400;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private TripService tripService;
+
+    @Autowired
+    private JoinRequestService joinRequestService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TripRepository tripRepository;
+
+    @Test
+    void concurrentApprovalsAndJoinsLoseNoMembers() throws Exception {
+        String creatorId = UUID.randomUUID().toString();
+        userService.getOrCreateByIdAndName(creatorId, "Creator");
+        Trip trip = tripService.createTrip(new CreateTripRequest("Stress trip", creatorId, "Creator", null));
+
+        // Half the users join through approved requests, half join directly
+        List<String> userIds = new ArrayList<>();
+        List<JoinRequest> requests = new ArrayList<>();
+        for (int i = 0; i < JOINERS; i++) {
+            String userId = UUID.randomUUID().toString();
+            userService.getOrCreateByIdAndName(userId, "User " + i);
+            userIds.add(userId);
+            if (i % 2 == 0) {
+                requests.add(joinRequestService.submitJoinRequest(trip.getId(), userId));
+            }
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (JoinRequest request : requests) {
+                futures.add(pool.submit(() -> joinRequestService.approveJoinRequest(request.getId(), creatorId)));
+            }
+            for (int i = 1; i < JOINERS; i += 2) {
+                String userId = userIds.get(i);
+                futures.add(pool.submit(() -> tripService.addMemberToTrip(trip.getId(), userId)));
+            }
+            // Status writes race with membership writes; neither may fail or clobber the other
+            for (int i = 0; i < 20; i++) {
+                String status = i % 2 == 0 ? "COMPLETED" : "ACTIVE";
+                futures.add(pool.submit(() -> tripService.updateTripStatus(trip.getId(), status)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        Trip reloaded = tripRepository.findById(trip.getId()).orElseThrow();
+        assertEquals(JOINERS + 1, reloaded.getMembers().size());
+        assertTrue(reloaded.getMembers().containsAll(userIds));
+    }
+}
@@ -0,0 +1,112 @@
+package com.splittrip.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.splittrip.backend.model.Expense;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+class BalanceAccumulatorTest {
+
+    @Test
+    void membersBeyondInitialCapacityKeepTheirBalances() {
+        List<String> members = members(40);
+        BalanceAccumulator accumulator = new BalanceAccumulator();
+        for (String member : members) {
+            accumulator.addExpense(Expense.builder().paidBy(member).amount(100.0).splitBetween(List.of(member)).build());
+        }
+        accumulator.addExpense(Expense.builder().paidBy(members.get(0)).amount(4000.0).splitBetween(members).build());
+
+        Map<String, Long> balances = accumulator.toMap();
+        assertEquals(3900L, balances.get(members.get(0)));
+        assertEquals(-100L, balances.get(members.get(39)));
+        assertEquals(0L, balances.values().stream().mapToLong(Long::longValue).sum());
+    }
+
+    @Test
+    void forkJoinSumMatchesSequential() {
+        List<String> members = members(300);
+        List<Expense> expenses = expenses(new Random(5), members, 100_000);
+
+        Map<String, Long> sequential = BalanceAccumulator.sum(expenses, members, Integer.MAX_VALUE).toMap();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertEquals(sequential, BalanceAccumulator.sum(expenses, members, pool).toMap());
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(0L, sequential.values().stream().mapToLong(Long::longValue).sum());
+    }
+
+    /**
+     * Rebuild of a 500k-expense trip, sequential and on pools of 1, 2, 4, ...
+     * threads up to the core count. Logs the best of several runs and
+     * checks every pool gets the sequential result.
+     */
+    @Test
+    @Tag("benchmark")
+    void benchmarkScalingAcrossCores() {
+        List<String> members = members(500);
+        List<Expense> expenses = expenses(new Random(9), members, 500_000);
+        Map<String, Long> sequential = BalanceAccumulator.sum(expenses, members, Integer.MAX_VALUE).toMap();
+
+        log.info("[rebuild] {} expenses, {} members: sequential {} ms", expenses.size(), members.size(),
+                best(() -> BalanceAccumulator.sum(expenses, members, Integer.MAX_VALUE)) / 1_000_000);
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= cores; threads *= 2) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                assertEquals(sequential, BalanceAccumulator.sum(expenses, members, pool).toMap());
+                log.info("[rebuild] fork-join {} threads {} ms", threads,
+                        best(() -> BalanceAccumulator.sum(expenses, members, pool)) / 1_000_000);
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    private static long best(Runnable run) {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 8; i++) {
+            long start = System.nanoTime();
+            run.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    private static List<String> members(int n) {
+        List<String> members = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            members.add("member-" + i);
+        }
+        return members;
+    }
+
+    private static List<Expense> expenses(Random random, List<String> members, int count) {
+        List<Expense> expenses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            List<String> split = new ArrayList<>();
+            int size = 1 + random.nextInt(12);
+            for (int j = 0; j < size; j++) {
+                split.add(members.get(random.nextInt(members.size())));
+            }
+            expenses.add(Expense.builder()
+                    .paidBy(members.get(random.nextInt(members.size())))
+                    .amount((double) (1 + random.nextInt(1_000_000)))
+                    .splitBetween(split)
+                    .build());
+        }
+        return expenses;
+    }
+}
@@ -0,0 +1,70 @@
+package com.splittrip.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.splittrip.backend.model.Expense;
+import com.splittrip.backend.model.Expense.SplitType;
+import com.splittrip.backend.service.TripExpenseCache.CachedTrip;
+
+class CacheSnapshotFileTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void tripsRoundTripInOrder() throws IOException {
+        Expense full = Expense.builder()
+                .id("e1").tripId("t1").version(4L).paidBy("a").amount(1234.0).currency("USD").fxRate(83.25)
+                .description("Café ☕").splitBetween(List.of("a", "b", "c")).splitType(SplitType.SHARES)
+                .splitWeights(new long[] {1, 2, 3}).createdAt(LocalDateTime.of(2026, 3, 1, 12, 0, 0, 123_456_789))
+                .build();
+        Expense sparse = Expense.builder()
+                .id("e2").tripId("t1").paidBy("c").amount(500.0).splitBetween(List.of("c")).createdAt(null)
+                .build();
+        List<CachedTrip> trips = List.of(
+                new CachedTrip("t1", 42, List.of(full, sparse)),
+                new CachedTrip("t2", 0, List.of()));
+
+        Path path = dir.resolve("cache.snapshot");
+        CacheSnapshotFile.write(path, trips);
+        List<CachedTrip> read = CacheSnapshotFile.read(path);
+
+        assertEquals(2, read.size());
+        assertEquals("t1", read.get(0).tripId);
+        assertEquals(42, read.get(0).seq);
+        assertEquals("t2", read.get(1).tripId);
+        assertEquals(List.of(), read.get(1).expenses);
+
+        Expense fullRead = read.get(0).expenses.get(0);
+        assertArrayEquals(full.getSplitWeights(), fullRead.getSplitWeights());
+        fullRead.setSplitWeights(full.getSplitWeights());
+        assertEquals(full, fullRead);
+        assertEquals(sparse, read.get(0).expenses.get(1));
+    }
+
+    @Test
+    void rejectsCorruptAndForeignFiles() throws IOException {
+        Path path = dir.resolve("cache.snapshot");
+        CacheSnapshotFile.write(path, List.of(new CachedTrip("t1", 7,
+                List.of(Expense.builder().id("e1").paidBy("a").amount(100.0).splitBetween(List.of("a")).build()))));
+
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(path, bytes);
+        assertThrows(IOException.class, () -> CacheSnapshotFile.read(path));
+
+        Files.writeString(path, "not a snapshot");
+        assertThrows(IOException.class, () -> CacheSnapshotFile.read(path));
+    }
+}
@@ -0,0 +1,153 @@
+package com.splittrip.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.splittrip.backend.dto.ExpenseFilter;
+import com.splittrip.backend.model.Expense;
+import com.splittrip.backend.model.Expense.SplitType;
+
+class ExpenseColumnsTest {
+
+    private static final LocalDateTime DAY_ONE = LocalDateTime.of(2026, 3, 1, 12, 0);
+
+    @Test
+    void editsOverwriteInPlaceAndDeletesDrop() {
+        ExpenseColumns columns = new ExpenseColumns();
+        columns.put(expense("e1", "a", 1000, DAY_ONE, "a", "b"));
+        columns.put(expense("e2", "b", 500, DAY_ONE, "a", "b"));
+        columns.put(expense("e3", "a", 200, DAY_ONE, "a"));
+
+        Expense edited = expense("e1", "a", 1500, DAY_ONE, "a", "b");
+        edited.setVersion(1L);
+        columns.put(edited);
+        columns.remove("e2");
+        columns.remove("missing");
+
+        assertEquals(2, columns.size());
+        assertEquals(1700, columns.total());
+        assertEquals(List.of("e1", "e3"), ids(columns.find(new ExpenseFilter())));
+    }
+
+    @Test
+    void staleEditsAndDeletedIdsAreIgnored() {
+        ExpenseColumns columns = new ExpenseColumns();
+        Expense latest = expense("e1", "a", 1500, DAY_ONE, "a", "b");
+        latest.setVersion(2L);
+        Expense older = expense("e1", "a", 1000, DAY_ONE, "a", "b");
+        older.setVersion(1L);
+        columns.put(latest);
+        columns.put(older);
+
+        // Delete replayed before the add it follows
+        columns.remove("e2");
+        Expense deleted = expense("e2", "b", 500, DAY_ONE, "a", "b");
+        deleted.setVersion(0L);
+        columns.put(deleted);
+
+        assertEquals(1, columns.size());
+        assertEquals(1500, columns.total());
+        assertEquals(List.of(latest), columns.find(new ExpenseFilter()));
+    }
+
+    @Test
+    void rowsAreRebuiltWithEveryField() {
+        Expense full = Expense.builder()
+                .id("e1").tripId("t1").version(4L).paidBy("a").amount(1234.0).currency("USD").fxRate(83.25)
+                .description("Dinner").splitBetween(List.of("a", "b", "c")).splitType(SplitType.SHARES)
+                .splitWeights(new long[] {1, 2, 3}).createdAt(LocalDateTime.of(2026, 3, 1, 12, 0, 0, 123_456_789))
+                .build();
+        Expense sparse = Expense.builder()
+                .id("e2").tripId("t1").paidBy("c").amount(null).splitBetween(List.of("c")).splitType(null)
+                .createdAt(null)
+                .build();
+        ExpenseColumns columns = new ExpenseColumns();
+        columns.put(full);
+        columns.put(sparse);
+
+        List<Expense> found = columns.find(new ExpenseFilter());
+        assertEquals(List.of(full, sparse), found);
+        assertNotSame(full, found.get(0));
+    }
+
+    @Test
+    void filtersByPayerMemberTimeAndAmount() {
+        ExpenseColumns columns = new ExpenseColumns();
+        columns.put(expense("e1", "a", 1000, DAY_ONE, "a", "b"));
+        columns.put(expense("e2", "b", 500, DAY_ONE.plusDays(1), "b", "c"));
+        columns.put(expense("e3", "c", 200, DAY_ONE.plusDays(2), "c"));
+
+        assertEquals(List.of("e2"), ids(columns.find(ExpenseFilter.builder().paidBy("b").build())));
+        assertEquals(List.of("e1", "e2"), ids(columns.find(ExpenseFilter.builder().involving("b").build())));
+        assertEquals(List.of("e2", "e3"), ids(columns.find(ExpenseFilter.builder().involving("c").build())));
+        assertEquals(List.of("e2"), ids(columns.find(ExpenseFilter.builder()
+                .from(DAY_ONE.plusDays(1)).to(DAY_ONE.plusDays(2)).build())));
+        assertEquals(List.of("e2", "e3"), ids(columns.find(ExpenseFilter.builder().maxAmount(500L).build())));
+        assertEquals(List.of(), ids(columns.find(ExpenseFilter.builder().paidBy("nobody").build())));
+    }
+
+    @Test
+    void splitBitsSurviveMoreThanSixtyFourMembers() {
+        ExpenseColumns columns = new ExpenseColumns();
+        List<String> members = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            members.add("m" + i);
+        }
+        columns.put(expense("small", "m0", 100, DAY_ONE, "m0", "m1"));
+        long before = columns.footprintBytes();
+        columns.put(expense("big", "m0", 15_000, DAY_ONE, members.toArray(String[]::new)));
+
+        assertEquals(List.of("small", "big"), ids(columns.find(ExpenseFilter.builder().involving("m1").build())));
+        assertEquals(List.of("big"), ids(columns.find(ExpenseFilter.builder().involving("m149").build())));
+        assertTrue(columns.footprintBytes() > before);
+    }
+
+    @Test
+    void repeatedEditsReuseThePools() {
+        ExpenseColumns columns = new ExpenseColumns();
+        for (long version = 0; version < 2_000; version++) {
+            Expense edited = expense("e1", "a", 1000, DAY_ONE, "a", "b", "c");
+            edited.setVersion(version);
+            edited.setDescription("dinner #" + version);
+            edited.setSplitWeights(new long[] {version, 1, 2});
+            columns.put(edited);
+            columns.put(expense("keep", "b", 100, DAY_ONE, "b"));
+        }
+        long settled = columns.footprintBytes();
+        for (long version = 2_000; version < 4_000; version++) {
+            Expense edited = expense("e1", "a", 1000, DAY_ONE, "a", "b", "c");
+            edited.setVersion(version);
+            edited.setDescription("dinner #" + version);
+            edited.setSplitWeights(new long[] {version, 1, 2});
+            columns.put(edited);
+        }
+
+        assertEquals(settled, columns.footprintBytes());
+        Expense latest = columns.find(ExpenseFilter.builder().involving("c").build()).get(0);
+        assertEquals("dinner #3999", latest.getDescription());
+        assertEquals(List.of(3999L, 1L, 2L), List.of(latest.getSplitWeights()[0], latest.getSplitWeights()[1],
+                latest.getSplitWeights()[2]));
+        assertEquals(List.of("e1", "keep"), ids(columns.find(new ExpenseFilter())));
+    }
+
+    private static Expense expense(String id, String paidBy, double amount, LocalDateTime createdAt, String... split) {
+        return Expense.builder()
+                .id(id)
+                .paidBy(paidBy)
+                .amount(amount)
+                .createdAt(createdAt)
+                .splitBetween(List.of(split))
+                .build();
+    }
+
+    private static List<String> ids(List<Expense> expenses) {
+        return expenses.stream().map(Expense::getId).toList();
+    }
+}
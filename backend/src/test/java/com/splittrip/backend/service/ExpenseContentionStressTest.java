@@ -0,0 +1,207 @@
+package com.splittrip.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.splittrip.backend.dto.CreateExpenseRequest;
+import com.splittrip.backend.dto.CreateTripRequest;
+import com.splittrip.backend.dto.UserBalance;
+import com.splittrip.backend.model.JoinRequest;
+import com.splittrip.backend.model.Trip;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Contention harness: thousands of concurrent expense creates, join approvals
+ * and balance reads against a single trip, like a busy group at one dinner.
+ * 
+ * Needs a running MongoDB (set MONGODB_URI). Size with system properties:
+ *   -Dstress.expenses=5000 -Dstress.threads=64 -Dstress.joiners=200 -Dstress.reads=1000
+ * Every operation's p99 latency must stay under -Dstress.max-p99-ms (default 5000).
+ */
+@SpringBootTest
+@EnabledIfEnvironmentVariable(named = "MONGODB_URI", matches = ".+")
+@Slf4j
+class ExpenseContentionStressTest {
+
+    private static final int EXPENSES = Integer.getInteger("stress.expenses", 2000);
+    private static final int THREADS = Integer.getInteger("stress.threads", 64);
+    private static final int JOINERS = Integer.getInteger("stress.joiners", 100);
+    private static final int READS = Integer.getInteger("stress.reads", 500);
+    private static final int MAX_P99_MS = Integer.getInteger("stress.max-p99-ms", 5000);
+    private static final int INITIAL_MEMBERS = 8;
+
+    @Autowired
+    private TripService tripService;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private JoinRequestService joinRequestService;
+
+    @Autowired
+    private BalanceService balanceService;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void concurrentExpensesKeepBalancesConsistent() throws Exception {
+        String creatorId = newUser("Creator");
+        Trip trip = tripService.createTrip(new CreateTripRequest("Dinner", creatorId, "Creator", null));
+
+        List<String> members = new ArrayList<>();
+        members.add(creatorId);
+        for (int i = 1; i < INITIAL_MEMBERS; i++) {
+            String userId = newUser("Member " + i);
+            tripService.addMemberToTrip(trip.getId(), userId);
+            members.add(userId);
+        }
+
+        List<JoinRequest> requests = new ArrayList<>();
+        for (int i = 0; i < JOINERS; i++) {
+            requests.add(joinRequestService.submitJoinRequest(trip.getId(), newUser("Joiner " + i)));
+        }
+
+        LatencyRecorder creates = new LatencyRecorder("expense create", EXPENSES);
+        LatencyRecorder approvals = new LatencyRecorder("join approve", JOINERS);
+        LatencyRecorder reads = new LatencyRecorder("balance read", READS);
+        AtomicInteger failures = new AtomicInteger();
+        long[] amounts = new long[EXPENSES];
+
+        // Interleave the three kinds of work so they actually contend
+        List<Runnable> work = new ArrayList<>();
+        for (int i = 0; i < EXPENSES; i++) {
+            int index = i;
+            work.add(() -> creates.time(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long amount = 100 + random.nextLong(500_000); // paise
+                amounts[index] = amount;
+                CreateExpenseRequest request = new CreateExpenseRequest();
+                request.setTripId(trip.getId());
+                request.setPaidBy(members.get(random.nextInt(members.size())));
+                request.setAmount((double) amount);
+                request.setDescription("Item " + index);
+                request.setSplitBetween(members.subList(0, 2 + random.nextInt(members.size() - 1)));
+                expenseService.createExpense(request);
+            }));
+        }
+        for (JoinRequest request : requests) {
+            work.add(() -> approvals.time(() -> joinRequestService.approveJoinRequest(request.getId(), creatorId)));
+        }
+        for (int i = 0; i < READS; i++) {
+            work.add(() -> reads.time(() -> balanceService.calculateBalances(trip.getId())));
+        }
+        Collections.shuffle(work);
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Runnable task : work) {
+                futures.add(pool.submit(() -> {
+                    try {
+                        task.run();
+                    } catch (RuntimeException e) {
+                        failures.incrementAndGet();
+                        throw e;
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        log.info("{} ops on {} threads in {} s ({} ops/s)", work.size(), THREADS,
+                String.format("%.2f", elapsedSeconds), Math.round(work.size() / elapsedSeconds));
+        creates.report();
+        approvals.report();
+        reads.report();
+
+        assertEquals(0, failures.get());
+        for (LatencyRecorder recorder : List.of(creates, approvals, reads)) {
+            assertTrue(recorder.millis(0.99) <= MAX_P99_MS,
+                    recorder.label + " p99 " + recorder.millis(0.99) + " ms over " + MAX_P99_MS + " ms");
+        }
+        assertEquals(EXPENSES, expenseService.getExpensesForTrip(trip.getId()).size());
+        assertEquals(INITIAL_MEMBERS + JOINERS, tripService.getTripById(trip.getId()).getMembers().size());
+
+        // Balances are kept in whole paise, so they must cancel out exactly
+        List<UserBalance> balances = balanceService.calculateBalances(trip.getId());
+        long sumPaise = balances.stream().mapToLong(b -> Math.round(b.getBalance() * 100)).sum();
+        assertEquals(0, sumPaise, "balances sum to " + sumPaise + " paise");
+
+        long totalPaise = Arrays.stream(amounts).sum();
+        assertEquals(totalPaise, tripService.getTripSummary(trip.getId()).getTotalExpensesAmount());
+    }
+
+    private String newUser(String name) {
+        String userId = UUID.randomUUID().toString();
+        userService.getOrCreateByIdAndName(userId, name);
+        return userId;
+    }
+
+    /**
+     * Fixed-size latency log; percentiles are computed once at the end.
+     */
+    private static final class LatencyRecorder {
+        private final String label;
+        private final AtomicLongArray nanos;
+        private final AtomicInteger count = new AtomicInteger();
+
+        LatencyRecorder(String label, int capacity) {
+            this.label = label;
+            this.nanos = new AtomicLongArray(Math.max(capacity, 1));
+        }
+
+        void time(Runnable operation) {
+            long start = System.nanoTime();
+            operation.run();
+            nanos.set(count.getAndIncrement(), System.nanoTime() - start);
+        }
+
+        void report() {
+            if (count.get() == 0) {
+                return;
+            }
+            log.info("{} n={} p50={}ms p95={}ms p99={}ms max={}ms", label, count.get(),
+                    millis(0.50), millis(0.95), millis(0.99), millis(1.0));
+        }
+
+        double millis(double percentile) {
+            int n = count.get();
+            if (n == 0) {
+                return 0;
+            }
+            long[] sorted = new long[n];
+            for (int i = 0; i < n; i++) {
+                sorted[i] = nanos.get(i);
+            }
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile * n) - 1;
+            return Math.round(sorted[Math.max(index, 0)] / 1e5) / 10.0;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.splittrip.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.MongoTransactionOptionsResolver;
+import org.springframework.data.mongodb.TransientMongoDbException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import com.mongodb.MongoException;
+import com.mongodb.ReadConcern;
+
+class MongoTransactionsTest {
+
+    @Test
+    void writeConflictsAndLabelledErrorsAreRetried() {
+        assertTrue(MongoTransactions.isTransient(new TransientMongoDbException("write conflict", null)));
+
+        MongoException labelled = new MongoException(112, "WriteConflict");
+        labelled.addLabel(MongoException.TRANSIENT_TRANSACTION_ERROR_LABEL);
+        // Commit failures arrive wrapped by the transaction manager
+        assertTrue(MongoTransactions.isTransient(new TransactionSystemException("commit failed", labelled)));
+    }
+
+    @Test
+    void businessErrorsAreNotRetried() {
+        assertFalse(MongoTransactions.isTransient(new IllegalArgumentException("Trip not found")));
+        assertFalse(MongoTransactions.isTransient(new OptimisticLockingFailureException("modified")));
+        assertFalse(MongoTransactions.isTransient(new DuplicateKeyException("duplicate")));
+        assertFalse(MongoTransactions.isTransient(new MongoException(11000, "duplicate key")));
+    }
+
+    @Test
+    void afterCommitActionsRunOnceTheCommittingAttemptIsDone() {
+        List<String> log = new ArrayList<>();
+        MongoTransactions transactions = new MongoTransactions(new RecordingManager(log));
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = transactions.run(() -> {
+            int attempt = attempts.incrementAndGet();
+            transactions.afterCommit(() -> log.add("after " + attempt));
+            if (attempt == 1) {
+                throw new TransientMongoDbException("write conflict", null);
+            }
+            return "done";
+        });
+
+        assertEquals("done", result);
+        // The rolled-back attempt's action is dropped
+        assertEquals(List.of("rollback", "commit", "after 2"), log);
+    }
+
+    @Test
+    void afterCommitActionsAreDroppedOnFailure() {
+        List<String> log = new ArrayList<>();
+        MongoTransactions transactions = new MongoTransactions(new RecordingManager(log));
+
+        assertThrows(IllegalArgumentException.class, () -> transactions.run(() -> {
+            transactions.afterCommit(() -> log.add("after"));
+            throw new IllegalArgumentException("Trip not found");
+        }));
+        assertEquals(List.of("rollback"), log);
+
+        // Outside a transaction the action runs right away
+        transactions.afterCommit(() -> log.add("now"));
+        assertEquals(List.of("rollback", "now"), log);
+    }
+
+    @Test
+    void snapshotReadsAskForSnapshotReadConcern() {
+        List<TransactionDefinition> definitions = new ArrayList<>();
+        MongoTransactions transactions = new MongoTransactions(new RecordingManager(new ArrayList<>()) {
+            @Override
+            public TransactionStatus getTransaction(TransactionDefinition definition) {
+                definitions.add(definition);
+                return super.getTransaction(definition);
+            }
+        });
+
+        transactions.snapshot(() -> "read");
+        transactions.run(() -> "write");
+
+        assertEquals(ReadConcern.SNAPSHOT,
+                MongoTransactionOptionsResolver.defaultResolver().resolve(definitions.get(0)).getReadConcern());
+        assertNull(MongoTransactionOptionsResolver.defaultResolver().resolve(definitions.get(1)).getReadConcern());
+    }
+
+    private static class RecordingManager implements PlatformTransactionManager {
+
+        private final List<String> log;
+
+        RecordingManager(List<String> log) {
+            this.log = log;
+        }
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+            log.add("commit");
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+            log.add("rollback");
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.splittrip.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.splittrip.backend.model.Expense;
+import com.splittrip.backend.model.Settlement;
+import com.splittrip.backend.model.TripEvent;
+import com.splittrip.backend.model.TripEvent.EventType;
+
+class NetPositionServiceTest {
+
+    @Test
+    void splitMembersOweThePayerTheirShare() {
+        NetPositionService.PairDeltas deltas = new NetPositionService.PairDeltas();
+        deltas.addExpense(expense("a", 900, "a", "b", "c"), 1);
+
+        assertEquals(Map.of("b", 300L, "c", 300L), deltas.byUser.get("a"));
+        assertEquals(Map.of("a", -300L), deltas.byUser.get("b"));
+        assertEquals(Map.of("a", -300L), deltas.byUser.get("c"));
+    }
+
+    @Test
+    void settlementPaysDownTheDebt() {
+        NetPositionService.PairDeltas deltas = new NetPositionService.PairDeltas();
+        deltas.addExpense(expense("a", 900, "a", "b", "c"), 1);
+        deltas.addSettlement(Settlement.builder().fromUserId("b").toUserId("a").amount(300.0).build());
+
+        assertEquals(Map.of("a", 0L), deltas.byUser.get("b"));
+        assertEquals(Map.of("c", 300L), deltas.nonZero().get("a"));
+        assertFalse(deltas.byUser.containsKey("b"));
+    }
+
+    @Test
+    void editIsTheDifferenceOfTwoExpenses() {
+        NetPositionService.PairDeltas deltas = new NetPositionService.PairDeltas();
+        deltas.addExpense(expense("a", 900, "a", "b", "c"), -1);
+        deltas.addExpense(expense("a", 1200, "a", "b", "c"), 1);
+
+        assertEquals(Map.of("b", 100L, "c", 100L), deltas.nonZero().get("a"));
+        assertEquals(Map.of("a", -100L), deltas.byUser.get("b"));
+    }
+
+    @Test
+    void eventsReplayTheChangeTheyRecord() {
+        NetPositionService.PairDeltas deltas = new NetPositionService.PairDeltas();
+        deltas.addEvent(TripEvent.builder().type(EventType.EXPENSE_ADDED)
+                .expense(expense("a", 900, "a", "b", "c")).build());
+        deltas.addEvent(TripEvent.builder().type(EventType.EXPENSE_EDITED)
+                .previousExpense(expense("a", 900, "a", "b", "c"))
+                .expense(expense("a", 600, "a", "b")).build());
+        deltas.addEvent(TripEvent.builder().type(EventType.SETTLEMENT_CONFIRMED)
+                .deltas(Map.of("b", 100L, "a", -100L)).build());
+        deltas.addEvent(TripEvent.builder().type(EventType.MEMBER_JOINED).subjectId("d").build());
+
+        // b owes a 300 for the edited expense and paid 100 of it; c owes nothing
+        assertEquals(Map.of("b", 200L), deltas.nonZero().get("a"));
+        assertEquals(Map.of("a", -200L), deltas.byUser.get("b"));
+        assertFalse(deltas.byUser.containsKey("c"));
+    }
+
+    private static Expense expense(String paidBy, double amount, String... split) {
+        return Expense.builder().paidBy(paidBy).amount(amount).splitBetween(List.of(split)).build();
+    }
+}
@@ -0,0 +1,62 @@
+package com.splittrip.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.splittrip.backend.model.Expense;
+import com.splittrip.backend.model.Expense.SplitType;
+
+import tools.jackson.databind.json.JsonMapper;
+
+class TripArchiveServiceTest {
+
+    private final JsonMapper mapper = JsonMapper.builder().build();
+
+    @Test
+    void expensesRoundTripThroughTheCompressedChunks() {
+        List<Expense> expenses = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            expenses.add(Expense.builder()
+                    .id("e" + i)
+                    .tripId("trip")
+                    .version(3L)
+                    .paidBy("u" + (i % 4))
+                    .amount(1000.0 + i)
+                    .currency("USD")
+                    .fxRate(83.1)
+                    .description("Dinner " + i)
+                    .splitBetween(List.of("u0", "u1", "u2"))
+                    .splitType(SplitType.SHARES)
+                    .splitWeights(new long[] {1, 2, 3})
+                    .createdAt(LocalDateTime.of(2026, 3, 1, 12, 0).plusMinutes(i))
+                    .build());
+        }
+
+        byte[] json = mapper.writeValueAsBytes(expenses);
+        assertFalse(new String(json).contains("baseAmount"));
+        byte[] gzipped = TripArchiveService.gzip(json);
+        List<byte[]> chunks = TripArchiveService.split(gzipped, 1000);
+        List<Expense> decoded = TripArchiveService.decode(mapper, TripArchiveService.join(chunks));
+
+        assertTrue(gzipped.length * 4 < json.length, json.length + " -> " + gzipped.length + " bytes");
+        assertEquals((gzipped.length + 999) / 1000, chunks.size());
+        assertTrue(chunks.stream().allMatch(chunk -> chunk.length <= 1000));
+        assertEquals(expenses.size(), decoded.size());
+        for (int i = 0; i < expenses.size(); i++) {
+            Expense expected = expenses.get(i);
+            Expense actual = decoded.get(i);
+            assertArrayEquals(expected.getSplitWeights(), actual.getSplitWeights());
+            actual.setSplitWeights(expected.getSplitWeights());
+            assertEquals(expected, actual);
+            assertEquals(expected.getBaseAmount(), actual.getBaseAmount());
+        }
+    }
+}
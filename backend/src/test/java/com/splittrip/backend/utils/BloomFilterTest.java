@@ -0,0 +1,29 @@
+package com.splittrip.backend.utils;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTest {
+
+    @Test
+    void neverMissesAndStaysNearItsFalsePositiveRate() {
+        int count = 50_000;
+        BloomFilter filter = BloomFilter.forExpected(count, 0.01);
+        for (int i = 0; i < count; i++) {
+            filter.add(TripCodeGenerator.fromIndex(i, 7L));
+        }
+        for (int i = 0; i < count; i++) {
+            assertTrue(filter.mightContain(TripCodeGenerator.fromIndex(i, 7L)));
+        }
+
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain(TripCodeGenerator.fromIndex(count + i, 7L))) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < probes * 0.02, falsePositives + " false positives in " + probes);
+    }
+}
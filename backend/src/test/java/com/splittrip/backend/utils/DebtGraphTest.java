@@ -0,0 +1,113 @@
+package com.splittrip.backend.utils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+class DebtGraphTest {
+
+    @Test
+    void cyclesCancelOut() {
+        // a -> b -> c -> a, 500 each: nobody owes anything
+        DebtGraph graph = new DebtGraph(3);
+        graph.addDebt(0, 1, 500);
+        graph.addDebt(1, 2, 500);
+        graph.addDebt(2, 0, 500);
+
+        assertArrayEquals(new long[] { 0, 0, 0 }, graph.netPositions());
+        assertEquals(0, graph.simplify().size());
+    }
+
+    @Test
+    void chainCollapsesToOneTransfer() {
+        // a owes b 300, b owes c 300: a pays c directly
+        DebtGraph graph = new DebtGraph(3);
+        graph.addDebt(0, 1, 300);
+        graph.addDebt(1, 2, 300);
+
+        DebtGraph.Plan plan = graph.simplify();
+        assertEquals(1, plan.size());
+        assertEquals(0, plan.from(0));
+        assertEquals(2, plan.to(0));
+        assertEquals(300, plan.amount(0));
+    }
+
+    @Test
+    void equalAmountsAreMatchedBeforeSplitting() {
+        // Largest-first alone takes 4 transfers: 600->500, 100->300, 300->200, 300->100
+        long[] net = { -600, -300, 500, 300, 100 };
+        DebtGraph.Plan plan = DebtGraph.settle(net);
+
+        assertEquals(3, plan.size());
+        assertSettles(net, plan);
+    }
+
+    @Test
+    void randomGraphsSettleInAtMostNMinusOneTransfers() {
+        Random random = new Random(11);
+        for (int run = 0; run < 200; run++) {
+            int people = 2 + random.nextInt(40);
+            DebtGraph graph = randomGraph(random, people, people * 5);
+            long[] net = graph.netPositions();
+
+            DebtGraph.Plan plan = graph.simplify();
+            assertSettles(net, plan);
+            long nonZero = Arrays.stream(net).filter(position -> position != 0).count();
+            assertTrue(plan.size() <= Math.max(0, nonZero - 1), plan.size() + " transfers for " + nonZero + " people");
+        }
+    }
+
+    @Test
+    @Tag("benchmark")
+    void benchmarkTenThousandPeople() {
+        int people = 10_000;
+        int edges = 2_000_000;
+
+        // Warm up before timing
+        for (int i = 0; i < 5; i++) {
+            DebtGraph.settle(randomGraph(new Random(i), people, edges).netPositions());
+        }
+
+        long start = System.nanoTime();
+        DebtGraph graph = randomGraph(new Random(3), people, edges);
+        long buildNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        long[] net = graph.netPositions();
+        DebtGraph.Plan plan = DebtGraph.settle(net);
+        long settleNanos = System.nanoTime() - start;
+
+        log.info("[debt-graph] {} people, {} edges: add={} ms, settle={} ms, {} transfers",
+                people, edges, buildNanos / 1_000_000, settleNanos / 1_000_000, plan.size());
+
+        assertSettles(net, plan);
+        assertTrue(plan.size() < people);
+    }
+
+    private static DebtGraph randomGraph(Random random, int people, int edges) {
+        DebtGraph graph = new DebtGraph(people);
+        for (int e = 0; e < edges; e++) {
+            graph.addDebt(random.nextInt(people), random.nextInt(people), 1 + random.nextInt(500_000));
+        }
+        return graph;
+    }
+
+    private static void assertSettles(long[] net, DebtGraph.Plan plan) {
+        long[] after = net.clone();
+        for (int i = 0; i < plan.size(); i++) {
+            assertTrue(plan.amount(i) > 0);
+            after[plan.from(i)] += plan.amount(i);
+            after[plan.to(i)] -= plan.amount(i);
+        }
+        assertArrayEquals(new long[net.length], after);
+    }
+}
@@ -0,0 +1,48 @@
+package com.splittrip.backend.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+class FxRateTableTest {
+
+    private static final String RATES = String.join("\n",
+            "# comment",
+            "date,currency,unitsPerUsd",
+            "2025-01-01,USD,1",
+            "2025-01-01,INR,80",
+            "2025-01-01,EUR,0.5",
+            "2025-02-01,USD,1",
+            "2025-02-01,INR,90");
+
+    @Test
+    void convertsThroughUsdUsingLatestQuoteOnOrBeforeDate() throws IOException {
+        FxRateTable table = FxRateTable.parse(new StringReader(RATES));
+
+        assertEquals(80.0, table.rate("USD", "INR", LocalDate.of(2025, 1, 15)), 1e-9);
+        assertEquals(90.0, table.rate("USD", "INR", LocalDate.of(2025, 3, 1)), 1e-9);
+        assertEquals(160.0, table.rate("EUR", "INR", LocalDate.of(2025, 1, 1)), 1e-9);
+        // Dates before the first quote fall back to the first quote
+        assertEquals(80.0, table.rate("USD", "INR", LocalDate.of(2024, 6, 1)), 1e-9);
+    }
+
+    @Test
+    void carriesMissingQuotesForward() throws IOException {
+        FxRateTable table = FxRateTable.parse(new StringReader(RATES));
+
+        // No EUR quote on 2025-02-01; the January one still applies
+        assertEquals(180.0, table.rate("EUR", "INR", LocalDate.of(2025, 2, 10)), 1e-9);
+    }
+
+    @Test
+    void rejectsUnknownCurrencies() throws IOException {
+        FxRateTable table = FxRateTable.parse(new StringReader(RATES));
+
+        assertThrows(IllegalArgumentException.class, () -> table.rate("XYZ", "INR", LocalDate.of(2025, 1, 1)));
+    }
+}
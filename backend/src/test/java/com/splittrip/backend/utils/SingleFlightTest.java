@@ -0,0 +1,109 @@
+package com.splittrip.backend.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTest {
+
+    private static final int CALLERS = 32;
+
+    @Test
+    void concurrentCallsShareOneLoad() throws Exception {
+        SingleFlight<String, Object> flight = new SingleFlight<>(16);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Object result = new Object();
+
+        List<Thread> callers = new CopyOnWriteArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<Object>> calls = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                calls.add(pool.submit(() -> {
+                    callers.add(Thread.currentThread());
+                    return flight.run("trip", () -> {
+                        loads.incrementAndGet();
+                        await(release);
+                        return result;
+                    });
+                }));
+            }
+            // Every caller is parked, either as the leader or on its result
+            while (callers.size() < CALLERS
+                    || callers.stream().anyMatch(thread -> thread.getState() != Thread.State.WAITING)) {
+                Thread.sleep(10);
+            }
+            release.countDown();
+
+            for (Future<Object> call : calls) {
+                assertSame(result, call.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+        assertEquals(0, flight.inFlight());
+
+        // Nothing is cached once the load is done
+        assertSame(result, flight.run("trip", () -> {
+            loads.incrementAndGet();
+            return result;
+        }));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void waitersSeeTheLeadersException() throws Exception {
+        SingleFlight<String, Object> flight = new SingleFlight<>(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<Object> leader = pool.submit(() -> flight.run("code", () -> {
+                started.countDown();
+                await(release);
+                throw new IllegalArgumentException("Trip not found");
+            }));
+            started.await();
+
+            IllegalArgumentException[] seen = new IllegalArgumentException[1];
+            Thread joiner = new Thread(() -> seen[0] = assertThrows(IllegalArgumentException.class,
+                    () -> flight.run("code", () -> "unused")));
+            joiner.start();
+            while (joiner.getState() != Thread.State.WAITING) {
+                Thread.sleep(10);
+            }
+            release.countDown();
+            joiner.join();
+
+            assertEquals("Trip not found", seen[0].getMessage());
+            assertThrows(Exception.class, () -> leader.get(10, TimeUnit.SECONDS));
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(0, flight.inFlight());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.splittrip.backend.utils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class SplitCalculatorTest {
+
+    @Test
+    void equalSplitGivesLeftoverPaiseToFirstMembers() {
+        assertArrayEquals(new long[] { 334, 333, 333 }, SplitCalculator.allocate(1000, null, 3));
+    }
+
+    @Test
+    void weightedSplitUsesLargestRemainder() {
+        // 1000 paise at 1:1:1 shares - same as equal
+        assertArrayEquals(new long[] { 334, 333, 333 }, SplitCalculator.allocate(1000, new long[] { 1, 1, 1 }, 3));
+        // 33.33% / 33.33% / 33.34% of 100 paise leaves one paisa for the largest remainder
+        assertArrayEquals(new long[] { 33, 33, 34 }, SplitCalculator.allocate(100, new long[] { 3333, 3333, 3334 }, 3));
+        // 2:1 of 100 paise -> 66.67 / 33.33
+        assertArrayEquals(new long[] { 67, 33 }, SplitCalculator.allocate(100, new long[] { 2, 1 }, 2));
+    }
+
+    @Test
+    void duplicateSplitMembersAreRejected() {
+        SplitCalculator.requireDistinct(List.of("a", "b", "c"));
+        assertThrows(IllegalArgumentException.class, () -> SplitCalculator.requireDistinct(List.of("a", "b", "a")));
+    }
+
+    @Test
+    void exactWeightsAreReturnedAsIs() {
+        assertArrayEquals(new long[] { 1200, 300, 0 }, SplitCalculator.allocate(1500, new long[] { 1200, 300, 0 }, 3));
+    }
+
+    @Test
+    void sharesAlwaysSumToAmount() {
+        Random random = new Random(7);
+        for (int run = 0; run < 10_000; run++) {
+            int n = 1 + random.nextInt(20);
+            long amount = random.nextInt(10_000_000);
+            long[] weights = new long[n];
+            for (int i = 0; i < n; i++) {
+                weights[i] = random.nextInt(1000);
+            }
+            weights[random.nextInt(n)] += 1; // at least one positive weight
+
+            assertEquals(amount, Arrays.stream(SplitCalculator.allocate(amount, weights, n)).sum());
+            assertEquals(amount, Arrays.stream(SplitCalculator.allocate(amount, null, n)).sum());
+        }
+    }
+
+    @Test
+    void largeAmountsDoNotOverflow() {
+        long amount = Long.MAX_VALUE / 2;
+        long[] shares = SplitCalculator.allocate(amount, new long[] { 1_000_000, 3_000_000 }, 2);
+        assertEquals(amount, shares[0] + shares[1]);
+    }
+}
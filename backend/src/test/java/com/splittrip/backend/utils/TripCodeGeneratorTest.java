@@ -0,0 +1,61 @@
+package com.splittrip.backend.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class TripCodeGeneratorTest {
+
+    private static final long KEY = 42L;
+
+    @Test
+    void fromIndexGivesDistinctSixCharacterCodes() {
+        Set<String> codes = new HashSet<>();
+        for (long i = 0; i < 200_000; i++) {
+            String code = TripCodeGenerator.fromIndex(i, KEY);
+            assertEquals(6, code.length());
+            assertTrue(codes.add(code), "duplicate code " + code + " at index " + i);
+        }
+    }
+
+    @Test
+    void fromIndexGrowsLengthWhenSixCharacterSpaceIsExhausted() {
+        long sixCharSpace = 1L << 30;
+        assertEquals(6, TripCodeGenerator.fromIndex(sixCharSpace - 1, KEY).length());
+        assertEquals(7, TripCodeGenerator.fromIndex(sixCharSpace, KEY).length());
+
+        Set<String> codes = new HashSet<>();
+        for (long i = sixCharSpace; i < sixCharSpace + 50_000; i++) {
+            assertTrue(codes.add(TripCodeGenerator.fromIndex(i, KEY)));
+        }
+    }
+
+    @Test
+    void fromIndexIsStableForSameKey() {
+        assertEquals(TripCodeGenerator.fromIndex(12345, KEY), TripCodeGenerator.fromIndex(12345, KEY));
+    }
+
+    @Test
+    void indexOfInvertsFromIndex() {
+        long sixCharSpace = 1L << 30;
+        long[] indexes = {0, 1, 12345, sixCharSpace - 1, sixCharSpace, sixCharSpace + 987_654, 5L << 40};
+        for (long index : indexes) {
+            assertEquals(index, TripCodeGenerator.indexOf(TripCodeGenerator.fromIndex(index, KEY), KEY));
+        }
+        for (long index = 0; index < 100_000; index++) {
+            assertEquals(index, TripCodeGenerator.indexOf(TripCodeGenerator.fromIndex(index, KEY), KEY));
+        }
+    }
+
+    @Test
+    void indexOfRejectsCodesNoIndexMapsTo() {
+        assertEquals(-1, TripCodeGenerator.indexOf("ABCDE", KEY));        // too short
+        assertEquals(-1, TripCodeGenerator.indexOf("ABCDE0", KEY));       // 0 is never used
+        assertEquals(-1, TripCodeGenerator.indexOf("abcdef", KEY));
+        assertEquals(-1, TripCodeGenerator.indexOf("ABCDEFGHJKLMN", KEY)); // too long
+    }
+}
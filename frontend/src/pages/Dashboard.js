@@ -22,6 +22,7 @@ const Dashboard = ({ user }) => {
   const [joinMessage, setJoinMessage] = useState('');
   const [joinLoading, setJoinLoading] = useState(false);
   const [completeLoading, setCompleteLoading] = useState({});
+  const [pendingByTrip, setPendingByTrip] = useState({});
 
   const loadUserTrips = useCallback(async () => {
     if (!userId) {
@@ -35,9 +36,17 @@ const Dashboard = ({ user }) => {
     try {
       setLoading(true);
       setError('');
-      const trips = await tripAPI.getUserTrips(userId);
-      const active = Array.isArray(trips) ? trips.filter(t => t.status === 'ACTIVE') : [];
-      setActiveTrips(active);
+      // One inbox read covers pending join requests on every trip the user created
+      const [trips, inbox] = await Promise.all([
+        tripAPI.getAllUserTripList(userId, 'ACTIVE'),
+        joinRequestAPI.getInbox(userId).catch(() => null),
+      ]);
+      setActiveTrips(Array.isArray(trips) ? trips : []);
+      const counts = {};
+      (inbox?.requests || []).forEach(req => {
+        counts[req.tripId] = (counts[req.tripId] || 0) + 1;
+      });
+      setPendingByTrip(counts);
     } catch (err) {
       console.error('Failed to load trips:', err);
       setActiveTrips([]);
@@ -82,7 +91,7 @@ const Dashboard = ({ user }) => {
 
   const handleCompleteTrip = async (tripId) => {
     // Only creators can complete trips
-    const targetTrip = activeTrips.find(t => t.id === tripId);
+    const targetTrip = activeTrips.find(t => t.tripId === tripId);
     if (!targetTrip || targetTrip.createdBy !== userId) {
       setError('Only the trip creator can complete this trip.');
       return;
@@ -186,26 +195,31 @@ const Dashboard = ({ user }) => {
           {activeTrips && activeTrips.length > 0 ? (
             <div style={styles.tripsGrid}>
               {activeTrips.map(trip => (
-                <div key={trip.id} style={styles.tripCard} className="dashboard-trip-card">
+                <div key={trip.tripId} style={styles.tripCard} className="dashboard-trip-card">
                   <h3 style={styles.tripTitle} className="dashboard-trip-title">{trip.name}</h3>
                   <p style={styles.tripCode} className="dashboard-trip-code">Code: <strong>{trip.tripCode}</strong></p>
                   <p style={styles.tripInfo} className="dashboard-trip-info">
-                    {trip.members?.length || 0} members • {trip.status === 'ACTIVE' ? '✅ Active' : 'Completed'}
+                    {trip.memberCount} members • {trip.status === 'ACTIVE' ? '✅ Active' : 'Completed'}
                   </p>
+                  {trip.createdBy === userId && pendingByTrip[trip.tripId] > 0 && (
+                    <p style={styles.pendingInfo}>
+                      🔔 {pendingByTrip[trip.tripId]} pending join request(s)
+                    </p>
+                  )}
                   <div style={styles.tripActions} className="dashboard-trip-actions">
                     <button
-                      onClick={() => navigate(`/trip/${trip.id}`)}
+                      onClick={() => navigate(`/trip/${trip.tripId}`)}
                       style={styles.primaryButton}
                     >
                       View Details
                     </button>
                     {trip.createdBy === userId && (
                       <button
-                        onClick={() => handleCompleteTrip(trip.id)}
-                        disabled={completeLoading[trip.id]}
+                        onClick={() => handleCompleteTrip(trip.tripId)}
+                        disabled={completeLoading[trip.tripId]}
                         style={styles.completeButton}
                       >
-                        {completeLoading[trip.id] ? 'Completing...' : 'Complete'}
+                        {completeLoading[trip.tripId] ? 'Completing...' : 'Complete'}
                       </button>
                     )}
                   </div>
@@ -278,6 +292,11 @@ const styles = {
     color: '#4a5568',
     margin: '0 0 16px 0',
   },
+  pendingInfo: {
+    fontSize: '13px',
+    color: '#c05621',
+    margin: '-8px 0 16px 0',
+  },
   emptyState: {
     backgroundColor: 'white',
     borderRadius: '12px',
@@ -27,18 +27,9 @@ const PreviousTrips = ({ user }) => {
     
     try {
       setLoading(true);
-      const result = await tripAPI.getUserTrips(userId);
-      
-      // Extract trips array from response
-      const allTrips = result?.success && Array.isArray(result?.data) 
-        ? result.data 
-        : Array.isArray(result) 
-        ? result 
-        : [];
-      
-      // Filter completed trips
-      const completedTrips = allTrips.filter(t => t.status === 'COMPLETED');
-      setTrips(completedTrips);
+      // List rows only: no members arrays
+      const completedTrips = await tripAPI.getAllUserTripList(userId, 'COMPLETED');
+      setTrips(Array.isArray(completedTrips) ? completedTrips : []);
     } catch (err) {
       console.error('Error loading previous trips:', err);
       setTrips([]);
@@ -68,9 +59,9 @@ const PreviousTrips = ({ user }) => {
           <div style={styles.tripsList}>
             {trips.map(trip => (
               <div 
-                key={trip.id}
+                key={trip.tripId}
                 style={styles.tripCard}
-                onClick={() => navigate(`/trip/${trip.id}`)}
+                onClick={() => navigate(`/trip/${trip.tripId}`)}
               >
                 <div style={styles.tripTitleRow}>
                   <h3 style={styles.tripName}>{trip.name}</h3>
@@ -79,7 +70,7 @@ const PreviousTrips = ({ user }) => {
                   </span>
                 </div>
                 <p style={styles.tripMeta}>
-                  {trip.members.length} members • Completed
+                  {trip.memberCount} members • Completed
                 </p>
               </div>
             ))}
@@ -3,6 +3,11 @@ import { useParams, useNavigate } from 'react-router-dom';
 import { guestIdentity } from '../utils/guestIdentity';
 import { tripAPI, joinRequestAPI, expenseAPI } from '../services/api';
 
+const formatInstruction = (instruction, currency) => {
+  const symbol = !currency || currency === 'INR' ? '₹' : `${currency} `;
+  return `${instruction.fromUserName} has to pay ${symbol}${instruction.amount.toFixed(2)} to ${instruction.toUserName}`;
+};
+
 const TripDashboard = () => {
   const { tripId } = useParams();
   const navigate = useNavigate();
@@ -39,7 +44,7 @@ const TripDashboard = () => {
       if (tripResult.success) {
         setTrip(tripResult.data);
         const [balanceResult, expensesResult] = await Promise.all([
-          tripAPI.getBalanceSummary(tripId),
+          tripAPI.getBalanceSummary(tripId, ['currency', 'instructions']),
           expenseAPI.listByTrip(tripId)
         ]);
 
@@ -147,7 +152,7 @@ const TripDashboard = () => {
           {balanceSummary && balanceSummary.instructions.length > 0 ? (
             balanceSummary.instructions.map((instruction, idx) => (
               <div key={idx} style={styles.balanceItem}>
-                {instruction.message}
+                {formatInstruction(instruction, balanceSummary.currency)}
               </div>
             ))
           ) : (
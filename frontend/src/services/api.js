@@ -62,8 +62,10 @@ export const tripAPI = {
     return response.json();
   },
 
-  getBalanceSummary: async (tripId) => {
-    const response = await fetch(`${API_BASE_URL}/trips/${tripId}/balance-summary`);
+  // fields: optional list of top-level properties to return, e.g. ['currency', 'instructions']
+  getBalanceSummary: async (tripId, fields) => {
+    const query = fields ? `?fields=${fields.join(',')}` : '';
+    const response = await fetch(`${API_BASE_URL}/trips/${tripId}/balance-summary${query}`);
     return response.json();
   }
 };
@@ -110,6 +110,16 @@ export const userAPI = {
     const response = await apiClient.get(`/users/${userId}`);
     return response.data.data;
   },
+
+  /**
+   * Net position per counterparty across all the user's trips
+   * GET /users/{id}/net
+   * Returns: { userId, positions: { currency: { counterpartyId: paise } }, totals: { currency: paise } }
+   */
+  getNetPosition: async (userId) => {
+    const response = await apiClient.get(`/users/${userId}/net`);
+    return response.data.data;
+  },
 };
 
 // ============= TRIP APIs =============
@@ -165,6 +175,34 @@ export const tripAPI = {
     return response.data.data;
   },
 
+  /**
+   * Get one page of the user's trips without member arrays
+   * GET /trips/user/{userId}/list?status=&page=&size=
+   * Returns: [{ tripId, name, tripCode, status, createdBy, memberCount, createdAt }]
+   */
+  getUserTripList: async (userId, page = 0, size = 20, status) => {
+    const response = await apiClient.get(`/trips/user/${userId}/list`, {
+      params: { page, size, status },
+    });
+    return response.data.data;
+  },
+
+  /**
+   * Get every page of the user's trips in one status (ACTIVE or COMPLETED)
+   * Same rows as getUserTripList
+   */
+  getAllUserTripList: async (userId, status) => {
+    const size = 100;
+    const trips = [];
+    for (let page = 0; ; page++) {
+      const rows = await tripAPI.getUserTripList(userId, page, size, status);
+      trips.push(...(rows || []));
+      if (!rows || rows.length < size) {
+        return trips;
+      }
+    }
+  },
+
   /**
    * Join user to existing trip
    * POST /trips/{tripId}/join
@@ -240,6 +278,15 @@ export const joinRequestAPI = {
     return response.data.data;
   },
 
+  /**
+   * Get pending requests across all trips the user created, with their count
+   * GET /join-requests/creator/{userId}/inbox
+   */
+  getInbox: async (userId) => {
+    const response = await apiClient.get(`/join-requests/creator/${userId}/inbox`);
+    return response.data.data;
+  },
+
   /**
    * Approve a join request (creator action)
    * POST /join-requests/approve
@@ -279,9 +326,30 @@ export const expenseAPI = {
   /**
    * Get expenses for trip
    * GET /expenses/trip/{tripId}
+   * Optional filters: { paidBy, involving, from, to, minAmount, maxAmount }
+   */
+  getTripExpenses: async (tripId, filters = {}) => {
+    const response = await apiClient.get(`/expenses/trip/${tripId}`, { params: filters });
+    return response.data.data;
+  },
+
+  /**
+   * Edit expense (send the version you loaded; 409 if someone else changed it)
+   * PUT /expenses/{expenseId}
+   */
+  update: async (expenseId, expense) => {
+    const response = await apiClient.put(`/expenses/${expenseId}`, expense);
+    return response.data.data;
+  },
+
+  /**
+   * Delete expense
+   * DELETE /expenses/{expenseId}?userId=...&version=...
    */
-  getTripExpenses: async (tripId) => {
-    const response = await apiClient.get(`/expenses/trip/${tripId}`);
+  delete: async (expenseId, userId, version) => {
+    const response = await apiClient.delete(`/expenses/${expenseId}`, {
+      params: { userId, version },
+    });
     return response.data.data;
   },
 };